@@ -0,0 +1,73 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.benchmark;
+
+import java.util.Random;
+
+/**
+ * Shared sample data for the benchmarks.
+ * <p>
+ * Instants are generated from a fixed seed so that every run, and every
+ * release, measures exactly the same inputs.
+ */
+final class BenchmarkData {
+
+    /** Number of samples, a power of two so the index can be masked. */
+    static final int SIZE = 1024;
+    /** Mask to wrap an index into the sample arrays. */
+    static final int MASK = SIZE - 1;
+
+    /** 1900-01-01T00:00:00Z. */
+    private static final long START = -2208988800000L;
+    /** 2100-01-01T00:00:00Z. */
+    private static final long END = 4102444800000L;
+
+    /**
+     * Restricted constructor.
+     */
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates an array of instants spread randomly between 1900 and 2100.
+     *
+     * @return the instants, never null
+     */
+    static long[] randomInstants() {
+        Random random = new Random(20101010L);
+        long[] instants = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            instants[i] = START + (long) (random.nextDouble() * (END - START));
+        }
+        return instants;
+    }
+
+    /**
+     * Creates an array of instants one minute apart starting in 2010,
+     * representative of sorted event streams.
+     *
+     * @return the instants, never null
+     */
+    static long[] sequentialInstants() {
+        long[] instants = new long[SIZE];
+        long start = 1262304000000L;  // 2010-01-01T00:00:00Z
+        for (int i = 0; i < SIZE; i++) {
+            instants[i] = start + i * 60000L;
+        }
+        return instants;
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTimeField;
+import org.joda.time.DateTimeFieldType;
+import org.joda.time.DateTimeZone;
+import org.joda.time.chrono.ISOChronology;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the field decoding in <code>BasicChronology</code>,
+ * namely <code>getYear</code>, <code>getMonthOfYear</code> and
+ * <code>getDayOfMonth</code>, as reached through the public field API
+ * and through the bulk <code>getDateTimeFields</code> and <code>get</code> methods.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChronologyBenchmark {
+
+    private long[] iInstants;
+    private int iIndex;
+    private Chronology iChronology;
+    private int[] iValues;
+    private Chronology iZonedChronology;
+    private DateTimeField iZonedHourOfDay;
+    private long[] iSequentialInstants;
+    private int[] iBulkValues;
+    private DateTimeField iYear;
+    private DateTimeField iMonthOfYear;
+    private DateTimeField iDayOfMonth;
+
+    @Setup
+    public void setUp() {
+        Chronology chrono = ISOChronology.getInstanceUTC();
+        iChronology = chrono;
+        iValues = new int[7];
+        iYear = chrono.year();
+        iMonthOfYear = chrono.monthOfYear();
+        iDayOfMonth = chrono.dayOfMonth();
+        iInstants = BenchmarkData.randomInstants();
+        iZonedChronology = ISOChronology.getInstance(DateTimeZone.forID("Europe/Paris"));
+        iZonedHourOfDay = iZonedChronology.hourOfDay();
+        iSequentialInstants = BenchmarkData.sequentialInstants();
+        iBulkValues = new int[BenchmarkData.SIZE];
+    }
+
+    private long nextInstant() {
+        return iInstants[iIndex++ & BenchmarkData.MASK];
+    }
+
+    @Benchmark
+    public int getYear() {
+        return iYear.get(nextInstant());
+    }
+
+    @Benchmark
+    public int getMonthOfYear() {
+        return iMonthOfYear.get(nextInstant());
+    }
+
+    @Benchmark
+    public int getDayOfMonth() {
+        return iDayOfMonth.get(nextInstant());
+    }
+
+    @Benchmark
+    public int getYearMonthDay() {
+        long instant = nextInstant();
+        return iYear.get(instant) ^ iMonthOfYear.get(instant) ^ iDayOfMonth.get(instant);
+    }
+
+    @Benchmark
+    public int getDateTimeFields() {
+        int[] values = iValues;
+        iChronology.getDateTimeFields(nextInstant(), values);
+        return values[0] ^ values[1] ^ values[2];
+    }
+
+    @Benchmark
+    public int[] getHourOfDayZonedLoop() {
+        long[] instants = iSequentialInstants;
+        int[] values = iBulkValues;
+        DateTimeField field = iZonedHourOfDay;
+        for (int i = 0; i < instants.length; i++) {
+            values[i] = field.get(instants[i]);
+        }
+        return values;
+    }
+
+    @Benchmark
+    public int[] getHourOfDayZonedBulk() {
+        int[] values = iBulkValues;
+        iZonedChronology.get(DateTimeFieldType.hourOfDay(), iSequentialInstants, 0, values, 0, values.length);
+        return values;
+    }
+
+    @Benchmark
+    public int[] getDayOfMonthZonedBulk() {
+        int[] values = iBulkValues;
+        iZonedChronology.get(DateTimeFieldType.dayOfMonth(), iSequentialInstants, 0, values, 0, values.length);
+        return values;
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks <code>DateTimeFormatter.print</code> and
+ * <code>DateTimeFormatter.parseMillis</code> for ISO and pattern formatters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeFormatterBenchmark {
+
+    private long[] iInstants;
+    private String[] iIsoTexts;
+    private String[] iPatternTexts;
+    private int iIndex;
+    private DateTimeFormatter iIsoFormatter;
+    private DateTimeFormatter iIsoUtcFormatter;
+    private StringBuilder iBuilder;
+    private DateTimeFormatter iIsoParser;
+    private DateTimeFormatter iPatternFormatter;
+
+    @Setup
+    public void setUp() {
+        DateTimeZone zone = DateTimeZone.forID("Europe/Paris");
+        iIsoFormatter = ISODateTimeFormat.dateTime().withZone(zone);
+        iIsoUtcFormatter = ISODateTimeFormat.dateTime().withZone(DateTimeZone.UTC);
+        iBuilder = new StringBuilder(32);
+        iIsoParser = ISODateTimeFormat.dateTimeParser().withZone(zone);
+        iPatternFormatter = DateTimeFormat.forPattern("dd MMM yyyy HH:mm:ss").withZone(zone);
+        iInstants = BenchmarkData.randomInstants();
+        iIsoTexts = new String[BenchmarkData.SIZE];
+        iPatternTexts = new String[BenchmarkData.SIZE];
+        for (int i = 0; i < BenchmarkData.SIZE; i++) {
+            iIsoTexts[i] = iIsoFormatter.print(iInstants[i]);
+            iPatternTexts[i] = iPatternFormatter.print(iInstants[i]);
+        }
+    }
+
+    @Benchmark
+    public String printIso() {
+        return iIsoFormatter.print(iInstants[iIndex++ & BenchmarkData.MASK]);
+    }
+
+    @Benchmark
+    public int printIsoUtcToBuilder() {
+        StringBuilder buf = iBuilder;
+        buf.setLength(0);
+        iIsoUtcFormatter.printTo(buf, iInstants[iIndex++ & BenchmarkData.MASK]);
+        return buf.length();
+    }
+
+    @Benchmark
+    public String printPattern() {
+        return iPatternFormatter.print(iInstants[iIndex++ & BenchmarkData.MASK]);
+    }
+
+    @Benchmark
+    public long parseMillisIso() {
+        return iIsoParser.parseMillis(iIsoTexts[iIndex++ & BenchmarkData.MASK]);
+    }
+
+    @Benchmark
+    public long parseMillisPattern() {
+        return iPatternFormatter.parseMillis(iPatternTexts[iIndex++ & BenchmarkData.MASK]);
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.benchmark;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTimeFieldType;
+import org.joda.time.DateTimeZone;
+import org.joda.time.chrono.ISOChronology;
+import org.joda.time.format.DateTimeParser;
+import org.joda.time.format.DateTimeParserBucket;
+import org.joda.time.format.ISODateTimeFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks <code>DateTimeParserBucket.computeMillis</code> with the set of
+ * fields saved by a typical date-time parse.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeParserBucketBenchmark {
+
+    private Chronology iUTCChrono;
+    private DateTimeZone iZone;
+    private DateTimeParser iParser;
+    private DateTimeParserBucket iReusedBucket;
+
+    @Setup
+    public void setUp() {
+        iZone = DateTimeZone.forID("Europe/Paris");
+        iUTCChrono = ISOChronology.getInstanceUTC();
+        iParser = ISODateTimeFormat.dateTime().getParser();
+        iReusedBucket = new DateTimeParserBucket(0L, ISOChronology.getInstance(iZone), Locale.ENGLISH);
+    }
+
+    private DateTimeParserBucket createBucket() {
+        DateTimeParserBucket bucket = new DateTimeParserBucket(0L, iUTCChrono, Locale.ENGLISH);
+        bucket.setZone(iZone);
+        bucket.saveField(DateTimeFieldType.year(), 2010);
+        bucket.saveField(DateTimeFieldType.monthOfYear(), 6);
+        bucket.saveField(DateTimeFieldType.dayOfMonth(), 30);
+        bucket.saveField(DateTimeFieldType.hourOfDay(), 12);
+        bucket.saveField(DateTimeFieldType.minuteOfHour(), 34);
+        bucket.saveField(DateTimeFieldType.secondOfMinute(), 56);
+        bucket.saveField(DateTimeFieldType.millisOfSecond(), 789);
+        return bucket;
+    }
+
+    @Benchmark
+    public long computeMillis() {
+        return createBucket().computeMillis(true);
+    }
+
+    @Benchmark
+    public long computeMillisReused() {
+        DateTimeParserBucket bucket = iReusedBucket;
+        bucket.reset();
+        bucket.saveField(DateTimeFieldType.year(), 2010);
+        bucket.saveField(DateTimeFieldType.monthOfYear(), 6);
+        bucket.saveField(DateTimeFieldType.dayOfMonth(), 30);
+        bucket.saveField(DateTimeFieldType.hourOfDay(), 12);
+        bucket.saveField(DateTimeFieldType.minuteOfHour(), 34);
+        bucket.saveField(DateTimeFieldType.secondOfMinute(), 56);
+        bucket.saveField(DateTimeFieldType.millisOfSecond(), 789);
+        return bucket.computeMillis(true);
+    }
+
+    @Benchmark
+    public long parseMillisReused() {
+        return iReusedBucket.parseMillis(iParser, "2010-06-30T12:34:56.789+02:00");
+    }
+
+}
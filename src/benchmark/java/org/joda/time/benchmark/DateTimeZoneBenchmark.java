@@ -0,0 +1,121 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTimeZone;
+import org.joda.time.tz.CachedDateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks offset lookups in <code>CachedDateTimeZone</code> and
+ * <code>DateTimeZone.getOffsetFromLocal</code>, singly and in bulk.
+ * <p>
+ * Both sequential (cache friendly) and random (cache hostile) instants are
+ * measured, and the uncached zone is measured alongside for comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeZoneBenchmark {
+
+    @Param({"Europe/London", "America/New_York", "Australia/Sydney"})
+    private String iZoneId;
+
+    @Param({"random", "sequential"})
+    private String iDistribution;
+
+    private long[] iInstants;
+    private int iIndex;
+    private CachedDateTimeZone iCachedZone;
+    private DateTimeZone iUncachedZone;
+    private int[] iOffsets;
+    private long[] iLocalInstants;
+
+    @Setup
+    public void setUp() {
+        iCachedZone = CachedDateTimeZone.forZone(DateTimeZone.forID(iZoneId));
+        iUncachedZone = iCachedZone.getUncachedZone();
+        if ("random".equals(iDistribution)) {
+            iInstants = BenchmarkData.randomInstants();
+        } else {
+            iInstants = BenchmarkData.sequentialInstants();
+        }
+        iOffsets = new int[BenchmarkData.SIZE];
+        iLocalInstants = new long[BenchmarkData.SIZE];
+    }
+
+    private long nextInstant() {
+        return iInstants[iIndex++ & BenchmarkData.MASK];
+    }
+
+    @Benchmark
+    public int cachedGetOffset() {
+        return iCachedZone.getOffset(nextInstant());
+    }
+
+    @Benchmark
+    public int uncachedGetOffset() {
+        return iUncachedZone.getOffset(nextInstant());
+    }
+
+    @Benchmark
+    public int cachedGetOffsetFromLocal() {
+        return iCachedZone.getOffsetFromLocal(nextInstant());
+    }
+
+    @Benchmark
+    public int uncachedGetOffsetFromLocal() {
+        return iUncachedZone.getOffsetFromLocal(nextInstant());
+    }
+
+    @Benchmark
+    public int[] cachedGetOffsetsLoop() {
+        long[] instants = iInstants;
+        int[] offsets = iOffsets;
+        for (int i = 0; i < instants.length; i++) {
+            offsets[i] = iCachedZone.getOffset(instants[i]);
+        }
+        return offsets;
+    }
+
+    @Benchmark
+    public int[] cachedGetOffsetsBulk() {
+        iCachedZone.getOffsets(iInstants, iOffsets, 0, iOffsets.length);
+        return iOffsets;
+    }
+
+    @Benchmark
+    public long[] cachedConvertUTCToLocalBulk() {
+        iCachedZone.convertUTCToLocal(iInstants, iLocalInstants, 0, iLocalInstants.length);
+        return iLocalInstants;
+    }
+
+}
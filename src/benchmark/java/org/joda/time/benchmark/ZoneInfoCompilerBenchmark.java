@@ -0,0 +1,113 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.tz.ZoneInfoCompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks compiling the bundled tz database with <code>ZoneInfoCompiler</code>.
+ * <p>
+ * Each invocation compiles every source file into a scratch directory.
+ * In incremental mode the directory is kept between invocations, so all but
+ * the first measure a recompile with no changes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZoneInfoCompilerBenchmark {
+
+    /** The bundled source files, as listed in the build. */
+    private static final String[] SOURCES = {
+        "africa", "antarctica", "asia", "australasia", "europe", "northamerica",
+        "southamerica", "pacificnew", "etcetera", "backward", "systemv",
+    };
+
+    @Param({"1", "4"})
+    private int iThreads;
+
+    @Param({"false", "true"})
+    private boolean iIncremental;
+
+    private File[] iSources;
+    private File iOutputDir;
+    private PrintStream iOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        File dir = new File("src/main/java/org/joda/time/tz/src");
+        iSources = new File[SOURCES.length];
+        for (int i = 0; i < SOURCES.length; i++) {
+            iSources[i] = new File(dir, SOURCES[i]);
+        }
+        iOutputDir = File.createTempFile("joda-benchmark-", ".dir");
+        iOutputDir.delete();
+        iOutputDir.mkdirs();
+        // the compiler reports every zone written
+        iOut = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            public void write(int b) {
+            }
+        }));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(iOut);
+        delete(iOutputDir);
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (int i = 0; i < files.length; i++) {
+                delete(files[i]);
+            }
+        }
+        file.delete();
+    }
+
+    @Benchmark
+    public Map compile() throws IOException {
+        ZoneInfoCompiler compiler = new ZoneInfoCompiler();
+        compiler.setThreads(iThreads);
+        compiler.setIncremental(iIncremental);
+        return compiler.compile(iOutputDir, null, iSources);
+    }
+
+}
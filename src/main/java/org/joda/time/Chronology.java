@@ -491,6 +491,89 @@ public abstract class Chronology {
                            int hourOfDay, int minuteOfHour,
                            int secondOfMinute, int millisOfSecond);
 
+    /**
+     * Decodes a datetime millisecond instant into its year, month, day, hour,
+     * minute, second, and millisecond values, the reverse of
+     * {@link #getDateTimeMillis(int, int, int, int, int, int, int)}.
+     * <p>
+     * The values are stored in the array in the order year, monthOfYear,
+     * dayOfMonth, hourOfDay, minuteOfHour, secondOfMinute and millisOfSecond.
+     * The array must have a length of at least seven and may be reused
+     * between calls, allowing many instants to be decoded without creating
+     * any objects.
+     * <p>
+     * The default implementation calls upon separate DateTimeFields to
+     * determine the result. Subclasses are encouraged to provide a more
+     * efficient implementation.
+     *
+     * @param instant  millisecond instant from 1970-01-01T00:00:00Z
+     * @param values  the array to store the values in, not null
+     * @throws IndexOutOfBoundsException if the array is too short
+     * @since 2.0
+     */
+    public void getDateTimeFields(long instant, int[] values) {
+        values[6] = millisOfSecond().get(instant);
+        values[0] = year().get(instant);
+        values[1] = monthOfYear().get(instant);
+        values[2] = dayOfMonth().get(instant);
+        values[3] = hourOfDay().get(instant);
+        values[4] = minuteOfHour().get(instant);
+        values[5] = secondOfMinute().get(instant);
+    }
+
+    /**
+     * Gets the values of a single field for an array of instants.
+     * <p>
+     * The value for <code>instants[instantsOffset + i]</code> is stored in
+     * <code>values[valuesOffset + i]</code>, for each <code>i</code> from zero
+     * to <code>length - 1</code>. This is equivalent to calling
+     * <code>type.getField(this).get(instant)</code> for each instant, but
+     * implementations take advantage of sorted or clustered input by reusing
+     * the year and time zone offset calculated for the previous instant.
+     * <p>
+     * The default implementation calls upon the DateTimeField for each
+     * instant. Subclasses are encouraged to provide a more efficient
+     * implementation.
+     *
+     * @param type  the field type to query, not null
+     * @param instants  the millisecond instants from 1970-01-01T00:00:00Z, not null
+     * @param instantsOffset  the index of the first instant to query
+     * @param values  the array to store the values in, not null
+     * @param valuesOffset  the index to store the first value at
+     * @param length  the number of instants to query
+     * @throws IndexOutOfBoundsException if either range is outside its array
+     * @since 2.0
+     */
+    public void get(DateTimeFieldType type, long[] instants, int instantsOffset,
+                    int[] values, int valuesOffset, int length) {
+        checkRange(instants, instantsOffset, values, valuesOffset, length);
+        DateTimeField field = type.getField(this);
+        for (int i = 0; i < length; i++) {
+            values[valuesOffset + i] = field.get(instants[instantsOffset + i]);
+        }
+    }
+
+    /**
+     * Validates the array ranges passed to the bulk get method, for use by
+     * subclasses that override it.
+     *
+     * @param instants  the millisecond instants, not null
+     * @param instantsOffset  the index of the first instant
+     * @param values  the array to store the values in, not null
+     * @param valuesOffset  the index to store the first value at
+     * @param length  the number of instants
+     * @throws IndexOutOfBoundsException if either range is outside its array
+     * @since 2.0
+     */
+    protected static void checkRange(long[] instants, int instantsOffset,
+                                     int[] values, int valuesOffset, int length) {
+        if (length < 0 || instantsOffset < 0 || valuesOffset < 0
+                || instantsOffset > instants.length - length
+                || valuesOffset > values.length - length) {
+            throw new IndexOutOfBoundsException("Invalid range for " + length + " instants");
+        }
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Validates whether the values are valid for the fields of a partial instant.
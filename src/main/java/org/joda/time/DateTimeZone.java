@@ -20,13 +20,18 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.ObjectStreamException;
 import java.io.Serializable;
-import java.lang.ref.Reference;
 import java.lang.ref.SoftReference;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.StringTokenizer;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.joda.time.chrono.BaseChronology;
 import org.joda.time.field.FieldUtils;
@@ -92,22 +97,54 @@ public abstract class DateTimeZone implements Serializable {
     /** The time zone for Universal Coordinated Time */
     public static final DateTimeZone UTC = new FixedDateTimeZone("UTC", "UTC", 0, 0);
 
+    /**
+     * Resolves a local time in a gap or overlap using the offset in effect
+     * before the transition, which is the earlier instant in an overlap.
+     * @since 2.0
+     */
+    public static final int RESOLVE_EARLIER = 0;
+    /**
+     * Resolves a local time in a gap or overlap using the offset in effect
+     * after the transition, which is the later instant in an overlap.
+     * @since 2.0
+     */
+    public static final int RESOLVE_LATER = 1;
+    /**
+     * Rejects a local time in a gap or overlap, returning {@link #INVALID_OFFSET}.
+     * @since 2.0
+     */
+    public static final int RESOLVE_REJECT = 2;
+    /**
+     * The offset returned for a rejected local time, which is never a valid offset.
+     * @since 2.0
+     */
+    public static final int INVALID_OFFSET = Integer.MIN_VALUE;
+
     /** The instance that is providing time zones. */
-    private static Provider cProvider;
+    private static volatile Provider cProvider;
     /** The instance that is providing time zone names. */
     private static NameProvider cNameProvider;
     /** The set of ID strings. */
-    private static Set cAvailableIDs;
+    private static volatile Set cAvailableIDs;
     /** The default time zone. */
     private static volatile DateTimeZone cDefault;
     /** A formatter for printing and parsing zones. */
-    private static DateTimeFormatter cOffsetFormatter;
-
-    /** Cache that maps fixed offset strings to softly referenced DateTimeZones */
-    private static Map iFixedOffsetCache;
+    private static volatile DateTimeFormatter cOffsetFormatter;
+
+    /** The spacing of the offsets held in the dense fixed offset cache, 15 minutes. */
+    private static final int FIXED_OFFSET_STEP = 15 * DateTimeConstants.MILLIS_PER_MINUTE;
+    /** The number of steps either side of zero in the dense fixed offset cache. */
+    private static final int FIXED_OFFSET_STEPS = DateTimeConstants.MILLIS_PER_DAY / FIXED_OFFSET_STEP;
+    /** Cache of fixed offset zones on a 15 minute grid, indexed by offset. */
+    private static final AtomicReferenceArray cFixedOffsetZones =
+        new AtomicReferenceArray(2 * FIXED_OFFSET_STEPS + 1);
+    /** Cache that maps other offsets to softly referenced DateTimeZones */
+    private static final ConcurrentMap cFixedOffsetCache = new ConcurrentHashMap();
 
     /** Cache of old zone IDs to new zone IDs */
-    private static Map cZoneIdConversion;
+    private static volatile Map cZoneIdConversion;
+    /** Cache of JDK time zone IDs to zones, replaced when the provider changes */
+    private static volatile ConcurrentMap cTimeZoneCache = new ConcurrentHashMap();
 
     static {
         setProvider0(null);
@@ -204,13 +241,7 @@ public abstract class DateTimeZone implements Serializable {
             return zone;
         }
         if (id.startsWith("+") || id.startsWith("-")) {
-            int offset = parseOffset(id);
-            if (offset == 0L) {
-                return DateTimeZone.UTC;
-            } else {
-                id = printOffset(offset);
-                return fixedOffsetZone(id, offset);
-            }
+            return fixedOffsetZone(parseOffset(id));
         }
         throw new IllegalArgumentException("The datetime zone id '" + id + "' is not recognised");
     }
@@ -271,8 +302,7 @@ public abstract class DateTimeZone implements Serializable {
      * @return the DateTimeZone object for the offset
      */
     public static DateTimeZone forOffsetMillis(int millisOffset) {
-        String id = printOffset(millisOffset);
-        return fixedOffsetZone(id, millisOffset);
+        return fixedOffsetZone(millisOffset);
     }
 
     /**
@@ -285,6 +315,9 @@ public abstract class DateTimeZone implements Serializable {
      * <p>
      * This method is not designed to parse time zones with rules created by
      * applications using <code>SimpleTimeZone</code> directly.
+     * <p>
+     * Zones found by ID are cached by the ID of the TimeZone, so that
+     * converting the same TimeZone ID again is a single map lookup.
      * 
      * @param zone  the zone to convert, null means default
      * @return the DateTimeZone object for the zone
@@ -295,20 +328,28 @@ public abstract class DateTimeZone implements Serializable {
             return getDefault();
         }
         final String id = zone.getID();
+        // read the cache before the provider, the reverse of the order they are
+        // replaced in, so that a zone from an old provider is never cached
+        ConcurrentMap cache = cTimeZoneCache;
+        DateTimeZone dtz = (DateTimeZone) cache.get(id);
+        if (dtz != null) {
+            return dtz;
+        }
         if (id.equals("UTC")) {
             return DateTimeZone.UTC;
         }
 
         // Convert from old alias before consulting provider since they may differ.
-        DateTimeZone dtz = null;
+        Provider provider = cProvider;
         String convId = getConvertedId(id);
         if (convId != null) {
-            dtz = cProvider.getZone(convId);
+            dtz = provider.getZone(convId);
         }
         if (dtz == null) {
-            dtz = cProvider.getZone(id);
+            dtz = provider.getZone(id);
         }
         if (dtz != null) {
+            cache.put(id, dtz);
             return dtz;
         }
 
@@ -317,13 +358,7 @@ public abstract class DateTimeZone implements Serializable {
             convId = zone.getDisplayName();
             if (convId.startsWith("GMT+") || convId.startsWith("GMT-")) {
                 convId = convId.substring(3);
-                int offset = parseOffset(convId);
-                if (offset == 0L) {
-                    return DateTimeZone.UTC;
-                } else {
-                    convId = printOffset(offset);
-                    return fixedOffsetZone(convId, offset);
-                }
+                return fixedOffsetZone(parseOffset(convId));
             }
         }
         throw new IllegalArgumentException("The datetime zone id '" + id + "' is not recognised");
@@ -332,29 +367,53 @@ public abstract class DateTimeZone implements Serializable {
     //-----------------------------------------------------------------------
     /**
      * Gets the zone using a fixed offset amount.
+     * <p>
+     * Zones on a 15 minute grid, which covers almost all real offsets, are
+     * held in an array indexed by offset. Other zones are softly held in a
+     * map keyed by offset. Neither requires a lock, and a cached zone is
+     * returned without building its id.
      * 
-     * @param id  the zone id
      * @param offset  the offset in millis
      * @return the zone
      */
-    private static synchronized DateTimeZone fixedOffsetZone(String id, int offset) {
+    private static DateTimeZone fixedOffsetZone(int offset) {
         if (offset == 0) {
             return DateTimeZone.UTC;
         }
-        if (iFixedOffsetCache == null) {
-            iFixedOffsetCache = new HashMap();
-        }
-        DateTimeZone zone;
-        Reference ref = (Reference) iFixedOffsetCache.get(id);
-        if (ref != null) {
-            zone = (DateTimeZone) ref.get();
-            if (zone != null) {
+        if (offset % FIXED_OFFSET_STEP == 0) {
+            int index = offset / FIXED_OFFSET_STEP + FIXED_OFFSET_STEPS;
+            if (index >= 0 && index < cFixedOffsetZones.length()) {
+                DateTimeZone zone = (DateTimeZone) cFixedOffsetZones.get(index);
+                if (zone == null) {
+                    zone = new FixedDateTimeZone(printOffset(offset), null, offset, offset);
+                    if (cFixedOffsetZones.compareAndSet(index, null, zone) == false) {
+                        zone = (DateTimeZone) cFixedOffsetZones.get(index);
+                    }
+                }
                 return zone;
             }
         }
-        zone = new FixedDateTimeZone(id, null, offset, offset);
-        iFixedOffsetCache.put(id, new SoftReference(zone));
-        return zone;
+        Integer key = new Integer(offset);
+        DateTimeZone created = null;
+        while (true) {
+            SoftReference ref = (SoftReference) cFixedOffsetCache.get(key);
+            if (ref != null) {
+                DateTimeZone zone = (DateTimeZone) ref.get();
+                if (zone != null) {
+                    return zone;
+                }
+            }
+            if (created == null) {
+                created = new FixedDateTimeZone(printOffset(offset), null, offset, offset);
+            }
+            // only install the zone if the entry is unchanged, so that the
+            // same instance is returned while any thread references it
+            SoftReference newRef = new SoftReference(created);
+            if (ref == null ? cFixedOffsetCache.putIfAbsent(key, newRef) == null
+                            : cFixedOffsetCache.replace(key, ref, newRef)) {
+                return created;
+            }
+        }
     }
 
     /**
@@ -384,6 +443,15 @@ public abstract class DateTimeZone implements Serializable {
      * <p>
      * The zone provider is a pluggable instance factory that supplies the
      * actual instances of DateTimeZone.
+     * <p>
+     * This may be used to reload time zone data without restarting. The
+     * application creates the new provider, preloading it if desired, on a
+     * thread of its choosing and then sets it. The new provider is validated
+     * before it replaces the old one, and calls in progress on other threads
+     * are never blocked. The default zone is replaced by the zone of the same
+     * ID from the new provider. Zones already held by the application are
+     * unaffected, and chronologies are created afresh for zones whose rules
+     * have changed.
      * 
      * @param provider  provider to use, or null for default
      * @throws SecurityException if you do not have the permission DateTimeZone.setProvider
@@ -418,8 +486,18 @@ public abstract class DateTimeZone implements Serializable {
         if (!UTC.equals(provider.getZone("UTC"))) {
             throw new IllegalArgumentException("Invalid UTC zone provided");
         }
-        cProvider = provider;
-        cAvailableIDs = ids;
+        synchronized (DateTimeZone.class) {
+            cAvailableIDs = ids;
+            cProvider = provider;
+            cTimeZoneCache = new ConcurrentHashMap();
+            DateTimeZone zone = cDefault;
+            if (zone != null) {
+                zone = provider.getZone(zone.getID());
+                if (zone != null) {
+                    cDefault = zone;
+                }
+            }
+        }
     }
 
     /**
@@ -428,6 +506,10 @@ public abstract class DateTimeZone implements Serializable {
      * Tries the system property <code>org.joda.time.DateTimeZone.Provider</code>.
      * Then tries a <code>ZoneInfoProvider</code> using the data in <code>org/joda/time/tz/data</code>.
      * Then uses <code>UTCProvider</code>.
+     * <p>
+     * When a <code>ZoneInfoProvider</code> is used, the system property
+     * <code>org.joda.time.DateTimeZone.Preload</code> may be set to load zones
+     * eagerly, either to <code>all</code> or to a comma separated list of ids.
      * 
      * @return the default name provider
      */
@@ -451,7 +533,9 @@ public abstract class DateTimeZone implements Serializable {
 
         if (provider == null) {
             try {
-                provider = new ZoneInfoProvider("org/joda/time/tz/data");
+                ZoneInfoProvider zoneInfoProvider = new ZoneInfoProvider("org/joda/time/tz/data");
+                preload(zoneInfoProvider);
+                provider = zoneInfoProvider;
             } catch (Exception ex) {
                 Thread thread = Thread.currentThread();
                 thread.getThreadGroup().uncaughtException(thread, ex);
@@ -465,6 +549,35 @@ public abstract class DateTimeZone implements Serializable {
         return provider;
     }
 
+    /**
+     * Preloads zones as specified by the system property
+     * <code>org.joda.time.DateTimeZone.Preload</code>.
+     * 
+     * @param provider  the provider to preload
+     */
+    private static void preload(ZoneInfoProvider provider) {
+        String preload;
+        try {
+            preload = System.getProperty("org.joda.time.DateTimeZone.Preload");
+        } catch (SecurityException ex) {
+            return;
+        }
+        if (preload == null) {
+            return;
+        }
+        preload = preload.trim();
+        if (preload.equalsIgnoreCase("all")) {
+            provider.preloadAll();
+        } else if (preload.length() > 0) {
+            List ids = new ArrayList();
+            StringTokenizer tokenizer = new StringTokenizer(preload, ", ");
+            while (tokenizer.hasMoreTokens()) {
+                ids.add(tokenizer.nextToken());
+            }
+            provider.preload(ids);
+        }
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Gets the name provider factory.
@@ -534,12 +647,38 @@ public abstract class DateTimeZone implements Serializable {
         }
 
         if (nameProvider == null) {
-            nameProvider = new DefaultNameProvider();
+            DefaultNameProvider defaultNameProvider = new DefaultNameProvider();
+            preloadNames(defaultNameProvider);
+            nameProvider = defaultNameProvider;
         }
 
         return nameProvider;
     }
 
+    /**
+     * Preloads names as specified by the system property
+     * <code>org.joda.time.DateTimeZone.PreloadNames</code>, which is a comma
+     * separated list of locales, such as <code>en_GB,fr</code>.
+     * 
+     * @param nameProvider  the provider to preload
+     */
+    private static void preloadNames(DefaultNameProvider nameProvider) {
+        String preload;
+        try {
+            preload = System.getProperty("org.joda.time.DateTimeZone.PreloadNames");
+        } catch (SecurityException ex) {
+            return;
+        }
+        if (preload == null) {
+            return;
+        }
+        StringTokenizer tokenizer = new StringTokenizer(preload, ", ");
+        while (tokenizer.hasMoreTokens()) {
+            String[] parts = (tokenizer.nextToken() + "__").split("_", 3);
+            nameProvider.preload(new Locale(parts[0], parts[1], parts[2].replaceAll("_+$", "")));
+        }
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Converts an old style id to a new style id.
@@ -547,7 +686,8 @@ public abstract class DateTimeZone implements Serializable {
      * @param id  the old style id
      * @return the new style id, null if not found
      */
-    private static synchronized String getConvertedId(String id) {
+    private static String getConvertedId(String id) {
+        // building the map twice in a race is harmless, as it is never changed
         Map map = cZoneIdConversion;
         if (map == null) {
             // Backwards compatibility with TimeZone.
@@ -657,13 +797,16 @@ public abstract class DateTimeZone implements Serializable {
      * 
      * @return the formatter
      */
-    private static synchronized DateTimeFormatter offsetFormatter() {
-        if (cOffsetFormatter == null) {
-            cOffsetFormatter = new DateTimeFormatterBuilder()
+    private static DateTimeFormatter offsetFormatter() {
+        // creating two formatters in a race is harmless, as they are immutable
+        DateTimeFormatter formatter = cOffsetFormatter;
+        if (formatter == null) {
+            formatter = new DateTimeFormatterBuilder()
                 .appendTimeZoneOffset(null, true, 2, 4)
                 .toFormatter();
+            cOffsetFormatter = formatter;
         }
-        return cOffsetFormatter;
+        return formatter;
     }
 
     // Instance fields and methods
@@ -859,12 +1002,26 @@ public abstract class DateTimeZone implements Serializable {
      * <p>
      * NOTE: The behaviour of this method changed in v1.5, with the emphasis
      * on returning a consistent result later along the time-line (shown above).
+     * <p>
+     * Zones with a table of local times, see {@link #getOffsetFromLocal(long, int)},
+     * answer a local time outside any gap or overlap with a single lookup.
      *
      * @param instantLocal  the millisecond instant, relative to this time zone, to
      * get the offset for
      * @return the millisecond offset to subtract from local time to get UTC time
      */
     public int getOffsetFromLocal(long instantLocal) {
+        return probeOffsetFromLocal(instantLocal);
+    }
+
+    /**
+     * Gets the offset from local time by probing the offsets either side,
+     * resolving gaps and overlaps as described for {@link #getOffsetFromLocal(long)}.
+     *
+     * @param instantLocal  the local instant
+     * @return the millisecond offset to subtract from local time to get UTC time
+     */
+    private int probeOffsetFromLocal(long instantLocal) {
         // get the offset at instantLocal (first estimate)
         int offsetLocal = getOffset(instantLocal);
         // adjust instantLocal using the estimate and recalc the offset
@@ -887,6 +1044,119 @@ public abstract class DateTimeZone implements Serializable {
         return offsetAdjusted;
     }
 
+    /**
+     * Gets the millisecond offset to subtract from local time to get UTC time,
+     * resolving gaps and overlaps using the specified strategy.
+     * <p>
+     * A local time in a gap does not exist, and one in an overlap occurs twice.
+     * Both are resolved in the same way, by choosing the offset in effect
+     * before or after the transition, or by rejecting the local time.
+     * Using the offset before a gap moves the local time forward by the length
+     * of the gap, while using the offset after it moves the local time back.
+     * <p>
+     * For example, consider a zone with a cutover from 01:00 to 01:59,
+     * and back from 01:59 to 01:00 later in the year:<br />
+     * Gap 01:30, earlier: 02:30 after the transition<br />
+     * Gap 01:30, later: 00:30 before the transition<br />
+     * Overlap 01:30, earlier: 01:30 before the transition<br />
+     * Overlap 01:30, later: 01:30 after the transition<br />
+     * <p>
+     * Unlike {@link #convertLocalToUTC(long, boolean)}, this method never
+     * throws an exception for a local time in a gap, thus checking whether a
+     * local time is valid is cheap. Zones with precomputed transitions
+     * answer this from a table of local times, rather than probing offsets.
+     *
+     * @param instantLocal  the millisecond instant, relative to this time zone, to
+     * get the offset for
+     * @param resolution  the strategy, one of {@link #RESOLVE_EARLIER},
+     * {@link #RESOLVE_LATER} or {@link #RESOLVE_REJECT}
+     * @return the millisecond offset to subtract from local time to get UTC time,
+     * {@link #INVALID_OFFSET} if the local time is rejected
+     * @throws IllegalArgumentException if the strategy is invalid
+     * @since 2.0
+     */
+    public int getOffsetFromLocal(long instantLocal, int resolution) {
+        checkResolution(resolution);
+        if (isFixed()) {
+            return getOffset(instantLocal);
+        }
+        // examine each period that could contain the local time, as
+        // offsets are always less than a day
+        long start = instantLocal - DateTimeConstants.MILLIS_PER_DAY;
+        long end = instantLocal + DateTimeConstants.MILLIS_PER_DAY;
+        if (start > instantLocal) {
+            start = Long.MIN_VALUE;
+        }
+        if (end < instantLocal) {
+            end = Long.MAX_VALUE;
+        }
+        int earliest = INVALID_OFFSET;
+        int latest = INVALID_OFFSET;
+        int gapBefore = INVALID_OFFSET;
+        int gapAfter = INVALID_OFFSET;
+        long periodStart = start;
+        int offset = getOffset(periodStart);
+        while (true) {
+            long next = nextTransition(periodStart);
+            boolean last = (next <= periodStart || next > end);
+            long instantUTC = instantLocal - offset;
+            if (instantUTC >= periodStart && (last || instantUTC < next)) {
+                if (earliest == INVALID_OFFSET) {
+                    earliest = offset;
+                }
+                latest = offset;
+            }
+            if (last) {
+                break;
+            }
+            int nextOffset = getOffset(next);
+            if (instantLocal >= next + offset && instantLocal < next + nextOffset) {
+                gapBefore = offset;
+                gapAfter = nextOffset;
+            }
+            periodStart = next;
+            offset = nextOffset;
+        }
+        if (earliest != INVALID_OFFSET) {
+            return resolveOffset(earliest, latest, resolution);
+        }
+        if (gapBefore != INVALID_OFFSET) {
+            return resolveOffset(gapBefore, gapAfter, resolution);
+        }
+        return probeOffsetFromLocal(instantLocal);
+    }
+
+    /**
+     * Checks that a gap and overlap resolution strategy is valid.
+     *
+     * @param resolution  the strategy to check
+     * @throws IllegalArgumentException if the strategy is invalid
+     */
+    protected static void checkResolution(int resolution) {
+        if (resolution < RESOLVE_EARLIER || resolution > RESOLVE_REJECT) {
+            throw new IllegalArgumentException("Invalid resolution strategy: " + resolution);
+        }
+    }
+
+    /**
+     * Chooses between the offsets before and after a transition using a
+     * gap and overlap resolution strategy.
+     *
+     * @param before  the offset in effect before the transition
+     * @param after  the offset in effect after the transition
+     * @param resolution  the strategy, already checked
+     * @return the offset, {@link #INVALID_OFFSET} if rejected
+     */
+    protected static int resolveOffset(int before, int after, int resolution) {
+        if (before == after || resolution == RESOLVE_EARLIER) {
+            return before;
+        }
+        if (resolution == RESOLVE_LATER) {
+            return after;
+        }
+        return INVALID_OFFSET;
+    }
+
     /**
      * Converts a standard UTC instant to a local instant with the same
      * local time. This conversion is used before performing a calculation
@@ -964,6 +1234,109 @@ public abstract class DateTimeZone implements Serializable {
         return instantUTC;
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the millisecond offsets to add to UTC to get local time for an
+     * array of instants.
+     * <p>
+     * The offset of <code>instants[start + i]</code> is stored in
+     * <code>offsets[start + i]</code>. The offset found for one instant is
+     * reused until the next transition, thus sorted instants only query the
+     * zone once per transition.
+     *
+     * @param instants  the milliseconds from 1970-01-01T00:00:00Z, not null
+     * @param offsets  the array to store the offsets in, not null
+     * @param start  the index of the first instant
+     * @param length  the number of instants
+     * @throws IndexOutOfBoundsException if the range is outside either array
+     * @since 2.0
+     */
+    public void getOffsets(long[] instants, int[] offsets, int start, int length) {
+        checkRange(instants.length, offsets.length, start, length);
+        OffsetCursor cursor = new OffsetCursor(this);
+        for (int i = start, end = start + length; i < end; i++) {
+            offsets[i] = cursor.getOffset(instants[i]);
+        }
+    }
+
+    /**
+     * Converts an array of standard UTC instants to local instants with the
+     * same local time.
+     * <p>
+     * The result for <code>instantsUTC[start + i]</code> is stored in
+     * <code>instantsLocal[start + i]</code>, and the two arrays may be the same.
+     * The offset found for one instant is reused until the next transition,
+     * thus sorted instants only query the zone once per transition.
+     *
+     * @param instantsUTC  the UTC instants to convert to local, not null
+     * @param instantsLocal  the array to store the local instants in, not null
+     * @param start  the index of the first instant
+     * @param length  the number of instants
+     * @throws IndexOutOfBoundsException if the range is outside either array
+     * @throws ArithmeticException if a result overflows a long
+     * @since 2.0
+     */
+    public void convertUTCToLocal(long[] instantsUTC, long[] instantsLocal, int start, int length) {
+        checkRange(instantsUTC.length, instantsLocal.length, start, length);
+        OffsetCursor cursor = new OffsetCursor(this);
+        for (int i = start, end = start + length; i < end; i++) {
+            long instantUTC = instantsUTC[i];
+            int offset = cursor.getOffset(instantUTC);
+            long instantLocal = instantUTC + offset;
+            // If there is a sign change, but the two values have the same sign...
+            if ((instantUTC ^ instantLocal) < 0 && (instantUTC ^ offset) >= 0) {
+                throw new ArithmeticException("Adding time zone offset caused overflow");
+            }
+            instantsLocal[i] = instantLocal;
+        }
+    }
+
+    /**
+     * Converts an array of local instants to standard UTC instants with the
+     * same local time.
+     * <p>
+     * The result for <code>instantsLocal[start + i]</code> is stored in
+     * <code>instantsUTC[start + i]</code>, and the two arrays may be the same.
+     * Each result is the same as that of {@link #convertLocalToUTC(long, boolean)}.
+     * Local instants that are not close to a transition reuse the offset of
+     * the previous instant, thus sorted instants rarely query the zone.
+     *
+     * @param instantsLocal  the local instants to convert to UTC, not null
+     * @param instantsUTC  the array to store the UTC instants in, not null
+     * @param start  the index of the first instant
+     * @param length  the number of instants
+     * @param strict  whether the conversion should reject non-existent local times
+     * @throws IndexOutOfBoundsException if the range is outside either array
+     * @throws ArithmeticException if a result overflows a long
+     * @throws IllegalArgumentException if the zone has no eqivalent local time
+     * @since 2.0
+     */
+    public void convertLocalToUTC(long[] instantsLocal, long[] instantsUTC, int start, int length, boolean strict) {
+        checkRange(instantsLocal.length, instantsUTC.length, start, length);
+        OffsetCursor cursor = new OffsetCursor(this);
+        for (int i = start, end = start + length; i < end; i++) {
+            long instantLocal = instantsLocal[i];
+            long instantUTC = instantLocal - cursor.iOffset;
+            // Both the estimate and the adjusted instant used by the single
+            // conversion must lie in the period for the offset to be correct
+            if (cursor.contains(instantLocal) == false || cursor.contains(instantUTC) == false
+                    || ((instantLocal ^ instantUTC) < 0 && (instantLocal ^ cursor.iOffset) < 0)) {
+                instantUTC = convertLocalToUTC(instantLocal, strict);
+                cursor.getOffset(instantUTC);
+            }
+            instantsUTC[i] = instantUTC;
+        }
+    }
+
+    /**
+     * Validates the array ranges passed to the bulk conversion methods.
+     */
+    private static void checkRange(int inputLength, int outputLength, int start, int length) {
+        if (start < 0 || length < 0 || start > inputLength - length || start > outputLength - length) {
+            throw new IndexOutOfBoundsException("Invalid range: " + start + " to " + ((long) start + length));
+        }
+    }
+
     /**
      * Gets the millisecond instant in another zone keeping the same local time.
      * <p>
@@ -1095,12 +1468,9 @@ public abstract class DateTimeZone implements Serializable {
         if (isFixed()) {
             return false;
         }
-        try {
-            localDateTime.toDateTime(this);
-            return false;
-        } catch (IllegalArgumentException ex) {
-            return true;
-        }
+        long instantLocal = localDateTime.getLocalMillis();
+        return getOffsetFromLocal(instantLocal, RESOLVE_EARLIER) <
+                getOffsetFromLocal(instantLocal, RESOLVE_LATER);
     }
 
     //-----------------------------------------------------------------------
@@ -1178,6 +1548,51 @@ public abstract class DateTimeZone implements Serializable {
         return new Stub(iID);
     }
 
+    /**
+     * Walks the offsets of a zone for the bulk conversion methods.
+     * <p>
+     * The period of the last offset queried is remembered, up to the next
+     * transition, such that sorted instants only query the zone once per
+     * transition. To avoid the cost of finding transitions for unsorted
+     * instants, the period is only refreshed after the previous instant was
+     * within it, or every sixteenth consecutive miss.
+     */
+    private static final class OffsetCursor {
+        /** The zone. */
+        private final DateTimeZone iZone;
+        /** The start of the period, inclusive. */
+        long iStart = Long.MAX_VALUE;
+        /** The end of the period, exclusive. */
+        long iEnd = Long.MIN_VALUE;
+        /** The offset during the period. */
+        int iOffset;
+        /** The number of consecutive instants outside the period. */
+        private int iMisses;
+
+        OffsetCursor(DateTimeZone zone) {
+            iZone = zone;
+        }
+
+        boolean contains(long instant) {
+            return instant >= iStart && instant < iEnd;
+        }
+
+        int getOffset(long instant) {
+            if (instant >= iStart && instant < iEnd) {
+                iMisses = 0;
+                return iOffset;
+            }
+            int offset = iZone.getOffset(instant);
+            if ((iMisses++ & 15) == 0) {
+                long next = iZone.nextTransition(instant);
+                iStart = instant;
+                iEnd = (next <= instant ? Long.MAX_VALUE : next);
+                iOffset = offset;
+            }
+            return offset;
+        }
+    }
+
     /**
      * Used to serialize DateTimeZones by id.
      */
@@ -20,6 +20,7 @@ import java.io.ObjectInputStream;
 
 import org.joda.time.Chronology;
 import org.joda.time.DateTimeField;
+import org.joda.time.DateTimeFieldType;
 import org.joda.time.DateTimeZone;
 import org.joda.time.DurationField;
 
@@ -152,6 +153,27 @@ public abstract class AssembledChronology extends BaseChronology {
             (instant, hourOfDay, minuteOfHour, secondOfMinute, millisOfSecond);
     }
 
+    public void getDateTimeFields(long instant, int[] values) {
+        Chronology base;
+        if ((base = iBase) != null && (iBaseFlags & 5) == 5) {
+            // Only call specialized implementation if applicable fields are the same.
+            base.getDateTimeFields(instant, values);
+            return;
+        }
+        super.getDateTimeFields(instant, values);
+    }
+
+    public void get(DateTimeFieldType type, long[] instants, int instantsOffset,
+                    int[] values, int valuesOffset, int length) {
+        Chronology base;
+        if ((base = iBase) != null && type.getField(this) == type.getField(base)) {
+            // Only call specialized implementation if the field is the same.
+            base.get(type, instants, instantsOffset, values, valuesOffset, length);
+            return;
+        }
+        super.get(type, instants, instantsOffset, values, valuesOffset, length);
+    }
+
     public final DurationField millis() {
         return iMillis;
     }
@@ -181,6 +181,128 @@ abstract class BasicChronology extends AssembledChronology {
             + millisOfSecond;
     }
 
+    public void getDateTimeFields(long instant, int[] values) {
+        Chronology base;
+        if ((base = getBase()) != null) {
+            base.getDateTimeFields(instant, values);
+            return;
+        }
+
+        int millisOfDay = getMillisOfDay(instant);
+        values[6] = millisOfDay % DateTimeConstants.MILLIS_PER_SECOND;
+        int year = getYear(instant);
+        int month = getMonthOfYear(instant, year);
+        // Calendars without a year zero adjust the proleptic year in the year field
+        values[0] = (year > 0 ? year : year().get(instant));
+        values[1] = month;
+        values[2] = getDayOfMonth(instant, year, month);
+        values[3] = millisOfDay / DateTimeConstants.MILLIS_PER_HOUR;
+        values[4] = (millisOfDay / DateTimeConstants.MILLIS_PER_MINUTE) % 60;
+        values[5] = (millisOfDay / DateTimeConstants.MILLIS_PER_SECOND) % 60;
+    }
+
+    public void get(DateTimeFieldType type, long[] instants, int instantsOffset,
+                    int[] values, int valuesOffset, int length) {
+        Chronology base;
+        if ((base = getBase()) != null) {
+            base.get(type, instants, instantsOffset, values, valuesOffset, length);
+            return;
+        }
+
+        checkRange(instants, instantsOffset, values, valuesOffset, length);
+        if (type == DateTimeFieldType.year() || type == DateTimeFieldType.monthOfYear()
+                || type == DateTimeFieldType.dayOfMonth() || type == DateTimeFieldType.dayOfYear()) {
+            getDateValues(type, instants, instantsOffset, values, valuesOffset, length);
+        } else if (type == DateTimeFieldType.dayOfWeek()) {
+            for (int i = 0; i < length; i++) {
+                values[valuesOffset + i] = getDayOfWeek(instants[instantsOffset + i]);
+            }
+        } else if (type == DateTimeFieldType.hourOfDay()) {
+            for (int i = 0; i < length; i++) {
+                values[valuesOffset + i] = getMillisOfDay(instants[instantsOffset + i])
+                    / DateTimeConstants.MILLIS_PER_HOUR;
+            }
+        } else if (type == DateTimeFieldType.minuteOfHour()) {
+            for (int i = 0; i < length; i++) {
+                values[valuesOffset + i] = (getMillisOfDay(instants[instantsOffset + i])
+                    / DateTimeConstants.MILLIS_PER_MINUTE) % DateTimeConstants.MINUTES_PER_HOUR;
+            }
+        } else if (type == DateTimeFieldType.secondOfMinute()) {
+            for (int i = 0; i < length; i++) {
+                values[valuesOffset + i] = (getMillisOfDay(instants[instantsOffset + i])
+                    / DateTimeConstants.MILLIS_PER_SECOND) % DateTimeConstants.SECONDS_PER_MINUTE;
+            }
+        } else if (type == DateTimeFieldType.millisOfSecond()) {
+            for (int i = 0; i < length; i++) {
+                values[valuesOffset + i] = getMillisOfDay(instants[instantsOffset + i])
+                    % DateTimeConstants.MILLIS_PER_SECOND;
+            }
+        } else if (type == DateTimeFieldType.minuteOfDay()) {
+            for (int i = 0; i < length; i++) {
+                values[valuesOffset + i] = getMillisOfDay(instants[instantsOffset + i])
+                    / DateTimeConstants.MILLIS_PER_MINUTE;
+            }
+        } else if (type == DateTimeFieldType.secondOfDay()) {
+            for (int i = 0; i < length; i++) {
+                values[valuesOffset + i] = getMillisOfDay(instants[instantsOffset + i])
+                    / DateTimeConstants.MILLIS_PER_SECOND;
+            }
+        } else if (type == DateTimeFieldType.millisOfDay()) {
+            for (int i = 0; i < length; i++) {
+                values[valuesOffset + i] = getMillisOfDay(instants[instantsOffset + i]);
+            }
+        } else {
+            super.get(type, instants, instantsOffset, values, valuesOffset, length);
+        }
+    }
+
+    /**
+     * Gets the year, month, day of month or day of year of each instant,
+     * only recalculating the year and month when an instant falls outside
+     * those of the previous instant.
+     */
+    private void getDateValues(DateTimeFieldType type, long[] instants, int instantsOffset,
+                               int[] values, int valuesOffset, int length) {
+        boolean monthBased = (type == DateTimeFieldType.monthOfYear() || type == DateTimeFieldType.dayOfMonth());
+        int year = 0;
+        long yearStart = Long.MAX_VALUE;
+        long yearEnd = Long.MIN_VALUE;
+        int month = 0;
+        long monthStart = Long.MAX_VALUE;
+        long monthEnd = Long.MIN_VALUE;
+        for (int i = 0; i < length; i++) {
+            long instant = instants[instantsOffset + i];
+            if (instant < yearStart || instant >= yearEnd) {
+                year = getYear(instant);
+                yearStart = getYearMillis(year);
+                yearEnd = yearStart + getDaysInYear(year) * (long) DateTimeConstants.MILLIS_PER_DAY;
+                if (yearEnd < yearStart) {
+                    yearEnd = Long.MAX_VALUE;
+                }
+            }
+            if (monthBased) {
+                if (instant < monthStart || instant >= monthEnd) {
+                    month = getMonthOfYear(instant, year);
+                    monthStart = yearStart + getTotalMillisByYearMonth(year, month);
+                    monthEnd = monthStart + getDaysInYearMonth(year, month) * (long) DateTimeConstants.MILLIS_PER_DAY;
+                    if (monthEnd < monthStart) {
+                        monthEnd = Long.MAX_VALUE;
+                    }
+                }
+                if (type == DateTimeFieldType.monthOfYear()) {
+                    values[valuesOffset + i] = month;
+                } else {
+                    values[valuesOffset + i] = (int) ((instant - monthStart) / DateTimeConstants.MILLIS_PER_DAY) + 1;
+                }
+            } else if (type == DateTimeFieldType.year()) {
+                // Calendars without a year zero adjust the proleptic year in the year field
+                values[valuesOffset + i] = (year > 0 ? year : year().get(instant));
+            } else {
+                values[valuesOffset + i] = (int) ((instant - yearStart) / DateTimeConstants.MILLIS_PER_DAY) + 1;
+            }
+        }
+    }
+
     public int getMinimumDaysInFirstWeek() {
         return iMinDaysInFirstWeek;
     }
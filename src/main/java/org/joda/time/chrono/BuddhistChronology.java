@@ -15,9 +15,6 @@
  */
 package org.joda.time.chrono;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.joda.time.Chronology;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeConstants;
@@ -68,7 +65,7 @@ public final class BuddhistChronology extends AssembledChronology {
     private static final int BUDDHIST_OFFSET = 543;
 
     /** Cache of zone to chronology */
-    private static final Map cCache = new HashMap();
+    private static final ChronologyCache cCache = new ChronologyCache(1);
 
     /** UTC instance of the chronology */
     private static final BuddhistChronology INSTANCE_UTC = getInstance(DateTimeZone.UTC);
@@ -100,18 +97,18 @@ public final class BuddhistChronology extends AssembledChronology {
      *
      * @param zone  the time zone to use, null is default
      */
-    public static synchronized BuddhistChronology getInstance(DateTimeZone zone) {
+    public static BuddhistChronology getInstance(DateTimeZone zone) {
         if (zone == null) {
             zone = DateTimeZone.getDefault();
         }
-        BuddhistChronology chrono = (BuddhistChronology) cCache.get(zone);
+        BuddhistChronology chrono = (BuddhistChronology) cCache.get(zone, 0);
         if (chrono == null) {
             // First create without a lower limit.
             chrono = new BuddhistChronology(GJChronology.getInstance(zone, null), null);
             // Impose lower limit and make another BuddhistChronology.
             DateTime lowerLimit = new DateTime(1, 1, 1, 0, 0, 0, 0, chrono);
             chrono = new BuddhistChronology(LimitChronology.getInstance(chrono, lowerLimit, null), "");
-            cCache.put(zone, chrono);
+            chrono = (BuddhistChronology) cCache.putIfAbsent(zone, 0, chrono);
         }
         return chrono;
     }
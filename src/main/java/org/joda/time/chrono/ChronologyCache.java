@@ -0,0 +1,98 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.chrono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.joda.time.Chronology;
+
+/**
+ * Lock-free cache of chronology instances used by the chronology factories.
+ * <p>
+ * Each key, normally a time zone, maps to a fixed number of slots, one per
+ * variant of the chronology (such as the minimum days in the first week).
+ * Lookups never block. When two threads create the same chronology at once
+ * the first one stored wins and is returned to both, so factories continue
+ * to return a single canonical instance.
+ * <p>
+ * No purge is needed when the zone provider is changed. Zones are compared
+ * by their rules through <code>equals</code>, so a zone with changed rules
+ * from a new provider is a different key and gets its own chronologies.
+ * Zones with unchanged rules, and zones that do not come from the provider,
+ * such as fixed offsets, keep their canonical chronologies. Entries for the
+ * old zones stay correct for callers still holding those zones.
+ * <p>
+ * ChronologyCache is thread-safe.
+ *
+ * @since 2.0
+ */
+final class ChronologyCache {
+
+    /** The map of key to slot array. */
+    private final ConcurrentHashMap iMap = new ConcurrentHashMap();
+    /** The number of slots per key. */
+    private final int iSlots;
+
+    /**
+     * Constructor.
+     *
+     * @param slots  the number of variants cached per key
+     */
+    ChronologyCache(int slots) {
+        iSlots = slots;
+    }
+
+    /**
+     * Gets the cached chronology.
+     *
+     * @param key  the key, normally the time zone, not null
+     * @param slot  the variant index, from zero to slots - 1
+     * @return the chronology, null if not yet cached
+     */
+    Chronology get(Object key, int slot) {
+        AtomicReferenceArray chronos = (AtomicReferenceArray) iMap.get(key);
+        if (chronos == null) {
+            return null;
+        }
+        return (Chronology) chronos.get(slot);
+    }
+
+    /**
+     * Stores the chronology unless one is already cached, in which case the
+     * cached instance is returned instead.
+     *
+     * @param key  the key, normally the time zone, not null
+     * @param slot  the variant index, from zero to slots - 1
+     * @param chrono  the newly created chronology, not null
+     * @return the canonical chronology, never null
+     */
+    Chronology putIfAbsent(Object key, int slot, Chronology chrono) {
+        AtomicReferenceArray chronos = (AtomicReferenceArray) iMap.get(key);
+        if (chronos == null) {
+            chronos = new AtomicReferenceArray(iSlots);
+            AtomicReferenceArray existing = (AtomicReferenceArray) iMap.putIfAbsent(key, chronos);
+            if (existing != null) {
+                chronos = existing;
+            }
+        }
+        if (chronos.compareAndSet(slot, null, chrono)) {
+            return chrono;
+        }
+        return (Chronology) chronos.get(slot);
+    }
+
+}
@@ -15,9 +15,6 @@
  */
 package org.joda.time.chrono;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.joda.time.Chronology;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeConstants;
@@ -69,7 +66,7 @@ public final class EthiopicChronology extends BasicFixedMonthChronology {
     private static final int MAX_YEAR = 292272984;
 
     /** Cache of zone to chronology arrays */
-    private static final Map cCache = new HashMap();
+    private static final ChronologyCache cCache = new ChronologyCache(7);
 
     /** Singleton instance of a UTC EthiopicChronology */
     private static final EthiopicChronology INSTANCE_UTC;
@@ -119,35 +116,26 @@ public final class EthiopicChronology extends BasicFixedMonthChronology {
         if (zone == null) {
             zone = DateTimeZone.getDefault();
         }
-        EthiopicChronology chrono;
-        synchronized (cCache) {
-            EthiopicChronology[] chronos = (EthiopicChronology[]) cCache.get(zone);
-            if (chronos == null) {
-                chronos = new EthiopicChronology[7];
-                cCache.put(zone, chronos);
-            }
-            try {
-                chrono = chronos[minDaysInFirstWeek - 1];
-            } catch (ArrayIndexOutOfBoundsException e) {
-                throw new IllegalArgumentException
-                    ("Invalid min days in first week: " + minDaysInFirstWeek);
-            }
-            if (chrono == null) {
-                if (zone == DateTimeZone.UTC) {
-                    // First create without a lower limit.
-                    chrono = new EthiopicChronology(null, null, minDaysInFirstWeek);
-                    // Impose lower limit and make another EthiopicChronology.
-                    DateTime lowerLimit = new DateTime(1, 1, 1, 0, 0, 0, 0, chrono);
-                    chrono = new EthiopicChronology
-                        (LimitChronology.getInstance(chrono, lowerLimit, null),
-                         null, minDaysInFirstWeek);
-                } else {
-                    chrono = getInstance(DateTimeZone.UTC, minDaysInFirstWeek);
-                    chrono = new EthiopicChronology
-                        (ZonedChronology.getInstance(chrono, zone), null, minDaysInFirstWeek);
-                }
-                chronos[minDaysInFirstWeek - 1] = chrono;
+        if (minDaysInFirstWeek < 1 || minDaysInFirstWeek > 7) {
+            throw new IllegalArgumentException
+                ("Invalid min days in first week: " + minDaysInFirstWeek);
+        }
+        EthiopicChronology chrono = (EthiopicChronology) cCache.get(zone, minDaysInFirstWeek - 1);
+        if (chrono == null) {
+            if (zone == DateTimeZone.UTC) {
+                // First create without a lower limit.
+                chrono = new EthiopicChronology(null, null, minDaysInFirstWeek);
+                // Impose lower limit and make another EthiopicChronology.
+                DateTime lowerLimit = new DateTime(1, 1, 1, 0, 0, 0, 0, chrono);
+                chrono = new EthiopicChronology
+                    (LimitChronology.getInstance(chrono, lowerLimit, null),
+                     null, minDaysInFirstWeek);
+            } else {
+                chrono = getInstance(DateTimeZone.UTC, minDaysInFirstWeek);
+                chrono = new EthiopicChronology
+                    (ZonedChronology.getInstance(chrono, zone), null, minDaysInFirstWeek);
             }
+            chrono = (EthiopicChronology) cCache.putIfAbsent(zone, minDaysInFirstWeek - 1, chrono);
         }
         return chrono;
     }
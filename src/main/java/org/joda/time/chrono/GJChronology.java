@@ -15,13 +15,11 @@
  */
 package org.joda.time.chrono;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
 
 import org.joda.time.Chronology;
 import org.joda.time.DateTimeField;
+import org.joda.time.DateTimeFieldType;
 import org.joda.time.DateTimeUtils;
 import org.joda.time.DateTimeZone;
 import org.joda.time.DurationField;
@@ -104,8 +102,11 @@ public final class GJChronology extends AssembledChronology {
      */
     static final Instant DEFAULT_CUTOVER = new Instant(-12219292800000L);
 
-    /** Cache of zone to chronology list */
-    private static final Map cCache = new HashMap();
+    /** Cache of zone to chronology arrays, for the default cutover */
+    private static final ChronologyCache cCache = new ChronologyCache(7);
+
+    /** Cache of zone, cutover and min days to chronology, for other cutovers */
+    private static final ChronologyCache cCutoverCache = new ChronologyCache(1);
 
     /**
      * Factory method returns instances of the default GJ cutover
@@ -181,7 +182,7 @@ public final class GJChronology extends AssembledChronology {
      * @param gregorianCutover  the cutover to use, null means default
      * @param minDaysInFirstWeek  minimum number of days in first week of the year; default is 4
      */
-    public static synchronized GJChronology getInstance(
+    public static GJChronology getInstance(
             DateTimeZone zone,
             ReadableInstant gregorianCutover,
             int minDaysInFirstWeek) {
@@ -193,22 +194,27 @@ public final class GJChronology extends AssembledChronology {
         } else {
             cutoverInstant = gregorianCutover.toInstant();
         }
+        if (minDaysInFirstWeek < 1 || minDaysInFirstWeek > 7) {
+            throw new IllegalArgumentException
+                ("Invalid min days in first week: " + minDaysInFirstWeek);
+        }
 
-        GJChronology chrono;
-
-        ArrayList chronos = (ArrayList)cCache.get(zone);
-        if (chronos == null) {
-            chronos = new ArrayList(2);
-            cCache.put(zone, chronos);
+        ChronologyCache cache;
+        Object key;
+        int slot;
+        if (cutoverInstant.equals(DEFAULT_CUTOVER)) {
+            cache = cCache;
+            key = zone;
+            slot = minDaysInFirstWeek - 1;
         } else {
-            for (int i=chronos.size(); --i>=0; ) {
-                chrono = (GJChronology)chronos.get(i);
-                if (minDaysInFirstWeek == chrono.getMinimumDaysInFirstWeek() &&
-                    cutoverInstant.equals(chrono.getGregorianCutover())) {
-                    
-                    return chrono;
-                }
-            }
+            cache = cCutoverCache;
+            key = new CacheKey(zone, cutoverInstant, minDaysInFirstWeek);
+            slot = 0;
+        }
+
+        GJChronology chrono = (GJChronology) cache.get(key, slot);
+        if (chrono != null) {
+            return chrono;
         }
 
         if (zone == DateTimeZone.UTC) {
@@ -225,9 +231,7 @@ public final class GJChronology extends AssembledChronology {
                  chrono.iCutoverInstant);
         }
 
-        chronos.add(chrono);
-
-        return chrono;
+        return (GJChronology) cache.putIfAbsent(key, slot, chrono);
     }
 
     /**
@@ -376,6 +380,52 @@ public final class GJChronology extends AssembledChronology {
         return instant;
     }
 
+    public void getDateTimeFields(long instant, int[] values) {
+        Chronology base;
+        if ((base = getBase()) != null) {
+            base.getDateTimeFields(instant, values);
+            return;
+        }
+
+        if (instant >= iCutoverMillis) {
+            iGregorianChronology.getDateTimeFields(instant, values);
+        } else {
+            iJulianChronology.getDateTimeFields(instant, values);
+        }
+    }
+
+    public void get(DateTimeFieldType type, long[] instants, int instantsOffset,
+                    int[] values, int valuesOffset, int length) {
+        Chronology base;
+        if ((base = getBase()) != null) {
+            base.get(type, instants, instantsOffset, values, valuesOffset, length);
+            return;
+        }
+
+        checkRange(instants, instantsOffset, values, valuesOffset, length);
+        DateTimeField field = type.getField(this);
+        if (field instanceof CutoverField == false) {
+            // Field is unaffected by the cutover.
+            iGregorianChronology.get(type, instants, instantsOffset, values, valuesOffset, length);
+            return;
+        }
+
+        // Cutover fields pick the Julian or Gregorian value by their own
+        // cutover, so pass each run of instants on the same side in one call.
+        long cutover = ((CutoverField) field).iCutover;
+        int start = 0;
+        while (start < length) {
+            boolean gregorian = instants[instantsOffset + start] >= cutover;
+            int end = start + 1;
+            while (end < length && (instants[instantsOffset + end] >= cutover) == gregorian) {
+                end++;
+            }
+            Chronology chrono = (gregorian ? (Chronology) iGregorianChronology : iJulianChronology);
+            chrono.get(type, instants, instantsOffset + start, values, valuesOffset + start, end - start);
+            start = end;
+        }
+    }
+
     /**
      * Gets the cutover instant between Gregorian and Julian chronologies.
      * @return the cutover instant
@@ -1088,4 +1138,38 @@ public final class GJChronology extends AssembledChronology {
         }
     }
 
+
+    //-----------------------------------------------------------------------
+    /**
+     * Cache key for chronologies with a non-default cutover.
+     */
+    private static final class CacheKey {
+        private final DateTimeZone iZone;
+        private final Instant iCutoverInstant;
+        private final int iMinDaysInFirstWeek;
+
+        CacheKey(DateTimeZone zone, Instant cutoverInstant, int minDaysInFirstWeek) {
+            iZone = zone;
+            iCutoverInstant = cutoverInstant;
+            iMinDaysInFirstWeek = minDaysInFirstWeek;
+        }
+
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof CacheKey) {
+                CacheKey other = (CacheKey) obj;
+                return iMinDaysInFirstWeek == other.iMinDaysInFirstWeek &&
+                    iCutoverInstant.equals(other.iCutoverInstant) &&
+                    iZone.equals(other.iZone);
+            }
+            return false;
+        }
+
+        public int hashCode() {
+            return iZone.hashCode() ^ iCutoverInstant.hashCode() ^ (iMinDaysInFirstWeek * 31);
+        }
+    }
+
 }
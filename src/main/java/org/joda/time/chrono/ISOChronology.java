@@ -19,8 +19,6 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.Map;
 
 import org.joda.time.Chronology;
 import org.joda.time.DateTimeFieldType;
@@ -60,11 +58,11 @@ public final class ISOChronology extends AssembledChronology {
     private static final ISOChronology[] cFastCache;
 
     /** Cache of zone to chronology */
-    private static final Map cCache = new HashMap();
+    private static final ChronologyCache cCache = new ChronologyCache(1);
     static {
         cFastCache = new ISOChronology[FAST_CACHE_SIZE];
         INSTANCE_UTC = new ISOChronology(GregorianChronology.getInstanceUTC());
-        cCache.put(DateTimeZone.UTC, INSTANCE_UTC);
+        cCache.putIfAbsent(DateTimeZone.UTC, 0, INSTANCE_UTC);
     }
 
     /**
@@ -101,12 +99,10 @@ public final class ISOChronology extends AssembledChronology {
         if (chrono != null && chrono.getZone() == zone) {
             return chrono;
         }
-        synchronized (cCache) {
-            chrono = (ISOChronology) cCache.get(zone);
-            if (chrono == null) {
-                chrono = new ISOChronology(ZonedChronology.getInstance(INSTANCE_UTC, zone));
-                cCache.put(zone, chrono);
-            }
+        chrono = (ISOChronology) cCache.get(zone, 0);
+        if (chrono == null) {
+            chrono = new ISOChronology(ZonedChronology.getInstance(INSTANCE_UTC, zone));
+            chrono = (ISOChronology) cCache.putIfAbsent(zone, 0, chrono);
         }
         cFastCache[index] = chrono;
         return chrono;
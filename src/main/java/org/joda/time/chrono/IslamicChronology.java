@@ -16,8 +16,6 @@
 package org.joda.time.chrono;
 
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.Map;
 
 import org.joda.time.Chronology;
 import org.joda.time.DateTime;
@@ -139,7 +137,7 @@ public final class IslamicChronology extends BasicChronology {
     private static final long MILLIS_PER_CYCLE = ((19L * 354L + 11L * 355L) * DateTimeConstants.MILLIS_PER_DAY);
 
     /** Cache of zone to chronology arrays */
-    private static final Map cCache = new HashMap();
+    private static final ChronologyCache cCache = new ChronologyCache(4);
 
     /** Singleton instance of a UTC IslamicChronology */
     private static final IslamicChronology INSTANCE_UTC;
@@ -192,30 +190,22 @@ public final class IslamicChronology extends BasicChronology {
         if (zone == null) {
             zone = DateTimeZone.getDefault();
         }
-        IslamicChronology chrono;
-        synchronized (cCache) {
-            IslamicChronology[] chronos = (IslamicChronology[]) cCache.get(zone);
-            if (chronos == null) {
-                chronos = new IslamicChronology[4];
-                cCache.put(zone, chronos);
-            }
-            chrono = chronos[leapYears.index];
-            if (chrono == null) {
-                if (zone == DateTimeZone.UTC) {
-                    // First create without a lower limit.
-                    chrono = new IslamicChronology(null, null, leapYears);
-                    // Impose lower limit and make another IslamicChronology.
-                    DateTime lowerLimit = new DateTime(1, 1, 1, 0, 0, 0, 0, chrono);
-                    chrono = new IslamicChronology(
-                        LimitChronology.getInstance(chrono, lowerLimit, null),
-                         null, leapYears);
-                } else {
-                    chrono = getInstance(DateTimeZone.UTC, leapYears);
-                    chrono = new IslamicChronology
-                        (ZonedChronology.getInstance(chrono, zone), null, leapYears);
-                }
-                chronos[leapYears.index] = chrono;
+        IslamicChronology chrono = (IslamicChronology) cCache.get(zone, leapYears.index);
+        if (chrono == null) {
+            if (zone == DateTimeZone.UTC) {
+                // First create without a lower limit.
+                chrono = new IslamicChronology(null, null, leapYears);
+                // Impose lower limit and make another IslamicChronology.
+                DateTime lowerLimit = new DateTime(1, 1, 1, 0, 0, 0, 0, chrono);
+                chrono = new IslamicChronology(
+                    LimitChronology.getInstance(chrono, lowerLimit, null),
+                     null, leapYears);
+            } else {
+                chrono = getInstance(DateTimeZone.UTC, leapYears);
+                chrono = new IslamicChronology
+                    (ZonedChronology.getInstance(chrono, zone), null, leapYears);
             }
+            chrono = (IslamicChronology) cCache.putIfAbsent(zone, leapYears.index, chrono);
         }
         return chrono;
     }
@@ -21,6 +21,7 @@ import java.util.Locale;
 import org.joda.time.Chronology;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeField;
+import org.joda.time.DateTimeFieldType;
 import org.joda.time.DateTimeZone;
 import org.joda.time.DurationField;
 import org.joda.time.MutableDateTime;
@@ -203,6 +204,15 @@ public final class LimitChronology extends AssembledChronology {
         return instant;
     }
 
+    public void get(DateTimeFieldType type, long[] instants, int instantsOffset,
+                    int[] values, int valuesOffset, int length) {
+        checkRange(instants, instantsOffset, values, valuesOffset, length);
+        for (int i = 0; i < length; i++) {
+            checkLimits(instants[instantsOffset + i], null);
+        }
+        getBase().get(type, instants, instantsOffset, values, valuesOffset, length);
+    }
+
     protected void assemble(Fields fields) {
         // Keep a local cache of converted fields so as not to create redundant
         // objects.
@@ -21,6 +21,7 @@ import java.util.Locale;
 import org.joda.time.Chronology;
 import org.joda.time.DateTimeConstants;
 import org.joda.time.DateTimeField;
+import org.joda.time.DateTimeFieldType;
 import org.joda.time.DateTimeZone;
 import org.joda.time.DurationField;
 import org.joda.time.IllegalFieldValueException;
@@ -44,6 +45,9 @@ public final class ZonedChronology extends AssembledChronology {
     /** Serialization lock */
     private static final long serialVersionUID = -1079258847191166848L;
 
+    /** The number of local instants converted at a time by the bulk get method */
+    private static final int BULK_CHUNK_SIZE = 512;
+
     /**
      * Create a ZonedChronology for any chronology, overriding any time zone it
      * may already have.
@@ -131,6 +135,25 @@ public final class ZonedChronology extends AssembledChronology {
                            hourOfDay, minuteOfHour, secondOfMinute, millisOfSecond));
     }
 
+    public void getDateTimeFields(long instant, int[] values) {
+        getBase().getDateTimeFields(getZone().convertUTCToLocal(instant), values);
+    }
+
+    public void get(DateTimeFieldType type, long[] instants, int instantsOffset,
+                    int[] values, int valuesOffset, int length) {
+        checkRange(instants, instantsOffset, values, valuesOffset, length);
+        DateTimeZone zone = getZone();
+        Chronology base = getBase();
+        long[] local = new long[Math.min(length, BULK_CHUNK_SIZE)];
+        for (int done = 0; done < length; ) {
+            int chunk = Math.min(length - done, local.length);
+            System.arraycopy(instants, instantsOffset + done, local, 0, chunk);
+            zone.convertUTCToLocal(local, local, 0, chunk);
+            base.get(type, local, 0, values, valuesOffset + done, chunk);
+            done += chunk;
+        }
+    }
+
     /**
      * @param instant instant from 1970-01-01T00:00:00 local time
      * @return instant from 1970-01-01T00:00:00Z
@@ -119,7 +119,7 @@ final class CalendarConverter extends AbstractConverter
      */
     public long getInstantMillis(Object object, Chronology chrono) {
         Calendar calendar = (Calendar) object;
-        return calendar.getTime().getTime();
+        return calendar.getTimeInMillis();
     }
 
     //-----------------------------------------------------------------------
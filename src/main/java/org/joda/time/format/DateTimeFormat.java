@@ -19,9 +19,8 @@ import java.io.IOException;
 import java.io.Writer;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.joda.time.Chronology;
 import org.joda.time.DateTime;
@@ -114,6 +113,12 @@ import org.joda.time.ReadablePartial;
  * like ':', '.', ' ', '#' and '?' will appear in the resulting time text
  * even they are not embraced within single quotes.
  * <p>
+ * Formatters are cached, so that repeated requests for the same pattern or
+ * style are cheap. The caches are bounded, holding 500 patterns by default,
+ * discarding the least recently used when full. The size can be changed by
+ * setting the system property <code>org.joda.time.format.DateTimeFormat.CacheSize</code>,
+ * where zero disables caching of patterns and localized styles.
+ * <p>
  * DateTimeFormat is thread-safe and immutable, and the formatters it returns
  * are as well.
  *
@@ -143,10 +148,12 @@ public class DateTimeFormat {
     /** Type constant for DATETIME. */
     static final int DATETIME = 2;
 
+    /** The default maximum size of the caches. */
+    private static final int DEFAULT_CACHE_SIZE = 500;
     /** Maps patterns to formatters, patterns don't vary by locale. */
-    private static final Map cPatternedCache = new HashMap(7);
-    /** Maps patterns to formatters, patterns don't vary by locale. */
-    private static final DateTimeFormatter[] cStyleCache = new DateTimeFormatter[25];
+    private static final FormatterCache cPatternedCache = new FormatterCache(getCacheSizeSetting());
+    /** Maps styles to formatters, which vary by locale when used. */
+    private static final AtomicReferenceArray cStyleCache = new AtomicReferenceArray(25);
 
     //-----------------------------------------------------------------------
     /**
@@ -365,6 +372,59 @@ public class DateTimeFormat {
         return createFormatterForStyleIndex(FULL, FULL);
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the number of times a pattern or localized style was found
+     * in the cache.
+     *
+     * @return the hit count
+     * @since 2.0
+     */
+    public static long getCacheHitCount() {
+        return cPatternedCache.getHitCount() + StyleFormatter.cCache.getHitCount();
+    }
+
+    /**
+     * Gets the number of times a pattern or localized style was not found
+     * in the cache, requiring a formatter to be created.
+     *
+     * @return the miss count
+     * @since 2.0
+     */
+    public static long getCacheMissCount() {
+        return cPatternedCache.getMissCount() + StyleFormatter.cCache.getMissCount();
+    }
+
+    /**
+     * Gets the number of formatters discarded from the cache to keep it
+     * within its maximum size.
+     *
+     * @return the eviction count
+     * @since 2.0
+     */
+    public static long getCacheEvictionCount() {
+        return cPatternedCache.getEvictionCount() + StyleFormatter.cCache.getEvictionCount();
+    }
+
+    /**
+     * Gets the maximum cache size from the system property.
+     *
+     * @return the maximum size
+     */
+    private static int getCacheSizeSetting() {
+        try {
+            String size = System.getProperty("org.joda.time.format.DateTimeFormat.CacheSize");
+            if (size != null) {
+                return Math.max(Integer.parseInt(size.trim()), 0);
+            }
+        } catch (SecurityException ex) {
+            // ignored
+        } catch (NumberFormatException ex) {
+            // ignored
+        }
+        return DEFAULT_CACHE_SIZE;
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Parses the given pattern and appends the rules to the given
@@ -674,16 +734,13 @@ public class DateTimeFormat {
         if (pattern == null || pattern.length() == 0) {
             throw new IllegalArgumentException("Invalid pattern specification");
         }
-        DateTimeFormatter formatter = null;
-        synchronized (cPatternedCache) {
-            formatter = (DateTimeFormatter) cPatternedCache.get(pattern);
-            if (formatter == null) {
-                DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder();
-                parsePatternTo(builder, pattern);
-                formatter = builder.toFormatter();
+        DateTimeFormatter formatter = cPatternedCache.get(pattern);
+        if (formatter == null) {
+            DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder();
+            parsePatternTo(builder, pattern);
+            formatter = builder.toFormatter();
 
-                cPatternedCache.put(pattern, formatter);
-            }
+            formatter = cPatternedCache.put(pattern, formatter);
         }
         return formatter;
     }
@@ -718,20 +775,19 @@ public class DateTimeFormat {
      */
     private static DateTimeFormatter createFormatterForStyleIndex(int dateStyle, int timeStyle) {
         int index = ((dateStyle << 2) + dateStyle) + timeStyle;
-        DateTimeFormatter f = null;
-        synchronized (cStyleCache) {
-            f = cStyleCache[index];
-            if (f == null) {
-                int type = DATETIME;
-                if (dateStyle == NONE) {
-                    type = TIME;
-                } else if (timeStyle == NONE) {
-                    type = DATE;
-                }
-                StyleFormatter llf = new StyleFormatter(
-                        dateStyle, timeStyle, type);
-                f = new DateTimeFormatter(llf, llf);
-                cStyleCache[index] = f;
+        DateTimeFormatter f = (DateTimeFormatter) cStyleCache.get(index);
+        if (f == null) {
+            int type = DATETIME;
+            if (dateStyle == NONE) {
+                type = TIME;
+            } else if (timeStyle == NONE) {
+                type = DATE;
+            }
+            StyleFormatter llf = new StyleFormatter(
+                    dateStyle, timeStyle, type);
+            f = new DateTimeFormatter(llf, llf);
+            if (cStyleCache.compareAndSet(index, null, f) == false) {
+                f = (DateTimeFormatter) cStyleCache.get(index);
             }
         }
         return f;
@@ -762,9 +818,10 @@ public class DateTimeFormat {
 
     //-----------------------------------------------------------------------
     static class StyleFormatter
-            implements DateTimePrinter, DateTimeParser {
+            implements InternalPrinter, InternalParser {
 
-        private static final Map cCache = new HashMap();  // manual sync
+        /** Maps style and locale to formatters. */
+        static final FormatterCache cCache = new FormatterCache(getCacheSizeSetting());
         
         private final int iDateStyle;
         private final int iTimeStyle;
@@ -805,6 +862,18 @@ public class DateTimeFormat {
             p.printTo(out, partial, locale);
         }
 
+        public void printTo(
+                Appendable appendable, long instant, Chronology chrono,
+                int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+            InternalPrinter p = DateTimePrinterInternalPrinter.of(getFormatter(locale).getPrinter());
+            p.printTo(appendable, instant, chrono, displayOffset, displayZone, locale);
+        }
+
+        public void printTo(Appendable appendable, ReadablePartial partial, Locale locale) throws IOException {
+            InternalPrinter p = DateTimePrinterInternalPrinter.of(getFormatter(locale).getPrinter());
+            p.printTo(appendable, partial, locale);
+        }
+
         public int estimateParsedLength() {
             return 40;  // guess
         }
@@ -814,17 +883,20 @@ public class DateTimeFormat {
             return p.parseInto(bucket, text, position);
         }
 
+        public int parseInto(DateTimeParserBucket bucket, CharSequence text, int position) {
+            InternalParser p = DateTimeParserInternalParser.of(getFormatter(bucket.getLocale()).getParser());
+            return p.parseInto(bucket, text, position);
+        }
+
         private DateTimeFormatter getFormatter(Locale locale) {
             locale = (locale == null ? Locale.getDefault() : locale);
-            String key = Integer.toString(iType + (iDateStyle << 4) + (iTimeStyle << 8)) + locale.toString();
-            DateTimeFormatter f = null;
-            synchronized (cCache) {
-                f = (DateTimeFormatter) cCache.get(key);
-                if (f == null) {
-                    String pattern = getPattern(locale);
-                    f = DateTimeFormat.forPattern(pattern);
-                    cCache.put(key, f);
-                }
+            StyleKey key = new StyleKey(iType + (iDateStyle << 4) + (iTimeStyle << 8), locale);
+            DateTimeFormatter f = cCache.get(key);
+            if (f == null) {
+                // built directly, so the miss is not counted by the pattern cache too
+                DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder();
+                parsePatternTo(builder, getPattern(locale));
+                f = cCache.put(key, builder.toFormatter());
             }
             return f;
         }
@@ -849,4 +921,33 @@ public class DateTimeFormat {
         }
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Key for a style formatter in a locale.
+     */
+    static final class StyleKey {
+        private final int iStyle;
+        private final Locale iLocale;
+
+        StyleKey(int style, Locale locale) {
+            iStyle = style;
+            iLocale = locale;
+        }
+
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof StyleKey) {
+                StyleKey other = (StyleKey) obj;
+                return iStyle == other.iStyle && iLocale.equals(other.iLocale);
+            }
+            return false;
+        }
+
+        public int hashCode() {
+            return iStyle * 31 + iLocale.hashCode();
+        }
+    }
+
 }
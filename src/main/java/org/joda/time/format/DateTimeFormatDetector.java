@@ -0,0 +1,188 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.format;
+
+/**
+ * DateTimeFormatDetector parses a stream of values whose format is one of a
+ * known set, detecting which format is in use.
+ * <p>
+ * The formatters are tried in the order given until one matches the whole
+ * of the text. That formatter is then tried first for the following values,
+ * falling back to the others only when it fails to match. Where a value
+ * could match several formats, the earlier formatter in the list wins
+ * until a format has been detected.
+ * <p>
+ * Failure is reported by the return value of {@link #parse(CharSequence)},
+ * not by exception, so that unmatched formats and malformed values are cheap.
+ * Field values out of range for the chronology are reported in the same way.
+ * Most such values are rejected without the chronology being called, but some,
+ * such as the 30th of February, can only be detected by it, and are
+ * therefore slower to reject.
+ * <pre>
+ * DateTimeFormatDetector detector = new DateTimeFormatDetector(new DateTimeFormatter[] {
+ *     ISODateTimeFormat.dateTimeParser(),
+ *     DateTimeFormat.forPattern("dd/MM/yyyy HH:mm"),
+ *     DateTimeFormat.forPattern("EEE, dd MMM yyyy HH:mm:ss Z"),
+ * });
+ * for (String value : values) {
+ *     if (detector.parse(value) >= 0) {
+ *         long millis = detector.getMillis();
+ *         ...
+ *     }
+ * }
+ * </pre>
+ * The chronology and time zone of each formatter are resolved when the
+ * detector is created, using the default time zone if the formatter has none.
+ * <p>
+ * DateTimeFormatDetector is mutable and not thread-safe.
+ * Use a separate instance for each stream of values.
+ *
+ * @since 2.0
+ */
+public class DateTimeFormatDetector {
+
+    /** The formatters, in priority order. */
+    private final DateTimeFormatter[] iFormatters;
+    /** The parser of each formatter. */
+    private final InternalParser[] iParsers;
+    /** The reusable bucket of each formatter. */
+    private final DateTimeParserBucket[] iBuckets;
+    /** The index of the detected formatter, -1 if not yet detected. */
+    private int iDetected = -1;
+    /** The result of the last successful parse. */
+    private long iMillis;
+
+    /**
+     * Creates a detector for the specified formatters.
+     *
+     * @param formatters  the formatters to choose between, in priority order, not null
+     * @throws IllegalArgumentException if the array is empty or contains a null
+     *  or a formatter that cannot parse
+     */
+    public DateTimeFormatDetector(DateTimeFormatter[] formatters) {
+        super();
+        if (formatters == null || formatters.length == 0) {
+            throw new IllegalArgumentException("No formatters supplied");
+        }
+        int size = formatters.length;
+        iFormatters = new DateTimeFormatter[size];
+        iParsers = new InternalParser[size];
+        iBuckets = new DateTimeParserBucket[size];
+        for (int i = 0; i < size; i++) {
+            DateTimeFormatter formatter = formatters[i];
+            if (formatter == null || formatter.isParser() == false) {
+                throw new IllegalArgumentException("Formatter " + i + " cannot parse");
+            }
+            iFormatters[i] = formatter;
+            iParsers[i] = formatter.requireInternalParser();
+            iBuckets[i] = formatter.createBucket();
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Parses the whole of the text using the detected format, or the first
+     * of the formatters to match if the format has not been detected or
+     * the detected format does not match.
+     * <p>
+     * On success the parsed value is available from {@link #getMillis()}
+     * and the formatter used becomes the detected format.
+     * On failure the detected format is unchanged.
+     *
+     * @param text  the text to parse, not null
+     * @return the index of the formatter used if successful, otherwise the
+     *  complement of the furthest position at which a formatter failed
+     */
+    public int parse(CharSequence text) {
+        int detected = iDetected;
+        int bestInvalidPos = 0;
+        if (detected >= 0) {
+            int newPos = parse(detected, text);
+            if (newPos >= 0) {
+                return detected;
+            }
+            bestInvalidPos = ~newPos;
+        }
+        for (int i = 0; i < iParsers.length; i++) {
+            if (i != detected) {
+                int newPos = parse(i, text);
+                if (newPos >= 0) {
+                    iDetected = i;
+                    return i;
+                }
+                if (~newPos > bestInvalidPos) {
+                    bestInvalidPos = ~newPos;
+                }
+            }
+        }
+        return ~bestInvalidPos;
+    }
+
+    /**
+     * Parses using one formatter, storing the result if successful.
+     *
+     * @param index  the index of the formatter
+     * @param text  the text to parse, not null
+     * @return the length of the text if successful, otherwise the complement
+     *  of the position of the error
+     */
+    private int parse(int index, CharSequence text) {
+        DateTimeParserBucket bucket = iBuckets[index];
+        bucket.reset();
+        int newPos = bucket.doParse(iParsers[index], text);
+        if (newPos >= 0) {
+            // the text matched, but the values may not form a valid instant
+            if (bucket.checkSavedFields() == false) {
+                return ~0;
+            }
+            try {
+                iMillis = bucket.computeMillis(true);
+            } catch (IllegalArgumentException ex) {
+                return ~0;
+            }
+        }
+        return newPos;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the result of the last successful parse.
+     *
+     * @return the parsed value expressed in milliseconds since the epoch
+     */
+    public long getMillis() {
+        return iMillis;
+    }
+
+    /**
+     * Gets the formatter that matched most recently.
+     *
+     * @return the detected formatter, null if no value has been parsed yet
+     */
+    public DateTimeFormatter getDetectedFormatter() {
+        int detected = iDetected;
+        return (detected < 0 ? null : iFormatters[detected]);
+    }
+
+    /**
+     * Forgets the detected format, so that the next value is tried against
+     * the formatters in priority order.
+     */
+    public void reset() {
+        iDetected = -1;
+    }
+
+}
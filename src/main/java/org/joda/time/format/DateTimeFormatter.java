@@ -17,6 +17,7 @@ package org.joda.time.format;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.text.ParsePosition;
 import java.util.Locale;
 
 import org.joda.time.Chronology;
@@ -75,6 +76,9 @@ import org.joda.time.ReadablePartial;
  */
 public class DateTimeFormatter {
 
+    /** The reusable sink for printing into character arrays, one per thread. */
+    private static final ThreadLocal cCharArraySink = new ThreadLocal();
+
     /** The internal printer used to output the datetime. */
     private final DateTimePrinter iPrinter;
     /** The internal parser used to output the datetime. */
@@ -201,8 +205,10 @@ public class DateTimeFormatter {
      * <p>
      * After calling this method, a string '2004-06-09T10:20:30-08:00' will
      * create a datetime with a zone of -08:00 (a fixed zone, with no daylight
-     * savings rules). If the parsed string represents a local time (no zone
-     * offset) the parsed datetime will be in the default zone.
+     * savings rules). If the parsed string contains a time zone id, such as
+     * 'Europe/Paris', the datetime will have that zone. If the parsed string
+     * represents a local time (no zone offset) the parsed datetime will be in
+     * the default zone.
      * <p>
      * Calling this method sets the override zone to null.
      * Calling the override zone method sets this flag off.
@@ -411,6 +417,37 @@ public class DateTimeFormatter {
         printTo(out, millis, chrono);
     }
 
+    /**
+     * Prints a ReadableInstant, using the chronology supplied by the instant.
+     * <p>
+     * Unlike the <code>StringBuffer</code> version, this takes no locks.
+     *
+     * @param buf  formatted instant is appended to this builder
+     * @param instant  instant to format, null means now
+     * @since 2.0
+     */
+    public void printTo(StringBuilder buf, ReadableInstant instant) {
+        try {
+            printTo((Appendable) buf, instant);
+        } catch (IOException ex) {
+            // StringBuilder does not throw IOException
+        }
+    }
+
+    /**
+     * Prints a ReadableInstant, using the chronology supplied by the instant.
+     *
+     * @param appendable  formatted instant is appended to this
+     * @param instant  instant to format, null means now
+     * @throws IOException if the appendable throws it
+     * @since 2.0
+     */
+    public void printTo(Appendable appendable, ReadableInstant instant) throws IOException {
+        long millis = DateTimeUtils.getInstantMillis(instant);
+        Chronology chrono = DateTimeUtils.getInstantChronology(instant);
+        printTo(appendable, millis, chrono);
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Prints an instant from milliseconds since 1970-01-01T00:00:00Z,
@@ -434,6 +471,95 @@ public class DateTimeFormatter {
         printTo(out, instant, null);
     }
 
+    /**
+     * Prints an instant from milliseconds since 1970-01-01T00:00:00Z,
+     * using ISO chronology in the default DateTimeZone.
+     * <p>
+     * Unlike the <code>StringBuffer</code> version, this takes no locks.
+     * Reusing the builder, by calling <code>setLength(0)</code> between calls,
+     * allows timestamps to be printed without allocating any objects.
+     *
+     * @param buf  formatted instant is appended to this builder
+     * @param instant  millis since 1970-01-01T00:00:00Z
+     * @since 2.0
+     */
+    public void printTo(StringBuilder buf, long instant) {
+        try {
+            printTo((Appendable) buf, instant, null);
+        } catch (IOException ex) {
+            // StringBuilder does not throw IOException
+        }
+    }
+
+    /**
+     * Prints an instant from milliseconds since 1970-01-01T00:00:00Z,
+     * using ISO chronology in the default DateTimeZone.
+     *
+     * @param appendable  formatted instant is appended to this
+     * @param instant  millis since 1970-01-01T00:00:00Z
+     * @throws IOException if the appendable throws it
+     * @since 2.0
+     */
+    public void printTo(Appendable appendable, long instant) throws IOException {
+        printTo(appendable, instant, null);
+    }
+
+    /**
+     * Prints an instant from milliseconds since 1970-01-01T00:00:00Z,
+     * using ISO chronology in the default DateTimeZone, into a character array.
+     * <p>
+     * When the array has room for {@link DateTimePrinter#estimatePrintedLength()}
+     * characters after the offset the text is printed straight into the array
+     * without allocating any objects. Otherwise the text is printed separately
+     * and copied in only if it fits, so a short array is left unchanged.
+     * <p>
+     * A few printers, such as time zone names, can print more than their
+     * estimate. If such text does not fit, the exception is thrown part way
+     * through and the array after the offset is left partly written.
+     *
+     * @param buf  the array to print into, not null
+     * @param offset  the index in the array to start printing at
+     * @param instant  millis since 1970-01-01T00:00:00Z
+     * @return the index in the array after the last character printed
+     * @throws IndexOutOfBoundsException if the array is too small
+     * @since 2.0
+     */
+    public int printTo(char[] buf, int offset, long instant) {
+        if (offset < 0 || offset > buf.length) {
+            throw new IndexOutOfBoundsException("Offset out of range: " + offset);
+        }
+        InternalPrinter printer = requireInternalPrinter();
+        if (buf.length - offset < printer.estimatePrintedLength()) {
+            StringBuilder text = new StringBuilder(printer.estimatePrintedLength());
+            printTo(text, instant);
+            int len = text.length();
+            if (len > buf.length - offset) {
+                throw new IndexOutOfBoundsException(
+                    "Printed length " + len + " exceeds the space in the array: " + (buf.length - offset));
+            }
+            text.getChars(0, len, buf, offset);
+            return offset + len;
+        }
+        CharArrayAppendable sink = (CharArrayAppendable) cCharArraySink.get();
+        if (sink == null || sink.iBuf != null) {
+            // none yet for this thread, or in use by a printer calling back in
+            sink = new CharArrayAppendable();
+            cCharArraySink.set(sink);
+        }
+        sink.iBuf = buf;
+        sink.iPos = offset;
+        try {
+            printTo(sink, instant, null);
+            return sink.iPos;
+        } catch (IOException ex) {
+            // CharArrayAppendable does not throw IOException
+            throw new IllegalStateException(ex.toString());
+        } finally {
+            // do not hold on to the caller's array
+            sink.iBuf = null;
+        }
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Prints a ReadablePartial.
@@ -469,6 +595,43 @@ public class DateTimeFormatter {
         printer.printTo(out, partial, iLocale);
     }
 
+    /**
+     * Prints a ReadablePartial.
+     * <p>
+     * Neither the override chronology nor the override zone are used
+     * by this method.
+     *
+     * @param buf  formatted partial is appended to this builder
+     * @param partial  partial to format
+     * @since 2.0
+     */
+    public void printTo(StringBuilder buf, ReadablePartial partial) {
+        try {
+            printTo((Appendable) buf, partial);
+        } catch (IOException ex) {
+            // StringBuilder does not throw IOException
+        }
+    }
+
+    /**
+     * Prints a ReadablePartial.
+     * <p>
+     * Neither the override chronology nor the override zone are used
+     * by this method.
+     *
+     * @param appendable  formatted partial is appended to this
+     * @param partial  partial to format
+     * @throws IOException if the appendable throws it
+     * @since 2.0
+     */
+    public void printTo(Appendable appendable, ReadablePartial partial) throws IOException {
+        InternalPrinter printer = requireInternalPrinter();
+        if (partial == null) {
+            throw new IllegalArgumentException("The partial must not be null");
+        }
+        printer.printTo(appendable, partial, iLocale);
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Prints a ReadableInstant to a String.
@@ -480,7 +643,7 @@ public class DateTimeFormatter {
      * @return the printed result
      */
     public String print(ReadableInstant instant) {
-        StringBuffer buf = new StringBuffer(requirePrinter().estimatePrintedLength());
+        StringBuilder buf = new StringBuilder(requirePrinter().estimatePrintedLength());
         printTo(buf, instant);
         return buf.toString();
     }
@@ -495,7 +658,7 @@ public class DateTimeFormatter {
      * @return the printed result
      */
     public String print(long instant) {
-        StringBuffer buf = new StringBuffer(requirePrinter().estimatePrintedLength());
+        StringBuilder buf = new StringBuilder(requirePrinter().estimatePrintedLength());
         printTo(buf, instant);
         return buf.toString();
     }
@@ -510,7 +673,7 @@ public class DateTimeFormatter {
      * @return the printed result
      */
     public String print(ReadablePartial partial) {
-        StringBuffer buf = new StringBuffer(requirePrinter().estimatePrintedLength());
+        StringBuilder buf = new StringBuilder(requirePrinter().estimatePrintedLength());
         printTo(buf, partial);
         return buf.toString();
     }
@@ -549,6 +712,23 @@ public class DateTimeFormatter {
         printer.printTo(buf, adjustedInstant, chrono.withUTC(), offset, zone, iLocale);
     }
 
+    private void printTo(Appendable appendable, long instant, Chronology chrono) throws IOException {
+        InternalPrinter printer = requireInternalPrinter();
+        chrono = selectChronology(chrono);
+        // Shift instant into local time (UTC) to avoid excessive offset
+        // calculations when printing multiple fields in a composite printer.
+        DateTimeZone zone = chrono.getZone();
+        int offset = zone.getOffset(instant);
+        long adjustedInstant = instant + offset;
+        if ((instant ^ adjustedInstant) < 0 && (instant ^ offset) >= 0) {
+            // Time zone offset overflow, so revert to UTC.
+            zone = DateTimeZone.UTC;
+            offset = 0;
+            adjustedInstant = instant;
+        }
+        printer.printTo(appendable, adjustedInstant, chrono.withUTC(), offset, zone, iLocale);
+    }
+
     /**
      * Checks whether printing is supported.
      * 
@@ -562,6 +742,15 @@ public class DateTimeFormatter {
         return printer;
     }
 
+    /**
+     * Checks whether printing is supported, returning the internal printer.
+     * 
+     * @throws UnsupportedOperationException if printing is not supported
+     */
+    private InternalPrinter requireInternalPrinter() {
+        return DateTimePrinterInternalPrinter.of(requirePrinter());
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Parses a datetime from the given text, at the given position, saving the
@@ -607,10 +796,14 @@ public class DateTimeFormatter {
             (instantLocal, chrono, iLocale, iPivotYear);
         int newPos = parser.parseInto(bucket, text, position);
         instant.setMillis(bucket.computeMillis(false, text));
-        if (iOffsetParsed && bucket.getZone() == null) {
-            int parsedOffset = bucket.getOffset();
-            DateTimeZone parsedZone = DateTimeZone.forOffsetMillis(parsedOffset);
-            chrono = chrono.withZone(parsedZone);
+        if (iOffsetParsed) {
+            if (bucket.getZone() == null) {
+                int parsedOffset = bucket.getOffset();
+                DateTimeZone parsedZone = DateTimeZone.forOffsetMillis(parsedOffset);
+                chrono = chrono.withZone(parsedZone);
+            } else {
+                chrono = chrono.withZone(bucket.getZone());
+            }
         }
         instant.setChronology(chrono);
         return newPos;
@@ -629,19 +822,139 @@ public class DateTimeFormatter {
      * @throws IllegalArgumentException if the text to parse is invalid
      */
     public long parseMillis(String text) {
-        DateTimeParser parser = requireParser();
-        
-        Chronology chrono = selectChronology(iChrono);
-        DateTimeParserBucket bucket = new DateTimeParserBucket(0, chrono, iLocale, iPivotYear);
-        int newPos = parser.parseInto(bucket, text, 0);
+        return parseMillis((CharSequence) text);
+    }
+
+    /**
+     * Parses a datetime from the given text, returning the number of
+     * milliseconds since the epoch, 1970-01-01T00:00:00Z.
+     * <p>
+     * The text may be any <code>CharSequence</code>, such as a
+     * <code>StringBuilder</code> or <code>CharBuffer</code>, and is parsed
+     * without being converted to a <code>String</code>.
+     * The parse will use the ISO chronology, and the default time zone.
+     * If the text contains a time zone string then that will be taken into account.
+     *
+     * @param text  text to parse
+     * @return parsed value expressed in milliseconds since the epoch
+     * @throws UnsupportedOperationException if parsing is not supported
+     * @throws IllegalArgumentException if the text to parse is invalid
+     * @since 2.0
+     */
+    public long parseMillis(CharSequence text) {
+        InternalParser parser = requireInternalParser();
+        return createBucket().doParseMillis(parser, text);
+    }
+
+    /**
+     * Parses a datetime from a range of the given text, returning the number of
+     * milliseconds since the epoch, 1970-01-01T00:00:00Z.
+     * <p>
+     * The whole of the range must be matched by the format.
+     * This allows timestamps to be parsed from a larger buffer, such as
+     * a line of a log file, without extracting a <code>String</code>.
+     * The parse will use the ISO chronology, and the default time zone.
+     * If the text contains a time zone string then that will be taken into account.
+     *
+     * @param text  text to parse
+     * @param start  the index of the first character to parse, inclusive
+     * @param end  the index of the last character to parse, exclusive
+     * @return parsed value expressed in milliseconds since the epoch
+     * @throws UnsupportedOperationException if parsing is not supported
+     * @throws IllegalArgumentException if the text to parse is invalid
+     * @throws IndexOutOfBoundsException if the range is invalid
+     * @since 2.0
+     */
+    public long parseMillis(CharSequence text, int start, int end) {
+        if (start < 0 || end > text.length() || start > end) {
+            throw new IndexOutOfBoundsException(
+                "Invalid range " + start + " to " + end + " for length " + text.length());
+        }
+        if (start == 0 && end == text.length()) {
+            return parseMillis(text);
+        }
+        return parseMillis(new CharSequenceRange(text, start, end));
+    }
+
+    /**
+     * Parses a datetime from a range of the given character array, returning
+     * the number of milliseconds since the epoch, 1970-01-01T00:00:00Z.
+     * <p>
+     * The whole of the range must be matched by the format.
+     * The parse will use the ISO chronology, and the default time zone.
+     * If the text contains a time zone string then that will be taken into account.
+     *
+     * @param text  text to parse
+     * @param start  the index of the first character to parse, inclusive
+     * @param end  the index of the last character to parse, exclusive
+     * @return parsed value expressed in milliseconds since the epoch
+     * @throws UnsupportedOperationException if parsing is not supported
+     * @throws IllegalArgumentException if the text to parse is invalid
+     * @throws IndexOutOfBoundsException if the range is invalid
+     * @since 2.0
+     */
+    public long parseMillis(char[] text, int start, int end) {
+        if (start < 0 || end > text.length || start > end) {
+            throw new IndexOutOfBoundsException(
+                "Invalid range " + start + " to " + end + " for length " + text.length);
+        }
+        return parseMillis(new CharArrayRange(text, start, end));
+    }
+
+    /**
+     * Parses a datetime from the given text starting at the index of the
+     * parse position, reporting failure by the parse position rather than by
+     * throwing an exception.
+     * <p>
+     * This follows the convention of <code>java.text.DateFormat</code>.
+     * If successful, the index of the position is updated to just after
+     * the parsed text and the error index is unchanged.
+     * The text after that index is not examined, so to require that the
+     * whole of the text matches, compare the index to the length of the text.
+     * If unsuccessful, the index is unchanged, the error index is set to the
+     * position at which the parse failed, and zero is returned.
+     * <p>
+     * This method is intended for input where failures are expected to
+     * be common. Text that does not match the format is rejected without
+     * creating an exception or an error message. The same is true of field
+     * values outside the overall range of the field, such as a month of 13.
+     * Some values, such as the 30th of February, can only be rejected by
+     * the chronology, which is slower. They are reported with the error
+     * index at the start position.
+     * <p>
+     * The parse will use the ISO chronology, and the default time zone.
+     * If the text contains a time zone string then that will be taken into account.
+     *
+     * @param text  text to parse, not null
+     * @param position  the position to start parsing from, updated with the result, not null
+     * @return parsed value expressed in milliseconds since the epoch, zero if unsuccessful
+     * @throws UnsupportedOperationException if parsing is not supported
+     * @throws IndexOutOfBoundsException if the index of the position is outside the text
+     * @since 2.0
+     */
+    public long parseMillis(CharSequence text, ParsePosition position) {
+        InternalParser parser = requireInternalParser();
+        int start = position.getIndex();
+        if (start < 0 || start > text.length()) {
+            throw new IndexOutOfBoundsException(
+                "Invalid index " + start + " for length " + text.length());
+        }
+        DateTimeParserBucket bucket = createBucket();
+        int newPos = parser.parseInto(bucket, text, start);
         if (newPos >= 0) {
-            if (newPos >= text.length()) {
-                return bucket.computeMillis(true, text);
+            if (bucket.checkSavedFields()) {
+                try {
+                    long millis = bucket.computeMillis(true);
+                    position.setIndex(newPos);
+                    return millis;
+                } catch (IllegalArgumentException ex) {
+                    // fall through
+                }
             }
-        } else {
-            newPos = ~newPos;
+            newPos = ~start;
         }
-        throw new IllegalArgumentException(FormatUtils.createErrorMessage(text, newPos));
+        position.setErrorIndex(~newPos);
+        return 0;
     }
 
     /**
@@ -670,10 +983,14 @@ public class DateTimeFormatter {
         if (newPos >= 0) {
             if (newPos >= text.length()) {
                 long millis = bucket.computeMillis(true, text);
-                if (iOffsetParsed && bucket.getZone() == null) {
-                    int parsedOffset = bucket.getOffset();
-                    DateTimeZone parsedZone = DateTimeZone.forOffsetMillis(parsedOffset);
-                    chrono = chrono.withZone(parsedZone);
+                if (iOffsetParsed) {
+                    if (bucket.getZone() == null) {
+                        int parsedOffset = bucket.getOffset();
+                        DateTimeZone parsedZone = DateTimeZone.forOffsetMillis(parsedOffset);
+                        chrono = chrono.withZone(parsedZone);
+                    } else {
+                        chrono = chrono.withZone(bucket.getZone());
+                    }
                 }
                 return new DateTime(millis, chrono);
             }
@@ -709,10 +1026,14 @@ public class DateTimeFormatter {
         if (newPos >= 0) {
             if (newPos >= text.length()) {
                 long millis = bucket.computeMillis(true, text);
-                if (iOffsetParsed && bucket.getZone() == null) {
-                    int parsedOffset = bucket.getOffset();
-                    DateTimeZone parsedZone = DateTimeZone.forOffsetMillis(parsedOffset);
-                    chrono = chrono.withZone(parsedZone);
+                if (iOffsetParsed) {
+                    if (bucket.getZone() == null) {
+                        int parsedOffset = bucket.getOffset();
+                        DateTimeZone parsedZone = DateTimeZone.forOffsetMillis(parsedOffset);
+                        chrono = chrono.withZone(parsedZone);
+                    } else {
+                        chrono = chrono.withZone(bucket.getZone());
+                    }
                 }
                 return new MutableDateTime(millis, chrono);
             }
@@ -735,6 +1056,25 @@ public class DateTimeFormatter {
         return parser;
     }
 
+    /**
+     * Checks whether parsing is supported, returning the internal parser.
+     * 
+     * @throws UnsupportedOperationException if parsing is not supported
+     */
+    InternalParser requireInternalParser() {
+        return DateTimeParserInternalParser.of(requireParser());
+    }
+
+    /**
+     * Creates a bucket for parsing to millis using the settings of this formatter.
+     * 
+     * @return a new bucket, not null
+     */
+    DateTimeParserBucket createBucket() {
+        Chronology chrono = selectChronology(iChrono);
+        return new DateTimeParserBucket(0, chrono, iLocale, iPivotYear);
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Determines the correct chronology to use.
@@ -753,4 +1093,123 @@ public class DateTimeFormatter {
         return chrono;
     }
 
+
+    //-----------------------------------------------------------------------
+    /**
+     * Appendable that writes into a character array without bounds growth.
+     * <p>
+     * One instance is kept per thread and pointed at the caller's array for
+     * the duration of each call.
+     */
+    private static final class CharArrayAppendable implements Appendable {
+        private char[] iBuf;
+        private int iPos;
+
+        CharArrayAppendable() {
+            super();
+        }
+
+        public Appendable append(char c) {
+            iBuf[iPos++] = c;
+            return this;
+        }
+
+        public Appendable append(CharSequence csq) {
+            if (csq instanceof String) {
+                String str = (String) csq;
+                int len = str.length();
+                str.getChars(0, len, iBuf, iPos);
+                iPos += len;
+                return this;
+            }
+            return append(csq == null ? "null" : csq, 0, csq == null ? 4 : csq.length());
+        }
+
+        public Appendable append(CharSequence csq, int start, int end) {
+            if (csq == null) {
+                csq = "null";
+            }
+            for (int i = start; i < end; i++) {
+                iBuf[iPos++] = csq.charAt(i);
+            }
+            return this;
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * View of a range of a character sequence, without copying.
+     */
+    private static final class CharSequenceRange implements CharSequence {
+        private final CharSequence iText;
+        private final int iStart;
+        private final int iLength;
+
+        CharSequenceRange(CharSequence text, int start, int end) {
+            iText = text;
+            iStart = start;
+            iLength = end - start;
+        }
+
+        public int length() {
+            return iLength;
+        }
+
+        public char charAt(int index) {
+            if (index < 0 || index >= iLength) {
+                throw new IndexOutOfBoundsException(Integer.toString(index));
+            }
+            return iText.charAt(iStart + index);
+        }
+
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > iLength || start > end) {
+                throw new IndexOutOfBoundsException();
+            }
+            return iText.subSequence(iStart + start, iStart + end);
+        }
+
+        public String toString() {
+            return iText.subSequence(iStart, iStart + iLength).toString();
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * View of a range of a character array, without copying.
+     */
+    private static final class CharArrayRange implements CharSequence {
+        private final char[] iText;
+        private final int iStart;
+        private final int iLength;
+
+        CharArrayRange(char[] text, int start, int end) {
+            iText = text;
+            iStart = start;
+            iLength = end - start;
+        }
+
+        public int length() {
+            return iLength;
+        }
+
+        public char charAt(int index) {
+            if (index < 0 || index >= iLength) {
+                throw new IndexOutOfBoundsException(Integer.toString(index));
+            }
+            return iText[iStart + index];
+        }
+
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > iLength || start > end) {
+                throw new IndexOutOfBoundsException();
+            }
+            return new String(iText, iStart + start, end - start);
+        }
+
+        public String toString() {
+            return new String(iText, iStart, iLength);
+        }
+    }
+
 }
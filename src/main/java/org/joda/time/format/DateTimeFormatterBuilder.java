@@ -18,8 +18,11 @@ package org.joda.time.format;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -30,9 +33,12 @@ import org.joda.time.DateTimeConstants;
 import org.joda.time.DateTimeField;
 import org.joda.time.DateTimeFieldType;
 import org.joda.time.DateTimeZone;
+import org.joda.time.DurationField;
 import org.joda.time.MutableDateTime;
 import org.joda.time.ReadablePartial;
 import org.joda.time.MutableDateTime.Property;
+import org.joda.time.chrono.GregorianChronology;
+import org.joda.time.chrono.ISOChronology;
 import org.joda.time.field.MillisDurationField;
 import org.joda.time.field.PreciseDateTimeField;
 
@@ -104,7 +110,7 @@ public class DateTimeFormatterBuilder {
         Object f = getFormatter();
         DateTimePrinter printer = null;
         if (isPrinter(f)) {
-            printer = (DateTimePrinter) f;
+            printer = selectPrinter(f);
         }
         DateTimeParser parser = null;
         if (isParser(f)) {
@@ -131,7 +137,7 @@ public class DateTimeFormatterBuilder {
     public DateTimePrinter toPrinter() {
         Object f = getFormatter();
         if (isPrinter(f)) {
-            return (DateTimePrinter) f;
+            return selectPrinter(f);
         }
         throw new UnsupportedOperationException("Printing is not supported");
     }
@@ -960,12 +966,14 @@ public class DateTimeFormatterBuilder {
 
     /**
      * Instructs the printer to emit the identifier of the time zone.
-     * This field cannot currently be parsed.
+     * <p>
+     * The parser matches the longest of the available time zone identifiers,
+     * as returned by {@link DateTimeZone#getAvailableIDs()}, in a single scan.
      *
      * @return this DateTimeFormatterBuilder
      */
     public DateTimeFormatterBuilder appendTimeZoneId() {
-        return append0(new TimeZoneName(TimeZoneName.ID), null);
+        return append0(TimeZoneId.INSTANCE, TimeZoneId.INSTANCE);
     }
 
     /**
@@ -1031,6 +1039,20 @@ public class DateTimeFormatterBuilder {
         return f;
     }
 
+    /**
+     * Selects the printer to use, replacing a composite of fixed-width numeric
+     * fields by a specialised printer where possible.
+     */
+    private DateTimePrinter selectPrinter(Object f) {
+        if (f instanceof Composite) {
+            DateTimePrinter fast = FastNumericPrinter.create((Composite) f);
+            if (fast != null) {
+                return fast;
+            }
+        }
+        return (DateTimePrinter) f;
+    }
+
     private boolean isPrinter(Object f) {
         if (f instanceof DateTimePrinter) {
             if (f instanceof Composite) {
@@ -1055,21 +1077,15 @@ public class DateTimeFormatterBuilder {
         return (isPrinter(f) || isParser(f));
     }
 
-    static void appendUnknownString(StringBuffer buf, int len) {
+    static void appendUnknownString(Appendable appendable, int len) throws IOException {
         for (int i = len; --i >= 0;) {
-            buf.append('\ufffd');
-        }
-    }
-
-    static void printUnknownString(Writer out, int len) throws IOException {
-        for (int i = len; --i >= 0;) {
-            out.write('\ufffd');
+            appendable.append('\ufffd');
         }
     }
 
     //-----------------------------------------------------------------------
     static class CharacterLiteral
-            implements DateTimePrinter, DateTimeParser {
+            implements InternalPrinter, InternalParser {
 
         private final char iValue;
 
@@ -1102,11 +1118,25 @@ public class DateTimeFormatterBuilder {
             out.write(iValue);
         }
 
+        public void printTo(
+                Appendable appendable, long instant, Chronology chrono,
+                int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+            appendable.append(iValue);
+        }
+
+        public void printTo(Appendable appendable, ReadablePartial partial, Locale locale) throws IOException {
+            appendable.append(iValue);
+        }
+
         public int estimateParsedLength() {
             return 1;
         }
 
         public int parseInto(DateTimeParserBucket bucket, String text, int position) {
+            return parseInto(bucket, (CharSequence) text, position);
+        }
+
+        public int parseInto(DateTimeParserBucket bucket, CharSequence text, int position) {
             if (position >= text.length()) {
                 return ~position;
             }
@@ -1132,7 +1162,7 @@ public class DateTimeFormatterBuilder {
 
     //-----------------------------------------------------------------------
     static class StringLiteral
-            implements DateTimePrinter, DateTimeParser {
+            implements InternalPrinter, InternalParser {
 
         private final String iValue;
 
@@ -1165,12 +1195,26 @@ public class DateTimeFormatterBuilder {
             out.write(iValue);
         }
 
+        public void printTo(
+                Appendable appendable, long instant, Chronology chrono,
+                int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+            appendable.append(iValue);
+        }
+
+        public void printTo(Appendable appendable, ReadablePartial partial, Locale locale) throws IOException {
+            appendable.append(iValue);
+        }
+
         public int estimateParsedLength() {
             return iValue.length();
         }
 
         public int parseInto(DateTimeParserBucket bucket, String text, int position) {
-            if (text.regionMatches(true, position, iValue, 0, iValue.length())) {
+            return parseInto(bucket, (CharSequence) text, position);
+        }
+
+        public int parseInto(DateTimeParserBucket bucket, CharSequence text, int position) {
+            if (FormatUtils.regionMatchesIgnoreCase(text, position, iValue)) {
                 return position + iValue.length();
             }
             return ~position;
@@ -1179,7 +1223,7 @@ public class DateTimeFormatterBuilder {
 
     //-----------------------------------------------------------------------
     static abstract class NumberFormatter
-            implements DateTimePrinter, DateTimeParser {
+            implements InternalPrinter, InternalParser {
         protected final DateTimeFieldType iFieldType;
         protected final int iMaxParsedDigits;
         protected final boolean iSigned;
@@ -1197,6 +1241,10 @@ public class DateTimeFormatterBuilder {
         }
 
         public int parseInto(DateTimeParserBucket bucket, String text, int position) {
+            return parseInto(bucket, (CharSequence) text, position);
+        }
+
+        public int parseInto(DateTimeParserBucket bucket, CharSequence text, int position) {
             int limit = Math.min(iMaxParsedDigits, text.length() - position);
 
             boolean negative = false;
@@ -1235,9 +1283,13 @@ public class DateTimeFormatterBuilder {
 
             int value;
             if (length >= 9) {
-                // Since value may exceed integer limits, use stock parser
-                // which checks for this.
-                value = Integer.parseInt(text.substring(position, position += length));
+                // Since value may exceed integer limits, parse as a long and check.
+                long parsed = FormatUtils.parseDigits(text, position, position + length);
+                if (parsed < Integer.MIN_VALUE || parsed > Integer.MAX_VALUE) {
+                    return ~position;
+                }
+                value = (int) parsed;
+                position += length;
             } else {
                 int i = position;
                 if (negative) {
@@ -1245,7 +1297,7 @@ public class DateTimeFormatterBuilder {
                 }
                 try {
                     value = text.charAt(i++) - '0';
-                } catch (StringIndexOutOfBoundsException e) {
+                } catch (IndexOutOfBoundsException e) {
                     return ~position;
                 }
                 position += length;
@@ -1279,45 +1331,50 @@ public class DateTimeFormatterBuilder {
                 StringBuffer buf, long instant, Chronology chrono,
                 int displayOffset, DateTimeZone displayZone, Locale locale) {
             try {
-                DateTimeField field = iFieldType.getField(chrono);
-                FormatUtils.appendUnpaddedInteger(buf, field.get(instant));
-            } catch (RuntimeException e) {
-                buf.append('\ufffd');
+                printTo((Appendable) buf, instant, chrono, displayOffset, displayZone, locale);
+            } catch (IOException e) {
+                // Not gonna happen.
             }
         }
 
         public void printTo(
                 Writer out, long instant, Chronology chrono,
                 int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+            printTo((Appendable) out, instant, chrono, displayOffset, displayZone, locale);
+        }
+
+        public void printTo(
+                Appendable appendable, long instant, Chronology chrono,
+                int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
             try {
                 DateTimeField field = iFieldType.getField(chrono);
-                FormatUtils.writeUnpaddedInteger(out, field.get(instant));
+                FormatUtils.appendUnpaddedInteger(appendable, field.get(instant));
             } catch (RuntimeException e) {
-                out.write('\ufffd');
+                appendable.append('\ufffd');
             }
         }
 
         public void printTo(StringBuffer buf, ReadablePartial partial, Locale locale) {
-            if (partial.isSupported(iFieldType)) {
-                try {
-                    FormatUtils.appendUnpaddedInteger(buf, partial.get(iFieldType));
-                } catch (RuntimeException e) {
-                    buf.append('\ufffd');
-                }
-            } else {
-                buf.append('\ufffd');
+            try {
+                printTo((Appendable) buf, partial, locale);
+            } catch (IOException e) {
+                // Not gonna happen.
             }
         }
 
         public void printTo(Writer out, ReadablePartial partial, Locale locale) throws IOException {
+            printTo((Appendable) out, partial, locale);
+        }
+
+        public void printTo(Appendable appendable, ReadablePartial partial, Locale locale) throws IOException {
             if (partial.isSupported(iFieldType)) {
                 try {
-                    FormatUtils.writeUnpaddedInteger(out, partial.get(iFieldType));
+                    FormatUtils.appendUnpaddedInteger(appendable, partial.get(iFieldType));
                 } catch (RuntimeException e) {
-                    out.write('\ufffd');
+                    appendable.append('\ufffd');
                 }
             } else {
-                out.write('\ufffd');
+                appendable.append('\ufffd');
             }
         }
     }
@@ -1342,45 +1399,50 @@ public class DateTimeFormatterBuilder {
                 StringBuffer buf, long instant, Chronology chrono,
                 int displayOffset, DateTimeZone displayZone, Locale locale) {
             try {
-                DateTimeField field = iFieldType.getField(chrono);
-                FormatUtils.appendPaddedInteger(buf, field.get(instant), iMinPrintedDigits);
-            } catch (RuntimeException e) {
-                appendUnknownString(buf, iMinPrintedDigits);
+                printTo((Appendable) buf, instant, chrono, displayOffset, displayZone, locale);
+            } catch (IOException e) {
+                // Not gonna happen.
             }
         }
 
         public void printTo(
                 Writer out, long instant, Chronology chrono,
                 int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+            printTo((Appendable) out, instant, chrono, displayOffset, displayZone, locale);
+        }
+
+        public void printTo(
+                Appendable appendable, long instant, Chronology chrono,
+                int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
             try {
                 DateTimeField field = iFieldType.getField(chrono);
-                FormatUtils.writePaddedInteger(out, field.get(instant), iMinPrintedDigits);
+                FormatUtils.appendPaddedInteger(appendable, field.get(instant), iMinPrintedDigits);
             } catch (RuntimeException e) {
-                printUnknownString(out, iMinPrintedDigits);
+                appendUnknownString(appendable, iMinPrintedDigits);
             }
         }
 
         public void printTo(StringBuffer buf, ReadablePartial partial, Locale locale) {
-            if (partial.isSupported(iFieldType)) {
-                try {
-                    FormatUtils.appendPaddedInteger(buf, partial.get(iFieldType), iMinPrintedDigits);
-                } catch (RuntimeException e) {
-                    appendUnknownString(buf, iMinPrintedDigits);
-                }
-            } else {
-                appendUnknownString(buf, iMinPrintedDigits);
+            try {
+                printTo((Appendable) buf, partial, locale);
+            } catch (IOException e) {
+                // Not gonna happen.
             }
         }
 
         public void printTo(Writer out, ReadablePartial partial, Locale locale) throws IOException {
+            printTo((Appendable) out, partial, locale);
+        }
+
+        public void printTo(Appendable appendable, ReadablePartial partial, Locale locale) throws IOException {
             if (partial.isSupported(iFieldType)) {
                 try {
-                    FormatUtils.writePaddedInteger(out, partial.get(iFieldType), iMinPrintedDigits);
+                    FormatUtils.appendPaddedInteger(appendable, partial.get(iFieldType), iMinPrintedDigits);
                 } catch (RuntimeException e) {
-                    printUnknownString(out, iMinPrintedDigits);
+                    appendUnknownString(appendable, iMinPrintedDigits);
                 }
             } else {
-                printUnknownString(out, iMinPrintedDigits);
+                appendUnknownString(appendable, iMinPrintedDigits);
             }
         }
     }
@@ -1392,7 +1454,7 @@ public class DateTimeFormatterBuilder {
             super(fieldType, numDigits, signed, numDigits);
         }
 
-        public int parseInto(DateTimeParserBucket bucket, String text, int position) {
+        public int parseInto(DateTimeParserBucket bucket, CharSequence text, int position) {
             int newPos = super.parseInto(bucket, text, position);
             if (newPos < 0) {
                 return newPos;
@@ -1419,7 +1481,7 @@ public class DateTimeFormatterBuilder {
 
     //-----------------------------------------------------------------------
     static class TwoDigitYear
-            implements DateTimePrinter, DateTimeParser {
+            implements InternalPrinter, InternalParser {
 
         /** The field to print/parse. */
         private final DateTimeFieldType iType;
@@ -1439,6 +1501,10 @@ public class DateTimeFormatterBuilder {
         }
 
         public int parseInto(DateTimeParserBucket bucket, String text, int position) {
+            return parseInto(bucket, (CharSequence) text, position);
+        }
+
+        public int parseInto(DateTimeParserBucket bucket, CharSequence text, int position) {
             int limit = text.length() - position;
 
             if (!iLenientParse) {
@@ -1477,9 +1543,14 @@ public class DateTimeFormatterBuilder {
                 if (hasSignChar || length != 2) {
                     int value;
                     if (length >= 9) {
-                        // Since value may exceed integer limits, use stock
-                        // parser which checks for this.
-                        value = Integer.parseInt(text.substring(position, position += length));
+                        // Since value may exceed integer limits, parse as a
+                        // long and check.
+                        long parsed = FormatUtils.parseDigits(text, position, position + length);
+                        if (parsed < Integer.MIN_VALUE || parsed > Integer.MAX_VALUE) {
+                            return ~position;
+                        }
+                        value = (int) parsed;
+                        position += length;
                     } else {
                         int i = position;
                         if (negative) {
@@ -1487,7 +1558,7 @@ public class DateTimeFormatterBuilder {
                         }
                         try {
                             value = text.charAt(i++) - '0';
-                        } catch (StringIndexOutOfBoundsException e) {
+                        } catch (IndexOutOfBoundsException e) {
                             return ~position;
                         }
                         position += length;
@@ -1544,24 +1615,28 @@ public class DateTimeFormatterBuilder {
         public void printTo(
                 StringBuffer buf, long instant, Chronology chrono,
                 int displayOffset, DateTimeZone displayZone, Locale locale) {
-            int year = getTwoDigitYear(instant, chrono);
-            if (year < 0) {
-                buf.append('\ufffd');
-                buf.append('\ufffd');
-            } else {
-                FormatUtils.appendPaddedInteger(buf, year, 2);
+            try {
+                printTo((Appendable) buf, instant, chrono, displayOffset, displayZone, locale);
+            } catch (IOException e) {
+                // Not gonna happen.
             }
         }
 
         public void printTo(
                 Writer out, long instant, Chronology chrono,
                 int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+            printTo((Appendable) out, instant, chrono, displayOffset, displayZone, locale);
+        }
+
+        public void printTo(
+                Appendable appendable, long instant, Chronology chrono,
+                int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
             int year = getTwoDigitYear(instant, chrono);
             if (year < 0) {
-                out.write('\ufffd');
-                out.write('\ufffd');
+                appendable.append('\ufffd');
+                appendable.append('\ufffd');
             } else {
-                FormatUtils.writePaddedInteger(out, year, 2);
+                FormatUtils.appendPaddedInteger(appendable, year, 2);
             }
         }
 
@@ -1578,22 +1653,24 @@ public class DateTimeFormatterBuilder {
         }
 
         public void printTo(StringBuffer buf, ReadablePartial partial, Locale locale) {
-            int year = getTwoDigitYear(partial);
-            if (year < 0) {
-                buf.append('\ufffd');
-                buf.append('\ufffd');
-            } else {
-                FormatUtils.appendPaddedInteger(buf, year, 2);
+            try {
+                printTo((Appendable) buf, partial, locale);
+            } catch (IOException e) {
+                // Not gonna happen.
             }
         }
 
         public void printTo(Writer out, ReadablePartial partial, Locale locale) throws IOException {
+            printTo((Appendable) out, partial, locale);
+        }
+
+        public void printTo(Appendable appendable, ReadablePartial partial, Locale locale) throws IOException {
             int year = getTwoDigitYear(partial);
             if (year < 0) {
-                out.write('\ufffd');
-                out.write('\ufffd');
+                appendable.append('\ufffd');
+                appendable.append('\ufffd');
             } else {
-                FormatUtils.writePaddedInteger(out, year, 2);
+                FormatUtils.appendPaddedInteger(appendable, year, 2);
             }
         }
 
@@ -1613,7 +1690,7 @@ public class DateTimeFormatterBuilder {
 
     //-----------------------------------------------------------------------
     static class TextField
-            implements DateTimePrinter, DateTimeParser {
+            implements InternalPrinter, InternalParser {
 
         private static Map cParseCache = new HashMap();
         private final DateTimeFieldType iFieldType;
@@ -1633,35 +1710,45 @@ public class DateTimeFormatterBuilder {
                 StringBuffer buf, long instant, Chronology chrono,
                 int displayOffset, DateTimeZone displayZone, Locale locale) {
             try {
-                buf.append(print(instant, chrono, locale));
-            } catch (RuntimeException e) {
-                buf.append('\ufffd');
+                printTo((Appendable) buf, instant, chrono, displayOffset, displayZone, locale);
+            } catch (IOException e) {
+                // Not gonna happen.
             }
         }
 
         public void printTo(
                 Writer out, long instant, Chronology chrono,
                 int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+            printTo((Appendable) out, instant, chrono, displayOffset, displayZone, locale);
+        }
+
+        public void printTo(
+                Appendable appendable, long instant, Chronology chrono,
+                int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
             try {
-                out.write(print(instant, chrono, locale));
+                appendable.append(print(instant, chrono, locale));
             } catch (RuntimeException e) {
-                out.write('\ufffd');
+                appendable.append('\ufffd');
             }
         }
 
         public void printTo(StringBuffer buf, ReadablePartial partial, Locale locale) {
             try {
-                buf.append(print(partial, locale));
-            } catch (RuntimeException e) {
-                buf.append('\ufffd');
+                printTo((Appendable) buf, partial, locale);
+            } catch (IOException e) {
+                // Not gonna happen.
             }
         }
 
         public void printTo(Writer out, ReadablePartial partial, Locale locale) throws IOException {
+            printTo((Appendable) out, partial, locale);
+        }
+
+        public void printTo(Appendable appendable, ReadablePartial partial, Locale locale) throws IOException {
             try {
-                out.write(print(partial, locale));
+                appendable.append(print(partial, locale));
             } catch (RuntimeException e) {
-                out.write('\ufffd');
+                appendable.append('\ufffd');
             }
         }
 
@@ -1692,20 +1779,23 @@ public class DateTimeFormatterBuilder {
         }
 
         public int parseInto(DateTimeParserBucket bucket, String text, int position) {
+            return parseInto(bucket, (CharSequence) text, position);
+        }
+
+        public int parseInto(DateTimeParserBucket bucket, CharSequence text, int position) {
             Locale locale = bucket.getLocale();
             // handle languages which might have non ASCII A-Z or punctuation
             // bug 1788282
-            Set validValues = null;
-            int maxLength = 0;
+            String[] validValues = null;
             synchronized (cParseCache) {
                 Map innerMap = (Map) cParseCache.get(locale);
                 if (innerMap == null) {
                     innerMap = new HashMap();
                     cParseCache.put(locale, innerMap);
                 }
-                Object[] array = (Object[]) innerMap.get(iFieldType);
-                if (array == null) {
-                    validValues = new HashSet(32);
+                validValues = (String[]) innerMap.get(iFieldType);
+                if (validValues == null) {
+                    Set values = new HashSet(32);
                     MutableDateTime dt = new MutableDateTime(0L, DateTimeZone.UTC);
                     Property property = dt.property(iFieldType);
                     int min = property.getMinimumValueOverall();
@@ -1713,51 +1803,72 @@ public class DateTimeFormatterBuilder {
                     if (max - min > 32) {  // protect against invalid fields
                         return ~position;
                     }
-                    maxLength = property.getMaximumTextLength(locale);
+                    int maxLength = property.getMaximumTextLength(locale);
                     for (int i = min; i <= max; i++) {
                         property.set(i);
-                        validValues.add(property.getAsShortText(locale));
-                        validValues.add(property.getAsShortText(locale).toLowerCase(locale));
-                        validValues.add(property.getAsShortText(locale).toUpperCase(locale));
-                        validValues.add(property.getAsText(locale));
-                        validValues.add(property.getAsText(locale).toLowerCase(locale));
-                        validValues.add(property.getAsText(locale).toUpperCase(locale));
+                        values.add(property.getAsShortText(locale));
+                        values.add(property.getAsShortText(locale).toLowerCase(locale));
+                        values.add(property.getAsShortText(locale).toUpperCase(locale));
+                        values.add(property.getAsText(locale));
+                        values.add(property.getAsText(locale).toLowerCase(locale));
+                        values.add(property.getAsText(locale).toUpperCase(locale));
                     }
                     if ("en".equals(locale.getLanguage()) && iFieldType == DateTimeFieldType.era()) {
                         // hack to support for parsing "BCE" and "CE" if the language is English
-                        validValues.add("BCE");
-                        validValues.add("bce");
-                        validValues.add("CE");
-                        validValues.add("ce");
+                        values.add("BCE");
+                        values.add("bce");
+                        values.add("CE");
+                        values.add("ce");
                         maxLength = 3;
                     }
-                    array = new Object[] {validValues, new Integer(maxLength)};
-                    innerMap.put(iFieldType, array);
-                } else {
-                    validValues = (Set) array[0];
-                    maxLength = ((Integer) array[1]).intValue();
+                    validValues = sortLongestFirst(values, maxLength);
+                    innerMap.put(iFieldType, validValues);
                 }
             }
-            // match the longest string first using our knowledge of the max length
-            int limit = Math.min(text.length(), position + maxLength);
-            for (int i = limit; i > position; i--) {
-                String match = text.substring(position, i);
-                if (validValues.contains(match)) {
+            // match the longest string first, comparing in place to avoid
+            // creating a substring for each candidate length
+            int limit = text.length() - position;
+            for (int i = 0; i < validValues.length; i++) {
+                String match = validValues[i];
+                if (match.length() <= limit && FormatUtils.regionMatches(text, position, match)) {
                     bucket.saveField(iFieldType, match, locale);
-                    return i;
+                    return position + match.length();
                 }
             }
             return ~position;
         }
+
+        /**
+         * Converts the set of valid values to an array ordered longest first,
+         * excluding values longer than the maximum length.
+         */
+        private static String[] sortLongestFirst(Set values, int maxLength) {
+            List list = new ArrayList(values.size());
+            for (Iterator it = values.iterator(); it.hasNext(); ) {
+                String value = (String) it.next();
+                if (value.length() > 0 && value.length() <= maxLength) {
+                    list.add(value);
+                }
+            }
+            String[] array = (String[]) list.toArray(new String[list.size()]);
+            Arrays.sort(array, new Comparator() {
+                public int compare(Object o1, Object o2) {
+                    return ((String) o2).length() - ((String) o1).length();
+                }
+            });
+            return array;
+        }
     }
 
     //-----------------------------------------------------------------------
     static class Fraction
-            implements DateTimePrinter, DateTimeParser {
+            implements InternalPrinter, InternalParser {
 
         private final DateTimeFieldType iFieldType;
         protected int iMinDigits;
         protected int iMaxDigits;
+        /** Last field used for parsing, immutable so safe to share between threads. */
+        private DateTimeField iParseField;
 
         protected Fraction(DateTimeFieldType fieldType, int minDigits, int maxDigits) {
             super();
@@ -1778,7 +1889,7 @@ public class DateTimeFormatterBuilder {
                 StringBuffer buf, long instant, Chronology chrono,
                 int displayOffset, DateTimeZone displayZone, Locale locale) {
             try {
-                printTo(buf, null, instant, chrono);
+                printTo((Appendable) buf, instant, chrono, displayOffset, displayZone, locale);
             } catch (IOException e) {
                 // Not gonna happen.
             }
@@ -1787,28 +1898,35 @@ public class DateTimeFormatterBuilder {
         public void printTo(
                 Writer out, long instant, Chronology chrono,
                 int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
-            printTo(null, out, instant, chrono);
+            printTo((Appendable) out, instant, chrono, displayOffset, displayZone, locale);
+        }
+
+        public void printTo(
+                Appendable appendable, long instant, Chronology chrono,
+                int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+            printTo(appendable, instant, chrono);
         }
 
         public void printTo(StringBuffer buf, ReadablePartial partial, Locale locale) {
-            // removed check whether field is supported, as input field is typically
-            // secondOfDay which is unsupported by TimeOfDay
-            long millis = partial.getChronology().set(partial, 0L);
             try {
-                printTo(buf, null, millis, partial.getChronology());
+                printTo((Appendable) buf, partial, locale);
             } catch (IOException e) {
                 // Not gonna happen.
             }
         }
 
         public void printTo(Writer out, ReadablePartial partial, Locale locale) throws IOException {
+            printTo((Appendable) out, partial, locale);
+        }
+
+        public void printTo(Appendable appendable, ReadablePartial partial, Locale locale) throws IOException {
             // removed check whether field is supported, as input field is typically
             // secondOfDay which is unsupported by TimeOfDay
             long millis = partial.getChronology().set(partial, 0L);
-            printTo(null, out, millis, partial.getChronology());
+            printTo(appendable, millis, partial.getChronology());
         }
 
-        protected void printTo(StringBuffer buf, Writer out, long instant, Chronology chrono)
+        protected void printTo(Appendable appendable, long instant, Chronology chrono)
             throws IOException
         {
             DateTimeField field = iFieldType.getField(chrono);
@@ -1818,114 +1936,67 @@ public class DateTimeFormatterBuilder {
             try {
                 fraction = field.remainder(instant);
             } catch (RuntimeException e) {
-                if (buf != null) {
-                    appendUnknownString(buf, minDigits);
-                } else {
-                    printUnknownString(out, minDigits);
-                }
+                appendUnknownString(appendable, minDigits);
                 return;
             }
 
             if (fraction == 0) {
-                if (buf != null) {
-                    while (--minDigits >= 0) {
-                        buf.append('0');
-                    }
-                } else {
-                    while (--minDigits >= 0) {
-                        out.write('0');
-                    }
+                while (--minDigits >= 0) {
+                    appendable.append('0');
                 }
                 return;
             }
 
-            String str;
-            long[] fractionData = getFractionData(fraction, field);
-            long scaled = fractionData[0];
-            int maxDigits = (int) fractionData[1];
-            
-            if ((scaled & 0x7fffffff) == scaled) {
-                str = Integer.toString((int) scaled);
-            } else {
-                str = Long.toString(scaled);
+            // Find the largest scale that does not overflow.
+            long rangeMillis = field.getDurationField().getUnitMillis();
+            int maxDigits = iMaxDigits;
+            long scalar = getScalar(maxDigits);
+            while (((rangeMillis * scalar) / scalar) != rangeMillis) {
+                // Overflowed: scale down.
+                scalar = getScalar(--maxDigits);
             }
+            long scaled = fraction * scalar / rangeMillis;
 
-            int length = str.length();
+            int length = FormatUtils.calculatePositiveDigitCount(scaled);
             int digits = maxDigits;
             while (length < digits) {
-                if (buf != null) {
-                    buf.append('0');
-                } else {
-                    out.write('0');
-                }
+                appendable.append('0');
                 minDigits--;
                 digits--;
             }
 
-            if (minDigits < digits) {
-                // Chop off as many trailing zero digits as necessary.
-                while (minDigits < digits) {
-                    if (length <= 1 || str.charAt(length - 1) != '0') {
-                        break;
-                    }
-                    digits--;
-                    length--;
-                }
-                if (length < str.length()) {
-                    if (buf != null) {
-                        for (int i=0; i<length; i++) {
-                            buf.append(str.charAt(i));
-                        }
-                    } else {
-                        for (int i=0; i<length; i++) {
-                            out.write(str.charAt(i));
-                        }
-                    }
-                    return;
-                }
+            // Chop off as many trailing zero digits as necessary.
+            while (minDigits < digits && length > 1 && scaled % 10 == 0) {
+                scaled /= 10;
+                digits--;
+                length--;
             }
 
-            if (buf != null) {
-                buf.append(str);
-            } else {
-                out.write(str);
-            }
+            FormatUtils.appendUnpaddedInteger(appendable, scaled);
         }
-        
-        private long[] getFractionData(long fraction, DateTimeField field) {
-            long rangeMillis = field.getDurationField().getUnitMillis();
-            long scalar;
-            int maxDigits = iMaxDigits;
-            while (true) {
-                switch (maxDigits) {
-                default: scalar = 1L; break;
-                case 1:  scalar = 10L; break;
-                case 2:  scalar = 100L; break;
-                case 3:  scalar = 1000L; break;
-                case 4:  scalar = 10000L; break;
-                case 5:  scalar = 100000L; break;
-                case 6:  scalar = 1000000L; break;
-                case 7:  scalar = 10000000L; break;
-                case 8:  scalar = 100000000L; break;
-                case 9:  scalar = 1000000000L; break;
-                case 10: scalar = 10000000000L; break;
-                case 11: scalar = 100000000000L; break;
-                case 12: scalar = 1000000000000L; break;
-                case 13: scalar = 10000000000000L; break;
-                case 14: scalar = 100000000000000L; break;
-                case 15: scalar = 1000000000000000L; break;
-                case 16: scalar = 10000000000000000L; break;
-                case 17: scalar = 100000000000000000L; break;
-                case 18: scalar = 1000000000000000000L; break;
-                }
-                if (((rangeMillis * scalar) / scalar) == rangeMillis) {
-                    break;
-                }
-                // Overflowed: scale down.
-                maxDigits--;
+
+        private static long getScalar(int digits) {
+            switch (digits) {
+            default: return 1L;
+            case 1:  return 10L;
+            case 2:  return 100L;
+            case 3:  return 1000L;
+            case 4:  return 10000L;
+            case 5:  return 100000L;
+            case 6:  return 1000000L;
+            case 7:  return 10000000L;
+            case 8:  return 100000000L;
+            case 9:  return 1000000000L;
+            case 10: return 10000000000L;
+            case 11: return 100000000000L;
+            case 12: return 1000000000000L;
+            case 13: return 10000000000000L;
+            case 14: return 100000000000000L;
+            case 15: return 1000000000000000L;
+            case 16: return 10000000000000000L;
+            case 17: return 100000000000000000L;
+            case 18: return 1000000000000000000L;
             }
-            
-            return new long[] {fraction * scalar / rangeMillis, maxDigits};
         }
 
         public int estimateParsedLength() {
@@ -1933,6 +2004,10 @@ public class DateTimeFormatterBuilder {
         }
 
         public int parseInto(DateTimeParserBucket bucket, String text, int position) {
+            return parseInto(bucket, (CharSequence) text, position);
+        }
+
+        public int parseInto(DateTimeParserBucket bucket, CharSequence text, int position) {
             DateTimeField field = iFieldType.getField(bucket.getChronology());
             
             int limit = Math.min(iMaxDigits, text.length() - position);
@@ -1961,10 +2036,15 @@ public class DateTimeFormatterBuilder {
                 return ~position;
             }
 
-            DateTimeField parseField = new PreciseDateTimeField(
-                DateTimeFieldType.millisOfSecond(),
-                MillisDurationField.INSTANCE,
-                field.getDurationField());
+            DurationField rangeField = field.getDurationField();
+            DateTimeField parseField = iParseField;
+            if (parseField == null || parseField.getRangeDurationField() != rangeField) {
+                parseField = new PreciseDateTimeField(
+                    DateTimeFieldType.millisOfSecond(),
+                    MillisDurationField.INSTANCE,
+                    rangeField);
+                iParseField = parseField;
+            }
 
             bucket.saveField(parseField, (int) value);
 
@@ -1974,7 +2054,7 @@ public class DateTimeFormatterBuilder {
 
     //-----------------------------------------------------------------------
     static class TimeZoneOffset
-            implements DateTimePrinter, DateTimeParser {
+            implements InternalPrinter, InternalParser {
 
         private final String iZeroOffsetText;
         private final boolean iShowSeparators;
@@ -2013,119 +2093,76 @@ public class DateTimeFormatterBuilder {
         public void printTo(
                 StringBuffer buf, long instant, Chronology chrono,
                 int displayOffset, DateTimeZone displayZone, Locale locale) {
-            if (displayZone == null) {
-                return;  // no zone
-            }
-            if (displayOffset == 0 && iZeroOffsetText != null) {
-                buf.append(iZeroOffsetText);
-                return;
-            }
-            if (displayOffset >= 0) {
-                buf.append('+');
-            } else {
-                buf.append('-');
-                displayOffset = -displayOffset;
-            }
-
-            int hours = displayOffset / DateTimeConstants.MILLIS_PER_HOUR;
-            FormatUtils.appendPaddedInteger(buf, hours, 2);
-            if (iMaxFields == 1) {
-                return;
-            }
-            displayOffset -= hours * (int)DateTimeConstants.MILLIS_PER_HOUR;
-            if (displayOffset == 0 && iMinFields <= 1) {
-                return;
-            }
-
-            int minutes = displayOffset / DateTimeConstants.MILLIS_PER_MINUTE;
-            if (iShowSeparators) {
-                buf.append(':');
-            }
-            FormatUtils.appendPaddedInteger(buf, minutes, 2);
-            if (iMaxFields == 2) {
-                return;
-            }
-            displayOffset -= minutes * DateTimeConstants.MILLIS_PER_MINUTE;
-            if (displayOffset == 0 && iMinFields <= 2) {
-                return;
-            }
-
-            int seconds = displayOffset / DateTimeConstants.MILLIS_PER_SECOND;
-            if (iShowSeparators) {
-                buf.append(':');
-            }
-            FormatUtils.appendPaddedInteger(buf, seconds, 2);
-            if (iMaxFields == 3) {
-                return;
-            }
-            displayOffset -= seconds * DateTimeConstants.MILLIS_PER_SECOND;
-            if (displayOffset == 0 && iMinFields <= 3) {
-                return;
-            }
-
-            if (iShowSeparators) {
-                buf.append('.');
+            try {
+                printTo((Appendable) buf, instant, chrono, displayOffset, displayZone, locale);
+            } catch (IOException e) {
+                // Not gonna happen.
             }
-            FormatUtils.appendPaddedInteger(buf, displayOffset, 3);
         }
-        
+
         public void printTo(
                 Writer out, long instant, Chronology chrono,
                 int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+            printTo((Appendable) out, instant, chrono, displayOffset, displayZone, locale);
+        }
+
+        public void printTo(
+                Appendable appendable, long instant, Chronology chrono,
+                int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
             if (displayZone == null) {
                 return;  // no zone
             }
             if (displayOffset == 0 && iZeroOffsetText != null) {
-                out.write(iZeroOffsetText);
+                appendable.append(iZeroOffsetText);
                 return;
             }
             if (displayOffset >= 0) {
-                out.write('+');
+                appendable.append('+');
             } else {
-                out.write('-');
+                appendable.append('-');
                 displayOffset = -displayOffset;
             }
 
             int hours = displayOffset / DateTimeConstants.MILLIS_PER_HOUR;
-            FormatUtils.writePaddedInteger(out, hours, 2);
+            FormatUtils.appendPaddedInteger(appendable, hours, 2);
             if (iMaxFields == 1) {
                 return;
             }
             displayOffset -= hours * (int)DateTimeConstants.MILLIS_PER_HOUR;
-            if (displayOffset == 0 && iMinFields == 1) {
+            if (displayOffset == 0 && iMinFields <= 1) {
                 return;
             }
 
             int minutes = displayOffset / DateTimeConstants.MILLIS_PER_MINUTE;
             if (iShowSeparators) {
-                out.write(':');
+                appendable.append(':');
             }
-            FormatUtils.writePaddedInteger(out, minutes, 2);
+            FormatUtils.appendPaddedInteger(appendable, minutes, 2);
             if (iMaxFields == 2) {
                 return;
             }
             displayOffset -= minutes * DateTimeConstants.MILLIS_PER_MINUTE;
-            if (displayOffset == 0 && iMinFields == 2) {
+            if (displayOffset == 0 && iMinFields <= 2) {
                 return;
             }
 
             int seconds = displayOffset / DateTimeConstants.MILLIS_PER_SECOND;
             if (iShowSeparators) {
-                out.write(':');
+                appendable.append(':');
             }
-            FormatUtils.writePaddedInteger(out, seconds, 2);
+            FormatUtils.appendPaddedInteger(appendable, seconds, 2);
             if (iMaxFields == 3) {
                 return;
             }
             displayOffset -= seconds * DateTimeConstants.MILLIS_PER_SECOND;
-            if (displayOffset == 0 && iMinFields == 3) {
+            if (displayOffset == 0 && iMinFields <= 3) {
                 return;
             }
 
             if (iShowSeparators) {
-                out.write('.');
+                appendable.append('.');
             }
-            FormatUtils.writePaddedInteger(out, displayOffset, 3);
+            FormatUtils.appendPaddedInteger(appendable, displayOffset, 3);
         }
 
         public void printTo(StringBuffer buf, ReadablePartial partial, Locale locale) {
@@ -2136,11 +2173,19 @@ public class DateTimeFormatterBuilder {
             // no zone info
         }
 
+        public void printTo(Appendable appendable, ReadablePartial partial, Locale locale) throws IOException {
+            // no zone info
+        }
+
         public int estimateParsedLength() {
             return estimatePrintedLength();
         }
 
         public int parseInto(DateTimeParserBucket bucket, String text, int position) {
+            return parseInto(bucket, (CharSequence) text, position);
+        }
+
+        public int parseInto(DateTimeParserBucket bucket, CharSequence text, int position) {
             int limit = text.length() - position;
 
             zeroOffset:
@@ -2156,8 +2201,7 @@ public class DateTimeFormatterBuilder {
                     bucket.setOffset(0);
                     return position;
                 }
-                if (text.regionMatches(true, position, iZeroOffsetText, 0,
-                                       iZeroOffsetText.length())) {
+                if (FormatUtils.regionMatchesIgnoreCase(text, position, iZeroOffsetText)) {
                     bucket.setOffset(0);
                     return position + iZeroOffsetText.length();
                 }
@@ -2316,7 +2360,7 @@ public class DateTimeFormatterBuilder {
          * Returns actual amount of digits to parse, but no more than original
          * 'amount' parameter.
          */
-        private int digitCount(String text, int position, int amount) {
+        private int digitCount(CharSequence text, int position, int amount) {
             int limit = Math.min(text.length() - position, amount);
             amount = 0;
             for (; limit > 0; limit--) {
@@ -2332,11 +2376,10 @@ public class DateTimeFormatterBuilder {
 
     //-----------------------------------------------------------------------
     static class TimeZoneName
-            implements DateTimePrinter {
+            implements InternalPrinter {
 
         static final int LONG_NAME = 0;
         static final int SHORT_NAME = 1;
-        static final int ID = 2;
 
         private final int iType;
 
@@ -2361,6 +2404,12 @@ public class DateTimeFormatterBuilder {
             out.write(print(instant - displayOffset, displayZone, locale));
         }
 
+        public void printTo(
+                Appendable appendable, long instant, Chronology chrono,
+                int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+            appendable.append(print(instant - displayOffset, displayZone, locale));
+        }
+
         private String print(long instant, DateTimeZone displayZone, Locale locale) {
             if (displayZone == null) {
                 return "";  // no zone
@@ -2370,8 +2419,6 @@ public class DateTimeFormatterBuilder {
                     return displayZone.getName(instant, locale);
                 case SHORT_NAME:
                     return displayZone.getShortName(instant, locale);
-                case ID:
-                    return displayZone.getID();
             }
             return "";
         }
@@ -2383,14 +2430,226 @@ public class DateTimeFormatterBuilder {
         public void printTo(Writer out, ReadablePartial partial, Locale locale) throws IOException {
             // no zone info
         }
+
+        public void printTo(Appendable appendable, ReadablePartial partial, Locale locale) throws IOException {
+            // no zone info
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Prints and parses the time zone id.
+     * <p>
+     * Parsing walks a trie of the available ids, built once and rebuilt only
+     * when the set of available ids changes, matching the longest id without
+     * creating any substrings.
+     */
+    static class TimeZoneId
+            implements InternalPrinter, InternalParser {
+
+        static final TimeZoneId INSTANCE = new TimeZoneId();
+
+        /** The trie of available ids. */
+        private static volatile ZoneIdTrie cTrie;
+
+        private TimeZoneId() {
+            super();
+        }
+
+        private static ZoneIdTrie getTrie() {
+            Set ids = DateTimeZone.getAvailableIDs();
+            ZoneIdTrie trie = cTrie;
+            if (trie == null || trie.iIds != ids) {
+                // building twice in a race is harmless
+                trie = new ZoneIdTrie(ids);
+                cTrie = trie;
+            }
+            return trie;
+        }
+
+        public int estimatePrintedLength() {
+            return 20;
+        }
+
+        public void printTo(
+                StringBuffer buf, long instant, Chronology chrono,
+                int displayOffset, DateTimeZone displayZone, Locale locale) {
+            buf.append(displayZone != null ? displayZone.getID() : "");
+        }
+
+        public void printTo(
+                Writer out, long instant, Chronology chrono,
+                int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+            out.write(displayZone != null ? displayZone.getID() : "");
+        }
+
+        public void printTo(
+                Appendable appendable, long instant, Chronology chrono,
+                int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+            appendable.append(displayZone != null ? displayZone.getID() : "");
+        }
+
+        public void printTo(StringBuffer buf, ReadablePartial partial, Locale locale) {
+            // no zone info
+        }
+
+        public void printTo(Writer out, ReadablePartial partial, Locale locale) throws IOException {
+            // no zone info
+        }
+
+        public void printTo(Appendable appendable, ReadablePartial partial, Locale locale) throws IOException {
+            // no zone info
+        }
+
+        public int estimateParsedLength() {
+            return getTrie().iMaxLength;
+        }
+
+        public int parseInto(DateTimeParserBucket bucket, String text, int position) {
+            return parseInto(bucket, (CharSequence) text, position);
+        }
+
+        public int parseInto(DateTimeParserBucket bucket, CharSequence text, int position) {
+            ZoneIdTrie.Node node = getTrie().iRoot;
+            ZoneIdTrie.Node matched = null;
+            int matchedEnd = position;
+            int limit = text.length();
+            int pos = position;
+            while (pos < limit) {
+                int index = Arrays.binarySearch(node.iFirstChars, text.charAt(pos));
+                if (index < 0) {
+                    break;
+                }
+                String label = node.iLabels[index];
+                int end = pos + label.length();
+                if (end > limit) {
+                    break;
+                }
+                int i = 1;
+                while (i < label.length() && text.charAt(pos + i) == label.charAt(i)) {
+                    i++;
+                }
+                if (i < label.length()) {
+                    break;
+                }
+                node = node.iChildren[index];
+                pos = end;
+                if (node.iId != null) {
+                    matched = node;
+                    matchedEnd = pos;
+                }
+            }
+            if (matched == null) {
+                return ~position;
+            }
+            bucket.setZone(matched.getZone());
+            return matchedEnd;
+        }
+    }
+
+    /**
+     * Path compressed trie of time zone ids.
+     * Each edge is labelled with one or more characters, and edges leaving
+     * a node are sorted by their first character.
+     */
+    static final class ZoneIdTrie {
+
+        /** The ids the trie was built from, used to detect a change of provider. */
+        final Set iIds;
+        /** The root node, which matches the empty string. */
+        final Node iRoot;
+        /** The length of the longest id. */
+        final int iMaxLength;
+
+        ZoneIdTrie(Set ids) {
+            iIds = ids;
+            String[] sorted = (String[]) ids.toArray(new String[ids.size()]);
+            Arrays.sort(sorted);
+            int max = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                max = Math.max(max, sorted[i].length());
+            }
+            iMaxLength = max;
+            iRoot = build(sorted, 0, sorted.length, 0);
+        }
+
+        /**
+         * Builds the node for the sorted ids from start to end, which all
+         * share the same first depth characters.
+         */
+        private static Node build(String[] ids, int start, int end, int depth) {
+            String id = null;
+            if (start < end && ids[start].length() == depth) {
+                id = ids[start++];
+            }
+            List firstChars = new ArrayList();
+            List labels = new ArrayList();
+            List children = new ArrayList();
+            int i = start;
+            while (i < end) {
+                char c = ids[i].charAt(depth);
+                int j = i + 1;
+                while (j < end && ids[j].charAt(depth) == c) {
+                    j++;
+                }
+                // sorted, so the first and last share the prefix of the group
+                String first = ids[i];
+                String last = ids[j - 1];
+                int prefix = depth + 1;
+                int max = Math.min(first.length(), last.length());
+                while (prefix < max && first.charAt(prefix) == last.charAt(prefix)) {
+                    prefix++;
+                }
+                firstChars.add(new Character(c));
+                labels.add(first.substring(depth, prefix));
+                children.add(build(ids, i, j, prefix));
+                i = j;
+            }
+            char[] chars = new char[firstChars.size()];
+            for (int k = 0; k < chars.length; k++) {
+                chars[k] = ((Character) firstChars.get(k)).charValue();
+            }
+            return new Node(id, chars,
+                (String[]) labels.toArray(new String[labels.size()]),
+                (Node[]) children.toArray(new Node[children.size()]));
+        }
+
+        static final class Node {
+            /** The id ending at this node, null if none. */
+            final String iId;
+            /** The first character of each edge, sorted. */
+            final char[] iFirstChars;
+            /** The full label of each edge. */
+            final String[] iLabels;
+            /** The node at the end of each edge. */
+            final Node[] iChildren;
+            /** The zone for the id, looked up when first parsed. */
+            private volatile DateTimeZone iZone;
+
+            Node(String id, char[] firstChars, String[] labels, Node[] children) {
+                iId = id;
+                iFirstChars = firstChars;
+                iLabels = labels;
+                iChildren = children;
+            }
+
+            DateTimeZone getZone() {
+                DateTimeZone zone = iZone;
+                if (zone == null) {
+                    zone = DateTimeZone.forID(iId);
+                    iZone = zone;
+                }
+                return zone;
+            }
+        }
     }
 
     //-----------------------------------------------------------------------
     static class Composite
-            implements DateTimePrinter, DateTimeParser {
+            implements InternalPrinter, InternalParser {
 
-        private final DateTimePrinter[] iPrinters;
-        private final DateTimeParser[] iParsers;
+        private final InternalPrinter[] iPrinters;
+        private final InternalParser[] iParsers;
 
         private final int iPrintedLengthEstimate;
         private final int iParsedLengthEstimate;
@@ -2408,12 +2667,12 @@ public class DateTimeFormatterBuilder {
                 iPrintedLengthEstimate = 0;
             } else {
                 int size = printerList.size();
-                iPrinters = new DateTimePrinter[size];
+                iPrinters = new InternalPrinter[size];
                 int printEst = 0;
                 for (int i=0; i<size; i++) {
                     DateTimePrinter printer = (DateTimePrinter) printerList.get(i);
                     printEst += printer.estimatePrintedLength();
-                    iPrinters[i] = printer;
+                    iPrinters[i] = DateTimePrinterInternalPrinter.of(printer);
                 }
                 iPrintedLengthEstimate = printEst;
             }
@@ -2423,12 +2682,12 @@ public class DateTimeFormatterBuilder {
                 iParsedLengthEstimate = 0;
             } else {
                 int size = parserList.size();
-                iParsers = new DateTimeParser[size];
+                iParsers = new InternalParser[size];
                 int parseEst = 0;
                 for (int i=0; i<size; i++) {
                     DateTimeParser parser = (DateTimeParser) parserList.get(i);
                     parseEst += parser.estimateParsedLength();
-                    iParsers[i] = parser;
+                    iParsers[i] = DateTimeParserInternalParser.of(parser);
                 }
                 iParsedLengthEstimate = parseEst;
             }
@@ -2441,7 +2700,7 @@ public class DateTimeFormatterBuilder {
         public void printTo(
                 StringBuffer buf, long instant, Chronology chrono,
                 int displayOffset, DateTimeZone displayZone, Locale locale) {
-            DateTimePrinter[] elements = iPrinters;
+            InternalPrinter[] elements = iPrinters;
             if (elements == null) {
                 throw new UnsupportedOperationException();
             }
@@ -2460,7 +2719,7 @@ public class DateTimeFormatterBuilder {
         public void printTo(
                 Writer out, long instant, Chronology chrono,
                 int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
-            DateTimePrinter[] elements = iPrinters;
+            InternalPrinter[] elements = iPrinters;
             if (elements == null) {
                 throw new UnsupportedOperationException();
             }
@@ -2477,7 +2736,7 @@ public class DateTimeFormatterBuilder {
         }
 
         public void printTo(StringBuffer buf, ReadablePartial partial, Locale locale) {
-            DateTimePrinter[] elements = iPrinters;
+            InternalPrinter[] elements = iPrinters;
             if (elements == null) {
                 throw new UnsupportedOperationException();
             }
@@ -2494,7 +2753,7 @@ public class DateTimeFormatterBuilder {
         }
 
         public void printTo(Writer out, ReadablePartial partial, Locale locale) throws IOException {
-            DateTimePrinter[] elements = iPrinters;
+            InternalPrinter[] elements = iPrinters;
             if (elements == null) {
                 throw new UnsupportedOperationException();
             }
@@ -2510,12 +2769,52 @@ public class DateTimeFormatterBuilder {
             }
         }
 
+        public void printTo(
+                Appendable appendable, long instant, Chronology chrono,
+                int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+            InternalPrinter[] elements = iPrinters;
+            if (elements == null) {
+                throw new UnsupportedOperationException();
+            }
+
+            if (locale == null) {
+                // Guard against default locale changing concurrently.
+                locale = Locale.getDefault();
+            }
+
+            int len = elements.length;
+            for (int i = 0; i < len; i++) {
+                elements[i].printTo(appendable, instant, chrono, displayOffset, displayZone, locale);
+            }
+        }
+
+        public void printTo(Appendable appendable, ReadablePartial partial, Locale locale) throws IOException {
+            InternalPrinter[] elements = iPrinters;
+            if (elements == null) {
+                throw new UnsupportedOperationException();
+            }
+
+            if (locale == null) {
+                // Guard against default locale changing concurrently.
+                locale = Locale.getDefault();
+            }
+
+            int len = elements.length;
+            for (int i=0; i<len; i++) {
+                elements[i].printTo(appendable, partial, locale);
+            }
+        }
+
         public int estimateParsedLength() {
             return iParsedLengthEstimate;
         }
 
         public int parseInto(DateTimeParserBucket bucket, String text, int position) {
-            DateTimeParser[] elements = iParsers;
+            return parseInto(bucket, (CharSequence) text, position);
+        }
+
+        public int parseInto(DateTimeParserBucket bucket, CharSequence text, int position) {
+            InternalParser[] elements = iParsers;
             if (elements == null) {
                 throw new UnsupportedOperationException();
             }
@@ -2544,6 +2843,9 @@ public class DateTimeFormatterBuilder {
             for (int i=0; i<size; i+=2) {
                 Object element = elementPairs.get(i);
                 if (element instanceof DateTimePrinter) {
+                    if (element instanceof FastNumericPrinter) {
+                        element = ((FastNumericPrinter) element).iComposite;
+                    }
                     if (element instanceof Composite) {
                         addArrayToList(printerList, ((Composite)element).iPrinters);
                     } else {
@@ -2572,26 +2874,413 @@ public class DateTimeFormatterBuilder {
     }
 
     //-----------------------------------------------------------------------
-    static class MatchingParser
-            implements DateTimeParser {
+    /**
+     * Printer for patterns made only of fixed-width numeric fields and literals,
+     * such as <code>yyyy-MM-dd'T'HH:mm:ss.SSSZZ</code>.
+     * <p>
+     * When printing with the ISO or Gregorian chronology in UTC, which is the
+     * case for almost all formatting, the date and time fields are decoded from
+     * the millisecond instant in a single call to
+     * {@link Chronology#getDateTimeFields(long, int[])}, rather than each element
+     * asking the chronology for its field separately. The digits and literals
+     * are written straight to the target. Other chronologies and partials are
+     * printed by the underlying composite.
+     * <p>
+     * This is a printer only, parsing uses the composite.
+     */
+    static class FastNumericPrinter
+            implements InternalPrinter {
+
+        private static final int DELEGATE = 0;
+        private static final int LITERAL = 1;
+        private static final int YEAR = 2;
+        private static final int YEAR_OF_ERA = 3;
+        private static final int MONTH_OF_YEAR = 4;
+        private static final int DAY_OF_MONTH = 5;
+        private static final int HOUR_OF_DAY = 6;
+        private static final int MINUTE_OF_HOUR = 7;
+        private static final int SECOND_OF_MINUTE = 8;
+        private static final int MILLIS_OF_SECOND = 9;
+        private static final int FRACTION_OF_SECOND = 10;
+
+        /** The array the fields are decoded into, one per thread. */
+        private static final ThreadLocal cFields = new ThreadLocal();
+
+        /** The composite, used for non-ISO chronologies and partials. */
+        final Composite iComposite;
+        /** The element printers, used for offsets. */
+        private final InternalPrinter[] iPrinters;
+        /** The element types. */
+        private final int[] iTypes;
+        /** The minimum printed digits of numeric elements. */
+        private final int[] iMinDigits;
+        /** The text of literal elements. */
+        private final String[] iLiterals;
+
+        /**
+         * Creates a fast printer for the composite if all the elements are
+         * supported.
+         *
+         * @param composite  the composite to examine
+         * @return the fast printer, null if the composite is not suitable
+         */
+        static FastNumericPrinter create(Composite composite) {
+            InternalPrinter[] printers = composite.iPrinters;
+            if (printers == null) {
+                return null;
+            }
+            int size = printers.length;
+            int[] types = new int[size];
+            int[] minDigits = new int[size];
+            String[] literals = new String[size];
+            int numbers = 0;
+            for (int i = 0; i < size; i++) {
+                InternalPrinter printer = printers[i];
+                if (printer instanceof NumberFormatter) {
+                    NumberFormatter number = (NumberFormatter) printer;
+                    types[i] = numberType(number.iFieldType);
+                    if (types[i] == DELEGATE) {
+                        return null;
+                    }
+                    if (number instanceof PaddedNumber) {
+                        minDigits[i] = ((PaddedNumber) number).iMinPrintedDigits;
+                    } else {
+                        minDigits[i] = 1;
+                    }
+                    numbers++;
+                } else if (printer instanceof Fraction) {
+                    Fraction fraction = (Fraction) printer;
+                    DateTimeFieldType type = fraction.iFieldType;
+                    if ((type != DateTimeFieldType.secondOfDay() && type != DateTimeFieldType.secondOfMinute())
+                            || fraction.iMinDigits < 3 || fraction.iMaxDigits < fraction.iMinDigits) {
+                        return null;
+                    }
+                    types[i] = FRACTION_OF_SECOND;
+                    minDigits[i] = fraction.iMinDigits;
+                    numbers++;
+                } else if (printer instanceof CharacterLiteral) {
+                    types[i] = LITERAL;
+                    literals[i] = String.valueOf(((CharacterLiteral) printer).iValue);
+                } else if (printer instanceof StringLiteral) {
+                    types[i] = LITERAL;
+                    literals[i] = ((StringLiteral) printer).iValue;
+                } else if (printer instanceof TimeZoneOffset) {
+                    types[i] = DELEGATE;
+                } else {
+                    return null;
+                }
+            }
+            if (numbers < 2) {
+                return null;
+            }
+            return new FastNumericPrinter(composite, types, minDigits, literals);
+        }
+
+        private static int numberType(DateTimeFieldType type) {
+            if (type == DateTimeFieldType.year()) {
+                return YEAR;
+            } else if (type == DateTimeFieldType.yearOfEra()) {
+                return YEAR_OF_ERA;
+            } else if (type == DateTimeFieldType.monthOfYear()) {
+                return MONTH_OF_YEAR;
+            } else if (type == DateTimeFieldType.dayOfMonth()) {
+                return DAY_OF_MONTH;
+            } else if (type == DateTimeFieldType.hourOfDay()) {
+                return HOUR_OF_DAY;
+            } else if (type == DateTimeFieldType.minuteOfHour()) {
+                return MINUTE_OF_HOUR;
+            } else if (type == DateTimeFieldType.secondOfMinute()) {
+                return SECOND_OF_MINUTE;
+            } else if (type == DateTimeFieldType.millisOfSecond()) {
+                return MILLIS_OF_SECOND;
+            }
+            return DELEGATE;
+        }
+
+        private FastNumericPrinter(Composite composite, int[] types, int[] minDigits,
+                                   String[] literals) {
+            super();
+            iComposite = composite;
+            iPrinters = composite.iPrinters;
+            iTypes = types;
+            iMinDigits = minDigits;
+            iLiterals = literals;
+        }
+
+        public int estimatePrintedLength() {
+            return iComposite.estimatePrintedLength();
+        }
+
+        public void printTo(
+                StringBuffer buf, long instant, Chronology chrono,
+                int displayOffset, DateTimeZone displayZone, Locale locale) {
+            try {
+                printTo((Appendable) buf, instant, chrono, displayOffset, displayZone, locale);
+            } catch (IOException e) {
+                // Not gonna happen.
+            }
+        }
+
+        public void printTo(
+                Writer out, long instant, Chronology chrono,
+                int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+            printTo((Appendable) out, instant, chrono, displayOffset, displayZone, locale);
+        }
+
+        public void printTo(
+                Appendable appendable, long instant, Chronology chrono,
+                int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+            if (!(chrono instanceof ISOChronology || chrono instanceof GregorianChronology)
+                    || chrono.getZone() != DateTimeZone.UTC) {
+                iComposite.printTo(appendable, instant, chrono, displayOffset, displayZone, locale);
+                return;
+            }
+
+            // decode into the thread's array, then copy out so that a
+            // delegate printing on this thread cannot disturb the values
+            int[] fields = (int[]) cFields.get();
+            if (fields == null) {
+                fields = new int[7];
+                cFields.set(fields);
+            }
+            chrono.getDateTimeFields(instant, fields);
+            int year = fields[0];
+            int month = fields[1];
+            int day = fields[2];
+            int hour = fields[3];
+            int minute = fields[4];
+            int second = fields[5];
+            int millis = fields[6];
+            int[] types = iTypes;
+            int[] minDigits = iMinDigits;
+            for (int i = 0; i < types.length; i++) {
+                switch (types[i]) {
+                    case LITERAL:
+                        appendable.append(iLiterals[i]);
+                        break;
+                    case YEAR:
+                        FormatUtils.appendPaddedInteger(appendable, year, minDigits[i]);
+                        break;
+                    case YEAR_OF_ERA:
+                        FormatUtils.appendPaddedInteger(appendable, year <= 0 ? 1 - year : year, minDigits[i]);
+                        break;
+                    case MONTH_OF_YEAR:
+                        FormatUtils.appendPaddedInteger(appendable, month, minDigits[i]);
+                        break;
+                    case DAY_OF_MONTH:
+                        FormatUtils.appendPaddedInteger(appendable, day, minDigits[i]);
+                        break;
+                    case HOUR_OF_DAY:
+                        FormatUtils.appendPaddedInteger(appendable, hour, minDigits[i]);
+                        break;
+                    case MINUTE_OF_HOUR:
+                        FormatUtils.appendPaddedInteger(appendable, minute, minDigits[i]);
+                        break;
+                    case SECOND_OF_MINUTE:
+                        FormatUtils.appendPaddedInteger(appendable, second, minDigits[i]);
+                        break;
+                    case MILLIS_OF_SECOND:
+                        FormatUtils.appendPaddedInteger(appendable, millis, minDigits[i]);
+                        break;
+                    case FRACTION_OF_SECOND:
+                        // the fraction is the millis, with trailing zeros up to the minimum
+                        FormatUtils.appendPaddedInteger(appendable, millis, 3);
+                        for (int j = minDigits[i] - 3; j > 0; j--) {
+                            appendable.append('0');
+                        }
+                        break;
+                    default:
+                        iPrinters[i].printTo(appendable, instant, chrono, displayOffset, displayZone, locale);
+                        break;
+                }
+            }
+        }
+
+        public void printTo(StringBuffer buf, ReadablePartial partial, Locale locale) {
+            iComposite.printTo(buf, partial, locale);
+        }
+
+        public void printTo(Writer out, ReadablePartial partial, Locale locale) throws IOException {
+            iComposite.printTo(out, partial, locale);
+        }
+
+        public void printTo(Appendable appendable, ReadablePartial partial, Locale locale) throws IOException {
+            iComposite.printTo(appendable, partial, locale);
+        }
+    }
 
-        private final DateTimeParser[] iParsers;
+    //-----------------------------------------------------------------------
+    /**
+     * Parses using the longest matching of several alternatives.
+     * <p>
+     * The alternatives are compiled into a dispatch table keyed on the next
+     * ASCII character, so that only the alternatives that can match that
+     * character are attempted. An alternative whose possible first characters
+     * cannot be determined is always attempted.
+     */
+    static class MatchingParser
+            implements InternalParser {
+
+        /** The size of the dispatch table, covering ASCII. */
+        private static final int DISPATCH_SIZE = 128;
+        private static final InternalParser[] NO_PARSERS = new InternalParser[0];
+
+        /** The alternatives, up to the first null. */
+        private final InternalParser[] iParsers;
+        /** Whether a null alternative allowed an empty match. */
+        private final boolean iOptional;
+        /** The alternatives to attempt by next character, null if not compiled. */
+        private final InternalParser[][] iDispatch;
+        /** The alternatives to attempt at the end of the text. */
+        private final InternalParser[] iAtEnd;
+        /** The characters a match can start with, null if unknown. */
+        private final boolean[] iFirstChars;
         private final int iParsedLengthEstimate;
 
         MatchingParser(DateTimeParser[] parsers) {
             super();
-            iParsers = parsers;
+            int length = 0;
+            while (length < parsers.length && parsers[length] != null) {
+                length++;
+            }
+            iParsers = new InternalParser[length];
+            iOptional = length < parsers.length;
             int est = 0;
-            for (int i=parsers.length; --i>=0 ;) {
-                DateTimeParser parser = parsers[i];
-                if (parser != null) {
-                    int len = parser.estimateParsedLength();
-                    if (len > est) {
-                        est = len;
-                    }
+            for (int i = 0; i < length; i++) {
+                int len = parsers[i].estimateParsedLength();
+                if (len > est) {
+                    est = len;
                 }
+                iParsers[i] = DateTimeParserInternalParser.of(parsers[i]);
             }
             iParsedLengthEstimate = est;
+
+            boolean[][] firstChars = new boolean[length][];
+            boolean known = false;
+            boolean unknown = false;
+            for (int i = 0; i < length; i++) {
+                firstChars[i] = firstChars(iParsers[i]);
+                known |= firstChars[i] != null;
+                unknown |= firstChars[i] == null;
+            }
+            if (known) {
+                iDispatch = new InternalParser[DISPATCH_SIZE][];
+                for (int c = 0; c < DISPATCH_SIZE; c++) {
+                    InternalParser[] list = select(firstChars, c);
+                    // share identical lists between characters
+                    for (int d = 0; d < c; d++) {
+                        if (Arrays.equals(iDispatch[d], list)) {
+                            list = iDispatch[d];
+                            break;
+                        }
+                    }
+                    iDispatch[c] = list;
+                }
+                iAtEnd = select(firstChars, -1);
+            } else {
+                iDispatch = null;
+                iAtEnd = iParsers;
+            }
+            if (unknown || iOptional || length == 0) {
+                iFirstChars = null;
+            } else {
+                iFirstChars = new boolean[DISPATCH_SIZE];
+                for (int c = 0; c < DISPATCH_SIZE; c++) {
+                    iFirstChars[c] = iDispatch[c].length > 0;
+                }
+            }
+        }
+
+        /**
+         * Selects the alternatives to attempt for a character, in order.
+         *
+         * @param firstChars  the first characters of each alternative
+         * @param c  the character, -1 for the end of the text
+         * @return the alternatives, not null
+         */
+        private InternalParser[] select(boolean[][] firstChars, int c) {
+            List list = new ArrayList();
+            for (int i = 0; i < firstChars.length; i++) {
+                if (firstChars[i] == null || (c >= 0 && firstChars[i][c])) {
+                    list.add(iParsers[i]);
+                }
+            }
+            if (list.isEmpty()) {
+                return NO_PARSERS;
+            }
+            return (InternalParser[]) list.toArray(new InternalParser[list.size()]);
+        }
+
+        /**
+         * Determines the ASCII characters that a successful parse can start with.
+         * <p>
+         * The parser must fail at the start position on any other ASCII
+         * character. Non-ASCII characters are never restricted.
+         *
+         * @param parser  the parser to analyse
+         * @return the characters indexed by value, null if unknown
+         */
+        static boolean[] firstChars(InternalParser parser) {
+            if (parser instanceof CharacterLiteral) {
+                return literalChars(((CharacterLiteral) parser).iValue);
+            }
+            if (parser instanceof StringLiteral) {
+                String value = ((StringLiteral) parser).iValue;
+                return value.length() == 0 ? null : literalChars(value.charAt(0));
+            }
+            if (parser instanceof NumberFormatter) {
+                return numberChars(((NumberFormatter) parser).iSigned);
+            }
+            if (parser instanceof TwoDigitYear) {
+                return numberChars(((TwoDigitYear) parser).iLenientParse);
+            }
+            if (parser instanceof Fraction) {
+                return numberChars(false);
+            }
+            if (parser instanceof TimeZoneOffset) {
+                String zeroOffsetText = ((TimeZoneOffset) parser).iZeroOffsetText;
+                if (zeroOffsetText == null) {
+                    return signChars(new boolean[DISPATCH_SIZE]);
+                }
+                if (zeroOffsetText.length() == 0) {
+                    return null;
+                }
+                boolean[] chars = literalChars(zeroOffsetText.charAt(0));
+                return chars == null ? null : signChars(chars);
+            }
+            if (parser instanceof Composite) {
+                InternalParser[] parsers = ((Composite) parser).iParsers;
+                return parsers == null || parsers.length == 0 ? null : firstChars(parsers[0]);
+            }
+            if (parser instanceof MatchingParser) {
+                return ((MatchingParser) parser).iFirstChars;
+            }
+            return null;
+        }
+
+        private static boolean[] literalChars(char c) {
+            if (c >= DISPATCH_SIZE) {
+                // case insensitive matching can map to ASCII
+                return null;
+            }
+            boolean[] chars = new boolean[DISPATCH_SIZE];
+            chars[Character.toUpperCase(c)] = true;
+            chars[Character.toLowerCase(c)] = true;
+            return chars;
+        }
+
+        private static boolean[] numberChars(boolean signed) {
+            boolean[] chars = new boolean[DISPATCH_SIZE];
+            for (char c = '0'; c <= '9'; c++) {
+                chars[c] = true;
+            }
+            return signed ? signChars(chars) : chars;
+        }
+
+        private static boolean[] signChars(boolean[] chars) {
+            chars['+'] = true;
+            chars['-'] = true;
+            return chars;
         }
 
         public int estimateParsedLength() {
@@ -2599,11 +3288,26 @@ public class DateTimeFormatterBuilder {
         }
 
         public int parseInto(DateTimeParserBucket bucket, String text, int position) {
-            DateTimeParser[] parsers = iParsers;
+            return parseInto(bucket, (CharSequence) text, position);
+        }
+
+        public int parseInto(DateTimeParserBucket bucket, CharSequence text, int position) {
+            InternalParser[] parsers;
+            if (position >= text.length()) {
+                parsers = iAtEnd;
+            } else if (iDispatch == null) {
+                parsers = iParsers;
+            } else {
+                char c = text.charAt(position);
+                parsers = (c < DISPATCH_SIZE ? iDispatch[c] : iParsers);
+            }
             int length = parsers.length;
+            if (length == 0) {
+                // All alternatives would fail at this position.
+                return iOptional ? position : ~position;
+            }
 
             final Object originalState = bucket.saveState();
-            boolean isOptional = false;
 
             int bestValidPos = position;
             Object bestValidState = null;
@@ -2611,20 +3315,11 @@ public class DateTimeFormatterBuilder {
             int bestInvalidPos = position;
 
             for (int i=0; i<length; i++) {
-                DateTimeParser parser = parsers[i];
-                if (parser == null) {
-                    // The empty parser wins only if nothing is better.
-                    if (bestValidPos <= position) {
-                        return position;
-                    }
-                    isOptional = true;
-                    break;
-                }
+                InternalParser parser = parsers[i];
                 int parsePos = parser.parseInto(bucket, text, position);
                 if (parsePos >= position) {
                     if (parsePos > bestValidPos) {
-                        if (parsePos >= text.length() ||
-                            (i + 1) >= length || parsers[i + 1] == null) {
+                        if (parsePos >= text.length() || (i + 1) >= length) {
 
                             // Completely parsed text or no more parsers to
                             // check. Skip the rest.
@@ -2644,7 +3339,7 @@ public class DateTimeFormatterBuilder {
                 bucket.restoreState(originalState);
             }
 
-            if (bestValidPos > position || (bestValidPos == position && isOptional)) {
+            if (bestValidPos > position || (bestValidPos == position && iOptional)) {
                 // Restore the state to the best valid parse.
                 if (bestValidState != null) {
                     bucket.restoreState(bestValidState);
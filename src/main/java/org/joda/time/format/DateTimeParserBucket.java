@@ -45,6 +45,11 @@ import org.joda.time.IllegalFieldValueException;
  * dayOfMonth, dayOfYear. When computeMillis is called, the fields are set in
  * this order: monthOfYear, dayOfYear, dayOfMonth, dayOfWeek.
  * <p>
+ * A bucket may be reused for many parses by calling {@link #reset()}, or by
+ * using {@link #parseMillis(DateTimeParser, CharSequence)} which resets
+ * the bucket first. The field slots are retained across a reset, allowing
+ * steady-state parsing without creating objects.
+ * <p>
  * DateTimeParserBucket is mutable and not thread-safe.
  *
  * @author Brian S O'Neill
@@ -56,6 +61,10 @@ public class DateTimeParserBucket {
     /** The chronology to use for parsing. */
     private final Chronology iChrono;
     private final long iMillis;
+    /** The initial zone, restored on reset. */
+    private final DateTimeZone iDefaultZone;
+    /** The initial pivot year, restored on reset. */
+    private final Integer iDefaultPivotYear;
     
     // TimeZone to switch to in computeMillis. If null, use offset.
     private DateTimeZone iZone;
@@ -99,7 +108,114 @@ public class DateTimeParserBucket {
         iChrono = chrono.withUTC();
         iLocale = (locale == null ? Locale.getDefault() : locale);
         setZone(chrono.getZone());
+        iDefaultZone = iZone;
         iPivotYear = pivotYear;
+        iDefaultPivotYear = pivotYear;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Resets the state back to that when the object was constructed.
+     * <p>
+     * This resets the state of the bucket, allowing a single bucket to be
+     * re-used for many parses. The allocated field slots are kept for reuse.
+     * The bucket must not be shared between threads.
+     *
+     * @since 2.0
+     */
+    public void reset() {
+        iZone = iDefaultZone;
+        iOffset = 0;
+        iPivotYear = iDefaultPivotYear;
+        iSavedFieldsCount = 0;
+        iSavedFieldsShared = false;
+        iSavedState = null;
+    }
+
+    /**
+     * Parses a datetime from the given text, returning the number of
+     * milliseconds since the epoch, 1970-01-01T00:00:00Z.
+     * <p>
+     * This parses the text using the parser into this bucket.
+     * The bucket is reset before parsing begins, allowing the bucket to be
+     * re-used between parses. The whole of the text must be matched.
+     * <p>
+     * The parser is typically obtained from
+     * {@link DateTimeFormatter#getParser()}, in which case the bucket should
+     * be created with the same chronology, locale and pivot year as the
+     * formatter.
+     *
+     * @param parser  the parser to use, see {@link DateTimeFormatter#getParser()}
+     * @param text  text to parse, not null
+     * @return parsed value expressed in milliseconds since the epoch
+     * @throws IllegalArgumentException if the text to parse is invalid
+     * @since 2.0
+     */
+    public long parseMillis(DateTimeParser parser, CharSequence text) {
+        reset();
+        return doParseMillis(DateTimeParserInternalParser.of(parser), text);
+    }
+
+    /**
+     * Parses the whole of the text into this bucket without resetting it.
+     *
+     * @param parser  the parser to use, not null
+     * @param text  text to parse, not null
+     * @return parsed value expressed in milliseconds since the epoch
+     * @throws IllegalArgumentException if the text to parse is invalid
+     */
+    long doParseMillis(InternalParser parser, CharSequence text) {
+        int newPos = doParse(parser, text);
+        if (newPos >= 0) {
+            return computeMillis(true, text);
+        }
+        throw new IllegalArgumentException(FormatUtils.createErrorMessage(text.toString(), ~newPos));
+    }
+
+    /**
+     * Parses the whole of the text into this bucket without resetting it,
+     * reporting a mismatch by position rather than by exception.
+     * <p>
+     * The parsed fields are not checked until {@link #computeMillis(boolean)}.
+     *
+     * @param parser  the parser to use, not null
+     * @param text  text to parse, not null
+     * @return the length of the text if it was matched, otherwise the
+     *  complement of the position of the error
+     */
+    int doParse(InternalParser parser, CharSequence text) {
+        int newPos = parser.parseInto(this, text, 0);
+        if (newPos >= 0 && newPos < text.length()) {
+            newPos = ~newPos;
+        }
+        return newPos;
+    }
+
+    /**
+     * Checks that each saved field value is within the overall range of
+     * its field, without throwing an exception.
+     * <p>
+     * This allows most invalid values to be rejected before calling
+     * {@link #computeMillis(boolean)}, which would throw an exception.
+     * Passing the check does not guarantee that the values are valid,
+     * as the range of a field may depend on the other fields.
+     * Fields that are lenient are not checked.
+     *
+     * @return false if a saved value is definitely out of range
+     */
+    boolean checkSavedFields() {
+        SavedField[] savedFields = iSavedFields;
+        for (int i = 0, count = iSavedFieldsCount; i < count; i++) {
+            SavedField savedField = savedFields[i];
+            DateTimeField field = savedField.iField;
+            if (savedField.iText == null && field.isLenient() == false) {
+                int value = savedField.iValue;
+                if (value < field.getMinimumValue() || value > field.getMaximumValue()) {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
     //-----------------------------------------------------------------------
@@ -194,7 +310,7 @@ public class DateTimeParserBucket {
      * @param value  the value
      */
     public void saveField(DateTimeField field, int value) {
-        saveField(new SavedField(field, value));
+        obtainSaveField().init(field, value);
     }
     
     /**
@@ -204,7 +320,7 @@ public class DateTimeParserBucket {
      * @param value  the value
      */
     public void saveField(DateTimeFieldType fieldType, int value) {
-        saveField(new SavedField(fieldType.getField(iChrono), value));
+        obtainSaveField().init(fieldType.getField(iChrono), value);
     }
     
     /**
@@ -215,10 +331,14 @@ public class DateTimeParserBucket {
      * @param locale  the locale to use
      */
     public void saveField(DateTimeFieldType fieldType, String text, Locale locale) {
-        saveField(new SavedField(fieldType.getField(iChrono), text, locale));
+        obtainSaveField().init(fieldType.getField(iChrono), text, locale);
     }
     
-    private void saveField(SavedField field) {
+    /**
+     * Obtains the next saved field slot, reusing a previously allocated
+     * slot where it is not referenced by any saved state.
+     */
+    private SavedField obtainSaveField() {
         SavedField[] savedFields = iSavedFields;
         int savedFieldsCount = iSavedFieldsCount;
         
@@ -232,8 +352,12 @@ public class DateTimeParserBucket {
         }
         
         iSavedState = null;
-        savedFields[savedFieldsCount] = field;
+        SavedField saved = savedFields[savedFieldsCount];
+        if (saved == null) {
+            saved = savedFields[savedFieldsCount] = new SavedField();
+        }
         iSavedFieldsCount = savedFieldsCount + 1;
+        return saved;
     }
     
     /**
@@ -276,7 +400,7 @@ public class DateTimeParserBucket {
      * @throws IllegalArgumentException if any field is out of range
      */
     public long computeMillis() {
-        return computeMillis(false, null);
+        return computeMillis(false, (String) null);
     }
     
     /**
@@ -288,7 +412,7 @@ public class DateTimeParserBucket {
      * @throws IllegalArgumentException if any field is out of range
      */
     public long computeMillis(boolean resetFields) {
-        return computeMillis(resetFields, null);
+        return computeMillis(resetFields, (String) null);
     }
 
     /**
@@ -302,6 +426,20 @@ public class DateTimeParserBucket {
      * @since 1.3
      */
     public long computeMillis(boolean resetFields, String text) {
+        return computeMillis(resetFields, (CharSequence) text);
+    }
+
+    /**
+     * Computes the parsed datetime by setting the saved fields.
+     * This method is idempotent, but it is not thread-safe.
+     *
+     * @param resetFields false by default, but when true, unsaved field values are cleared
+     * @param text optional text being parsed, to be included in any error message
+     * @return milliseconds since 1970-01-01T00:00:00Z
+     * @throws IllegalArgumentException if any field is out of range
+     * @since 2.0
+     */
+    long computeMillis(boolean resetFields, CharSequence text) {
         SavedField[] savedFields = iSavedFields;
         int count = iSavedFieldsCount;
         if (iSavedFieldsShared) {
@@ -405,19 +543,22 @@ public class DateTimeParserBucket {
     }
     
     static class SavedField implements Comparable {
-        final DateTimeField iField;
-        final int iValue;
-        final String iText;
-        final Locale iLocale;
+        DateTimeField iField;
+        int iValue;
+        String iText;
+        Locale iLocale;
+        
+        SavedField() {
+        }
         
-        SavedField(DateTimeField field, int value) {
+        void init(DateTimeField field, int value) {
             iField = field;
             iValue = value;
             iText = null;
             iLocale = null;
         }
         
-        SavedField(DateTimeField field, String text, Locale locale) {
+        void init(DateTimeField field, String text, Locale locale) {
             iField = field;
             iValue = 0;
             iText = text;
@@ -0,0 +1,82 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.format;
+
+/**
+ * Adapts a <code>DateTimeParser</code> supplied by an application to the
+ * internal <code>CharSequence</code> based parser interface.
+ * <p>
+ * Text other than a <code>String</code> is converted to a string before
+ * being passed to the underlying parser.
+ * <p>
+ * DateTimeParserInternalParser is thread-safe and immutable if the
+ * underlying parser is.
+ *
+ * @since 2.0
+ */
+class DateTimeParserInternalParser implements InternalParser {
+
+    /** The underlying parser. */
+    private final DateTimeParser iUnderlying;
+
+    /**
+     * Converts a parser to the internal interface, wrapping it if necessary.
+     *
+     * @param underlying  the parser to convert, null returns null
+     * @return the internal parser, null if the parser was null
+     */
+    static InternalParser of(DateTimeParser underlying) {
+        if (underlying instanceof InternalParser) {
+            return (InternalParser) underlying;
+        }
+        if (underlying == null) {
+            return null;
+        }
+        return new DateTimeParserInternalParser(underlying);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param underlying  the parser to wrap, not null
+     */
+    private DateTimeParserInternalParser(DateTimeParser underlying) {
+        super();
+        iUnderlying = underlying;
+    }
+
+    /**
+     * Gets the wrapped parser.
+     *
+     * @return the underlying parser, not null
+     */
+    DateTimeParser getUnderlying() {
+        return iUnderlying;
+    }
+
+    public int estimateParsedLength() {
+        return iUnderlying.estimateParsedLength();
+    }
+
+    public int parseInto(DateTimeParserBucket bucket, String text, int position) {
+        return iUnderlying.parseInto(bucket, text, position);
+    }
+
+    public int parseInto(DateTimeParserBucket bucket, CharSequence text, int position) {
+        return iUnderlying.parseInto(bucket, text.toString(), position);
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.format;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTimeZone;
+import org.joda.time.ReadablePartial;
+
+/**
+ * Adapts a <code>DateTimePrinter</code> supplied by an application to the
+ * internal <code>Appendable</code> based printer interface.
+ * <p>
+ * Output for an <code>Appendable</code> other than <code>StringBuffer</code>
+ * or <code>Writer</code> is printed into a temporary buffer first.
+ * <p>
+ * DateTimePrinterInternalPrinter is thread-safe and immutable if the
+ * underlying printer is.
+ *
+ * @since 2.0
+ */
+class DateTimePrinterInternalPrinter implements InternalPrinter {
+
+    /** The underlying printer. */
+    private final DateTimePrinter iUnderlying;
+
+    /**
+     * Converts a printer to the internal interface, wrapping it if necessary.
+     *
+     * @param underlying  the printer to convert, null returns null
+     * @return the internal printer, null if the printer was null
+     */
+    static InternalPrinter of(DateTimePrinter underlying) {
+        if (underlying instanceof InternalPrinter) {
+            return (InternalPrinter) underlying;
+        }
+        if (underlying == null) {
+            return null;
+        }
+        return new DateTimePrinterInternalPrinter(underlying);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param underlying  the printer to wrap, not null
+     */
+    private DateTimePrinterInternalPrinter(DateTimePrinter underlying) {
+        super();
+        iUnderlying = underlying;
+    }
+
+    /**
+     * Gets the wrapped printer.
+     *
+     * @return the underlying printer, not null
+     */
+    DateTimePrinter getUnderlying() {
+        return iUnderlying;
+    }
+
+    public int estimatePrintedLength() {
+        return iUnderlying.estimatePrintedLength();
+    }
+
+    public void printTo(
+            StringBuffer buf, long instant, Chronology chrono,
+            int displayOffset, DateTimeZone displayZone, Locale locale) {
+        iUnderlying.printTo(buf, instant, chrono, displayOffset, displayZone, locale);
+    }
+
+    public void printTo(
+            Writer out, long instant, Chronology chrono,
+            int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+        iUnderlying.printTo(out, instant, chrono, displayOffset, displayZone, locale);
+    }
+
+    public void printTo(
+            Appendable appendable, long instant, Chronology chrono,
+            int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+        if (appendable instanceof StringBuffer) {
+            iUnderlying.printTo((StringBuffer) appendable, instant, chrono, displayOffset, displayZone, locale);
+        } else if (appendable instanceof Writer) {
+            iUnderlying.printTo((Writer) appendable, instant, chrono, displayOffset, displayZone, locale);
+        } else {
+            StringBuffer buf = new StringBuffer(estimatePrintedLength());
+            iUnderlying.printTo(buf, instant, chrono, displayOffset, displayZone, locale);
+            appendable.append(buf);
+        }
+    }
+
+    public void printTo(StringBuffer buf, ReadablePartial partial, Locale locale) {
+        iUnderlying.printTo(buf, partial, locale);
+    }
+
+    public void printTo(Writer out, ReadablePartial partial, Locale locale) throws IOException {
+        iUnderlying.printTo(out, partial, locale);
+    }
+
+    public void printTo(Appendable appendable, ReadablePartial partial, Locale locale) throws IOException {
+        if (appendable instanceof StringBuffer) {
+            iUnderlying.printTo((StringBuffer) appendable, partial, locale);
+        } else if (appendable instanceof Writer) {
+            iUnderlying.printTo((Writer) appendable, partial, locale);
+        } else {
+            StringBuffer buf = new StringBuffer(estimatePrintedLength());
+            iUnderlying.printTo(buf, partial, locale);
+            appendable.append(buf);
+        }
+    }
+
+}
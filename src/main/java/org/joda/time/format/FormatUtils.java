@@ -30,6 +30,16 @@ public class FormatUtils {
 
     private static final double LOG_10 = Math.log(10);
 
+    /** Powers of ten that fit in a long, used to print digits without allocation. */
+    private static final long[] POWERS_OF_TEN = new long[19];
+    static {
+        long value = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = value;
+            value *= 10;
+        }
+    }
+
     /**
      * Restricted constructor.
      */
@@ -328,6 +338,166 @@ public class FormatUtils {
         }
     }
 
+    /**
+     * Converts an integer to a string, prepended with a variable amount of '0'
+     * pad characters, and appends it to the given appendable.
+     *
+     * <p>This method is optimized for converting small values to strings,
+     * and does not allocate any objects.
+     *
+     * @param appendable receives integer converted to a string
+     * @param value value to convert to a string
+     * @param size minumum amount of digits to append
+     * @throws IOException if the appendable throws it
+     * @since 2.0
+     */
+    public static void appendPaddedInteger(Appendable appendable, int value, int size)
+        throws IOException
+    {
+        if (value < 0) {
+            if (value == Integer.MIN_VALUE) {
+                appendPaddedInteger(appendable, (long) value, size);
+                return;
+            }
+            appendable.append('-');
+            value = -value;
+        }
+        int digits;
+        if (value < 10) {
+            digits = 1;
+        } else if (value < 100) {
+            digits = 2;
+        } else if (value < 1000) {
+            digits = 3;
+        } else if (value < 10000) {
+            digits = 4;
+        } else {
+            digits = calculatePositiveDigitCount(value);
+        }
+        for (; size > digits; size--) {
+            appendable.append('0');
+        }
+        if (digits <= 2) {
+            appendDigits(appendable, value, digits);
+            return;
+        }
+        for (int i = digits - 1; i >= 0; i--) {
+            int power = (int) POWERS_OF_TEN[i];
+            int d = value / power;
+            appendable.append((char) (d + '0'));
+            value -= d * power;
+        }
+    }
+
+    /**
+     * Converts an integer to a string, prepended with a variable amount of '0'
+     * pad characters, and appends it to the given appendable.
+     *
+     * <p>This method is optimized for converting small values to strings,
+     * and does not allocate any objects.
+     *
+     * @param appendable receives integer converted to a string
+     * @param value value to convert to a string
+     * @param size minumum amount of digits to append
+     * @throws IOException if the appendable throws it
+     * @since 2.0
+     */
+    public static void appendPaddedInteger(Appendable appendable, long value, int size)
+        throws IOException
+    {
+        if (value < 0) {
+            appendable.append('-');
+            if (value != Long.MIN_VALUE) {
+                value = -value;
+            } else {
+                for (; size > 19; size--) {
+                    appendable.append('0');
+                }
+                appendable.append("9223372036854775808");
+                return;
+            }
+        }
+        int digits = calculatePositiveDigitCount(value);
+        for (; size > digits; size--) {
+            appendable.append('0');
+        }
+        appendDigits(appendable, value, digits);
+    }
+
+    /**
+     * Converts an integer to a string, and appends it to the given appendable.
+     *
+     * <p>This method is optimized for converting small values to strings,
+     * and does not allocate any objects.
+     *
+     * @param appendable receives integer converted to a string
+     * @param value value to convert to a string
+     * @throws IOException if the appendable throws it
+     * @since 2.0
+     */
+    public static void appendUnpaddedInteger(Appendable appendable, int value)
+        throws IOException
+    {
+        appendPaddedInteger(appendable, (long) value, 1);
+    }
+
+    /**
+     * Converts an integer to a string, and appends it to the given appendable.
+     *
+     * <p>This method is optimized for converting small values to strings,
+     * and does not allocate any objects.
+     *
+     * @param appendable receives integer converted to a string
+     * @param value value to convert to a string
+     * @throws IOException if the appendable throws it
+     * @since 2.0
+     */
+    public static void appendUnpaddedInteger(Appendable appendable, long value)
+        throws IOException
+    {
+        appendPaddedInteger(appendable, value, 1);
+    }
+
+    /**
+     * Calculates the number of decimal digits for the given non-negative value.
+     * Unlike {@link #calculateDigitCount(long)}, this is exact for all values.
+     */
+    static int calculatePositiveDigitCount(long value) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Appends exactly the specified number of digits of a non-negative value.
+     */
+    private static void appendDigits(Appendable appendable, long value, int digits)
+        throws IOException
+    {
+        if (value < 100 && digits <= 2) {
+            int intValue = (int) value;
+            if (digits == 2) {
+                // Calculate value div/mod by 10 without using two expensive
+                // division operations. (2 ^ 27) / 10 = 13421772. Add one to
+                // value to correct rounding error.
+                int d = ((intValue + 1) * 13421772) >> 27;
+                appendable.append((char) (d + '0'));
+                // Append remainder by calculating (value - d * 10).
+                intValue = intValue - (d << 3) - (d << 1);
+            }
+            appendable.append((char) (intValue + '0'));
+            return;
+        }
+        for (int i = digits - 1; i >= 0; i--) {
+            long power = POWERS_OF_TEN[i];
+            int d = (int) (value / power);
+            appendable.append((char) (d + '0'));
+            value -= d * power;
+        }
+    }
+
     /**
      * Calculates the number of decimal digits for the given value,
      * including the sign.
@@ -348,11 +518,89 @@ public class FormatUtils {
                 ((int)(Math.log(value) / LOG_10) + 1)))));
     }
 
-    static int parseTwoDigits(String text, int position) {
+    static int parseTwoDigits(CharSequence text, int position) {
         int value = text.charAt(position) - '0';
         return ((value << 3) + (value << 1)) + text.charAt(position + 1) - '0';
     }
 
+    /**
+     * Parses a run of digits, with an optional leading minus sign, that has
+     * already been checked, without creating any objects.
+     * <p>
+     * Values beyond the integer limits are not fully accumulated, so any
+     * number of digits can be passed without the result overflowing.
+     *
+     * @param text  the text to parse
+     * @param start  the index of the sign or first digit
+     * @param end  the index after the last digit
+     * @return the value, outside the integer range if the digits are
+     */
+    static long parseDigits(CharSequence text, int start, int end) {
+        boolean negative = text.charAt(start) == '-';
+        int i = (negative ? start + 1 : start);
+        long value = 0;
+        while (i < end && value <= Integer.MAX_VALUE) {
+            value = value * 10 + (text.charAt(i++) - '0');
+        }
+        if (i < end) {
+            // more digits remain, so the magnitude is at least ten times the limit
+            value = Long.MAX_VALUE;
+        }
+        return (negative ? -value : value);
+    }
+
+    /**
+     * Checks if the text at the given position matches the string exactly.
+     * Equivalent to <code>String.regionMatches</code> but works on any
+     * <code>CharSequence</code>.
+     *
+     * @param text  the text to check
+     * @param position  the position in the text to compare from
+     * @param str  the string to match
+     * @return true if the region matches
+     */
+    static boolean regionMatches(CharSequence text, int position, String str) {
+        int len = str.length();
+        if (position < 0 || position > text.length() - len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (text.charAt(position + i) != str.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the text at the given position matches the string ignoring case.
+     * Equivalent to <code>String.regionMatches(true, ...)</code> but works on
+     * any <code>CharSequence</code>.
+     *
+     * @param text  the text to check
+     * @param position  the position in the text to compare from
+     * @param str  the string to match
+     * @return true if the region matches
+     */
+    static boolean regionMatchesIgnoreCase(CharSequence text, int position, String str) {
+        int len = str.length();
+        if (position < 0 || position > text.length() - len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            char a = text.charAt(position + i);
+            char b = str.charAt(i);
+            if (a != b) {
+                a = Character.toUpperCase(a);
+                b = Character.toUpperCase(b);
+                if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     static String createErrorMessage(final String text, final int errorPos) {
         int sampleLen = errorPos + 32;
         String sampleText;
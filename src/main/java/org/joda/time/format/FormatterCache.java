@@ -0,0 +1,220 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.format;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free cache of formatters used by the formatter factories.
+ * <p>
+ * Lookups never block and do not write to any shared location, other than
+ * a striped hit counter, unless the entry has not been used since the last
+ * miss. When two threads create the same formatter at once the first one
+ * stored wins and is returned to both.
+ * <p>
+ * When the cache grows beyond its maximum size, the least recently used
+ * eighth of the entries is discarded by the thread that added the entry.
+ * Recency is measured in misses, so entries used since the same miss are
+ * treated as equally recent.
+ * <p>
+ * FormatterCache is thread-safe.
+ *
+ * @since 2.0
+ */
+final class FormatterCache {
+
+    /** The number of hit counters, a power of two. */
+    private static final int STRIPES = 16;
+    /** The spacing of hit counters, to keep each on its own cache line. */
+    private static final int PADDING = 8;
+
+    /** The map of key to entry. */
+    private final ConcurrentHashMap iMap = new ConcurrentHashMap();
+    /** The maximum number of entries. */
+    private final int iMaxSize;
+    /** The clock, advanced on each miss. */
+    private final AtomicLong iClock = new AtomicLong();
+    /** Whether a thread is evicting entries. */
+    private final AtomicBoolean iEvicting = new AtomicBoolean();
+    /** The hit counters. */
+    private final AtomicLongArray iHits = new AtomicLongArray(STRIPES * PADDING);
+    /** The number of misses. */
+    private final AtomicLong iMisses = new AtomicLong();
+    /** The number of entries evicted. */
+    private final AtomicLong iEvictions = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize  the maximum number of entries, zero to disable caching
+     * @throws IllegalArgumentException if the size is negative
+     */
+    FormatterCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative: " + maxSize);
+        }
+        iMaxSize = maxSize;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the cached formatter, counting a hit or a miss.
+     *
+     * @param key  the key, not null
+     * @return the formatter, null if not cached
+     */
+    DateTimeFormatter get(Object key) {
+        Entry entry = (Entry) iMap.get(key);
+        if (entry == null) {
+            iMisses.incrementAndGet();
+            return null;
+        }
+        long now = iClock.get();
+        if (entry.iAccess != now) {
+            entry.iAccess = now;
+        }
+        int stripe = System.identityHashCode(Thread.currentThread()) & (STRIPES - 1);
+        iHits.incrementAndGet(stripe * PADDING);
+        return entry.iFormatter;
+    }
+
+    /**
+     * Adds a formatter to the cache, unless one has already been added.
+     *
+     * @param key  the key, not null
+     * @param formatter  the formatter to add, not null
+     * @return the cached formatter, which is the one added unless another
+     *  thread added one first
+     */
+    DateTimeFormatter put(Object key, DateTimeFormatter formatter) {
+        if (iMaxSize == 0) {
+            return formatter;
+        }
+        Entry entry = new Entry(formatter, iClock.incrementAndGet());
+        Entry existing = (Entry) iMap.putIfAbsent(key, entry);
+        if (existing != null) {
+            return existing.iFormatter;
+        }
+        if (iMap.size() > iMaxSize && iEvicting.compareAndSet(false, true)) {
+            try {
+                evict();
+            } finally {
+                iEvicting.set(false);
+            }
+        }
+        return formatter;
+    }
+
+    /**
+     * Discards the least recently used entries.
+     */
+    private void evict() {
+        Object[] entries = iMap.entrySet().toArray();
+        int remove = entries.length - (iMaxSize - (iMaxSize >> 3));
+        if (remove <= 0) {
+            return;
+        }
+        // snapshot the access times, as other threads may update them
+        long[] access = new long[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            access[i] = ((Entry) ((Map.Entry) entries[i]).getValue()).iAccess;
+        }
+        long[] sorted = (long[]) access.clone();
+        Arrays.sort(sorted);
+        long threshold = sorted[remove - 1];
+        for (int i = 0; i < entries.length && remove > 0; i++) {
+            if (access[i] <= threshold) {
+                Map.Entry entry = (Map.Entry) entries[i];
+                if (iMap.remove(entry.getKey(), entry.getValue())) {
+                    iEvictions.incrementAndGet();
+                }
+                remove--;
+            }
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the maximum number of entries.
+     *
+     * @return the maximum size
+     */
+    int getMaxSize() {
+        return iMaxSize;
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return the current size
+     */
+    int size() {
+        return iMap.size();
+    }
+
+    /**
+     * Gets the number of lookups that found a cached formatter.
+     *
+     * @return the hit count
+     */
+    long getHitCount() {
+        long hits = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            hits += iHits.get(i * PADDING);
+        }
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups that did not find a cached formatter.
+     *
+     * @return the miss count
+     */
+    long getMissCount() {
+        return iMisses.get();
+    }
+
+    /**
+     * Gets the number of entries discarded to keep within the maximum size.
+     *
+     * @return the eviction count
+     */
+    long getEvictionCount() {
+        return iEvictions.get();
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * A cached formatter and when it was last used.
+     */
+    private static final class Entry {
+        /** The formatter. */
+        final DateTimeFormatter iFormatter;
+        /** The clock value when last used, racy updates are harmless. */
+        volatile long iAccess;
+
+        Entry(DateTimeFormatter formatter, long access) {
+            iFormatter = formatter;
+            iAccess = access;
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.format;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTimeZone;
+import org.joda.time.ReadablePartial;
+
+/**
+ * Internal interface for printers that can write to any <code>Appendable</code>.
+ * <p>
+ * All the printers created by {@link DateTimeFormatterBuilder} implement this
+ * interface, allowing {@link DateTimeFormatter} to print directly into a
+ * <code>StringBuilder</code> or character array without the locking of
+ * <code>StringBuffer</code> or the copying of an intermediate buffer.
+ * Printers supplied by applications are adapted by
+ * {@link DateTimePrinterInternalPrinter}.
+ *
+ * @since 2.0
+ */
+interface InternalPrinter extends DateTimePrinter {
+
+    /**
+     * Prints an instant from milliseconds since 1970-01-01T00:00:00Z,
+     * using the given Chronology.
+     *
+     * @param appendable  formatted instant is appended to this, not null
+     * @param instant  millis since 1970-01-01T00:00:00Z
+     * @param chrono  the chronology to use, not null
+     * @param displayOffset  if a time zone offset is printed, force it to use
+     * this millisecond value
+     * @param displayZone  the time zone to use, null means local time
+     * @param locale  the locale to use, null means default locale
+     * @throws IOException if the appendable throws it
+     */
+    void printTo(Appendable appendable, long instant, Chronology chrono,
+                 int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException;
+
+    /**
+     * Prints a ReadablePartial.
+     *
+     * @param appendable  formatted partial is appended to this, not null
+     * @param partial  partial to format, not null
+     * @param locale  the locale to use, null means default locale
+     * @throws IOException if the appendable throws it
+     */
+    void printTo(Appendable appendable, ReadablePartial partial, Locale locale) throws IOException;
+
+}
@@ -15,6 +15,8 @@
  */
 package org.joda.time.tz;
 
+import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeUtils;
 import org.joda.time.DateTimeZone;
 
 /**
@@ -22,7 +24,23 @@ import org.joda.time.DateTimeZone;
  * caching the results. Time zones that have simple rules or are fixed should
  * not be cached, as it is unlikely to improve performance.
  * <p>
- * CachedDateTimeZone is thread-safe and immutable.
+ * The default cache size is set by the system property
+ * <code>org.joda.time.tz.CachedDateTimeZone.size</code>. A cache keeps its
+ * size unless it is adaptive, in which case it grows if it is thrashing, up
+ * to 4096 entries. Caches created by {@link #forZone(DateTimeZone)} are only
+ * adaptive if the system property
+ * <code>org.joda.time.tz.CachedDateTimeZone.adaptive</code> is <code>true</code>.
+ * <p>
+ * If the system property <code>org.joda.time.tz.CachedDateTimeZone.preloadYears</code>
+ * is set, each cache is filled when it is created for that many years either
+ * side of the current time, so that calls in that range never miss.
+ * <p>
+ * The number of misses and evictions is tracked for each zone. Hits are only
+ * counted if the system property <code>org.joda.time.tz.CachedDateTimeZone.statistics</code>
+ * is <code>true</code>, as counting them slows every call. The counts are
+ * approximate if the zone is used by multiple threads.
+ * <p>
+ * CachedDateTimeZone is thread-safe and publicly immutable.
  * 
  * @author Brian S O'Neill
  * @since 1.0
@@ -31,7 +49,15 @@ public class CachedDateTimeZone extends DateTimeZone {
 
     private static final long serialVersionUID = 5472298452022250685L;
 
-    private static final int cInfoCacheMask;
+    /** The largest size that a cache grows to, covering about 557 years. */
+    private static final int MAX_ADAPTIVE_SIZE = 1 << 12;
+    /** The approximate number of milliseconds in a year. */
+    private static final long MILLIS_PER_YEAR = 31556952000L;
+
+    private static final int cDefaultCacheSize;
+    private static final boolean cDefaultAdaptive;
+    private static final int cPreloadYears;
+    private static final boolean cCountHits;
 
     static {
         Integer i;
@@ -41,24 +67,36 @@ public class CachedDateTimeZone extends DateTimeZone {
             i = null;
         }
 
-        int cacheSize;
         if (i == null) {
             // With a cache size of 512, dates that lie within any 69.7 year
             // period have no cache collisions.
-            cacheSize = 512; // (1 << 9)
+            cDefaultCacheSize = 512; // (1 << 9)
         } else {
-            cacheSize = i.intValue();
-            // Ensure cache size is even power of 2.
-            cacheSize--;
-            int shift = 0;
-            while (cacheSize > 0) {
-                shift++;
-                cacheSize >>= 1;
-            }
-            cacheSize = 1 << shift;
+            cDefaultCacheSize = roundCacheSize(i.intValue());
+        }
+
+        boolean adaptive;
+        try {
+            adaptive = Boolean.getBoolean("org.joda.time.tz.CachedDateTimeZone.adaptive");
+        } catch (SecurityException e) {
+            adaptive = false;
+        }
+        cDefaultAdaptive = adaptive;
+
+        try {
+            i = Integer.getInteger("org.joda.time.tz.CachedDateTimeZone.preloadYears");
+        } catch (SecurityException e) {
+            i = null;
         }
+        cPreloadYears = (i == null ? 0 : Math.max(0, i.intValue()));
 
-        cInfoCacheMask = cacheSize - 1;
+        boolean countHits;
+        try {
+            countHits = Boolean.getBoolean("org.joda.time.tz.CachedDateTimeZone.statistics");
+        } catch (SecurityException e) {
+            countHits = false;
+        }
+        cCountHits = countHits;
     }
 
     /**
@@ -68,7 +106,70 @@ public class CachedDateTimeZone extends DateTimeZone {
         if (zone instanceof CachedDateTimeZone) {
             return (CachedDateTimeZone)zone;
         }
-        return new CachedDateTimeZone(zone);
+        CachedDateTimeZone cached = new CachedDateTimeZone(zone, cDefaultCacheSize, cDefaultAdaptive);
+        if (cPreloadYears > 0) {
+            long now = DateTimeUtils.currentTimeMillis();
+            long range = cPreloadYears * MILLIS_PER_YEAR;
+            cached.prepopulate(now - range, now + range);
+        }
+        return cached;
+    }
+
+    /**
+     * Returns a new CachedDateTimeZone with a fixed cache size, unless the
+     * given zone is already cached.
+     * <p>
+     * Each cache entry covers 2^32 milliseconds, about 49.7 days, so 512
+     * entries cover any 69.7 year period without collisions. The size is
+     * rounded up to a power of two.
+     *
+     * @param zone  the zone to cache, not null
+     * @param cacheSize  the number of entries in the cache, at least one
+     * @return the cached zone
+     * @throws IllegalArgumentException if the cache size is invalid
+     * @since 2.0
+     */
+    public static CachedDateTimeZone forZone(DateTimeZone zone, int cacheSize) {
+        return forZone(zone, cacheSize, false);
+    }
+
+    /**
+     * Returns a new CachedDateTimeZone with the given initial cache size,
+     * unless the given zone is already cached.
+     * <p>
+     * An adaptive cache doubles in size, up to 4096 entries, once it has
+     * evicted more entries than it holds since it last grew. This stops a
+     * workload spanning a long period from thrashing, at the cost of memory.
+     *
+     * @param zone  the zone to cache, not null
+     * @param cacheSize  the initial number of entries in the cache, at least one
+     * @param adaptive  true to grow the cache if it is thrashing
+     * @return the cached zone
+     * @throws IllegalArgumentException if the cache size is invalid
+     * @since 2.0
+     */
+    public static CachedDateTimeZone forZone(DateTimeZone zone, int cacheSize, boolean adaptive) {
+        if (cacheSize < 1 || cacheSize > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid cache size: " + cacheSize);
+        }
+        if (zone instanceof CachedDateTimeZone) {
+            return (CachedDateTimeZone)zone;
+        }
+        return new CachedDateTimeZone(zone, roundCacheSize(cacheSize), adaptive);
+    }
+
+    /**
+     * Rounds a cache size up to a power of two.
+     */
+    private static int roundCacheSize(int cacheSize) {
+        // Ensure cache size is even power of 2.
+        cacheSize--;
+        int shift = 0;
+        while (cacheSize > 0) {
+            shift++;
+            cacheSize >>= 1;
+        }
+        return 1 << shift;
     }
 
     /*
@@ -80,20 +181,31 @@ public class CachedDateTimeZone extends DateTimeZone {
      */
 
     private final DateTimeZone iZone;
+    private final int iInitialCacheSize;
+    private final boolean iAdaptive;
 
+    // The cache array is replaced when it grows. As with the entries, a
+    // thread that sees an older array still gets correct results.
     private transient Info[] iInfoCache;
 
-    private CachedDateTimeZone(DateTimeZone zone) {
+    private transient long iHits;
+    private transient long iMisses;
+    private transient long iEvictions;
+    private transient int iEvictionsSinceResize;
+
+    private CachedDateTimeZone(DateTimeZone zone, int cacheSize, boolean adaptive) {
         super(zone.getID());
         iZone = zone;
-        iInfoCache = new Info[cInfoCacheMask + 1];
+        iInitialCacheSize = cacheSize;
+        iAdaptive = adaptive;
+        iInfoCache = new Info[cacheSize];
     }
 
     private void readObject(java.io.ObjectInputStream in)
         throws java.io.IOException, ClassNotFoundException
     {
         in.defaultReadObject();
-        iInfoCache = new Info[cInfoCacheMask + 1];
+        iInfoCache = new Info[iInitialCacheSize > 0 ? iInitialCacheSize : cDefaultCacheSize];
     }
 
     /**
@@ -103,6 +215,79 @@ public class CachedDateTimeZone extends DateTimeZone {
         return iZone;
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the current number of entries in the cache.
+     *
+     * @return the cache size, a power of two
+     * @since 2.0
+     */
+    public int getCacheSize() {
+        return iInfoCache.length;
+    }
+
+    /**
+     * Gets the number of calls answered from the cache, which is only counted
+     * if the system property <code>org.joda.time.tz.CachedDateTimeZone.statistics</code>
+     * is <code>true</code>.
+     *
+     * @return the number of hits, zero if not counted
+     * @since 2.0
+     */
+    public long getHitCount() {
+        return iHits;
+    }
+
+    /**
+     * Gets the number of calls that had to query the wrapped zone.
+     *
+     * @return the number of misses
+     * @since 2.0
+     */
+    public long getMissCount() {
+        return iMisses;
+    }
+
+    /**
+     * Gets the number of misses that replaced a different cache entry.
+     *
+     * @return the number of evictions
+     * @since 2.0
+     */
+    public long getEvictionCount() {
+        return iEvictions;
+    }
+
+    /**
+     * Fills the cache for a range of instants, so that calls in that range
+     * do not miss. An adaptive cache is grown to cover the range if possible,
+     * whereas any other cache is filled up to its size.
+     *
+     * @param startInstant  the start of the range, inclusive
+     * @param endInstant  the end of the range, inclusive
+     * @since 2.0
+     */
+    public void prepopulate(long startInstant, long endInstant) {
+        if (endInstant < startInstant) {
+            throw new IllegalArgumentException("The end instant must not be before the start");
+        }
+        long firstPeriod = startInstant >> 32;
+        long periods = (endInstant >> 32) - firstPeriod + 1;
+        if (iAdaptive) {
+            while (iInfoCache.length < periods && iInfoCache.length < MAX_ADAPTIVE_SIZE) {
+                grow();
+            }
+        }
+        Info[] cache = iInfoCache;
+        periods = Math.min(periods, cache.length);
+        for (long i = 0; i < periods; i++) {
+            long period = firstPeriod + i;
+            Info info = createInfo(period << 32);
+            info.populate();
+            cache[(int) period & (cache.length - 1)] = info;
+        }
+    }
+
     public String getNameKey(long instant) {
         return getInfo(instant).getNameKey(instant);
     }
@@ -115,6 +300,36 @@ public class CachedDateTimeZone extends DateTimeZone {
         return getInfo(instant).getStandardOffset(instant);
     }
 
+    public int getOffsetFromLocal(long instantLocal) {
+        Info info = getInfo(instantLocal);
+        if (isSingleOffset(info, instantLocal)) {
+            return info.getOffset(instantLocal);
+        }
+        return iZone.getOffsetFromLocal(instantLocal);
+    }
+
+    public int getOffsetFromLocal(long instantLocal, int resolution) {
+        checkResolution(resolution);
+        Info info = getInfo(instantLocal);
+        if (isSingleOffset(info, instantLocal)) {
+            return info.getOffset(instantLocal);
+        }
+        return iZone.getOffsetFromLocal(instantLocal, resolution);
+    }
+
+    /**
+     * Checks whether a local time has only one possible offset, as it is more
+     * than a day from either end of a cached period without transitions.
+     * Offsets are always less than a day, so every instant the local time
+     * could refer to is then within the period.
+     */
+    private static boolean isSingleOffset(Info info, long instantLocal) {
+        long periodStart = info.iPeriodStart;
+        return info.iNextInfo == null &&
+            instantLocal - periodStart >= DateTimeConstants.MILLIS_PER_DAY &&
+            (periodStart | 0xffffffffL) - instantLocal >= DateTimeConstants.MILLIS_PER_DAY;
+    }
+
     public boolean isFixed() {
         return iZone.isFixed();
     }
@@ -147,15 +362,54 @@ public class CachedDateTimeZone extends DateTimeZone {
     private Info getInfo(long millis) {
         int period = (int)(millis >> 32);
         Info[] cache = iInfoCache;
-        int index = period & cInfoCacheMask;
+        int index = period & (cache.length - 1);
         Info info = cache[index];
         if (info == null || (int)((info.iPeriodStart >> 32)) != period) {
+            Info evicted = info;
             info = createInfo(millis);
             cache[index] = info;
+            iMisses++;
+            if (evicted != null) {
+                evicted(cache);
+            }
+        } else if (cCountHits) {
+            iHits++;
         }
         return info;
     }
 
+    /**
+     * Records an eviction, growing the cache if it is thrashing.
+     */
+    private void evicted(Info[] cache) {
+        iEvictions++;
+        if (iAdaptive && ++iEvictionsSinceResize > cache.length &&
+                cache.length < MAX_ADAPTIVE_SIZE && cache == iInfoCache) {
+            grow();
+        }
+    }
+
+    /**
+     * Doubles the size of the cache, keeping the entries.
+     * <p>
+     * This is not synchronized, so two threads may grow the cache at once and
+     * one array replaces the other. That only drops entries, which are then
+     * recreated on the next miss, as each caller reads the array field once.
+     */
+    private void grow() {
+        Info[] cache = iInfoCache;
+        Info[] grown = new Info[cache.length * 2];
+        int mask = grown.length - 1;
+        for (int i = 0; i < cache.length; i++) {
+            Info info = cache[i];
+            if (info != null) {
+                grown[(int)(info.iPeriodStart >> 32) & mask] = info;
+            }
+        }
+        iEvictionsSinceResize = 0;
+        iInfoCache = grown;
+    }
+
     private Info createInfo(long millis) {
         long periodStart = millis & (0xffffffffL << 32);
         Info info = new Info(iZone, periodStart);
@@ -190,6 +444,17 @@ public class CachedDateTimeZone extends DateTimeZone {
             iZoneRef = zone;
         }
 
+        /**
+         * Queries the zone for every value in the chain now, rather than on first use.
+         */
+        void populate() {
+            for (Info info = this; info != null; info = info.iNextInfo) {
+                info.getNameKey(info.iPeriodStart);
+                info.getOffset(info.iPeriodStart);
+                info.getStandardOffset(info.iPeriodStart);
+            }
+        }
+
         public String getNameKey(long millis) {
             if (iNextInfo == null || millis < iNextInfo.iPeriodStart) {
                 if (iNameKey == null) {
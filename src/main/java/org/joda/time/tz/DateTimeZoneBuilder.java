@@ -32,6 +32,7 @@ import java.util.Set;
 
 import org.joda.time.Chronology;
 import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
 import org.joda.time.DateTimeUtils;
 import org.joda.time.DateTimeZone;
 import org.joda.time.Period;
@@ -84,6 +85,10 @@ import org.joda.time.chrono.ISOChronology;
  * @since 1.0
  */
 public class DateTimeZoneBuilder {
+
+    /** The result of a local time lookup that the transition table cannot answer. */
+    private static final int NO_LOCAL_LOOKUP = Integer.MIN_VALUE + 1;
+
     /**
      * Decodes a built DateTimeZone from the given stream, as encoded by
      * writeTo.
@@ -210,6 +215,18 @@ public class DateTimeZoneBuilder {
         }
     }
 
+    /**
+     * Checks if transition lookups for the instant use the index of a
+     * precalculated zone, for testing.
+     * 
+     * @param zone  the zone, not null
+     * @param instant  the instant to check
+     * @return true if the zone is precalculated and its index covers the instant
+     */
+    static boolean isIndexed(DateTimeZone zone, long instant) {
+        return zone instanceof PrecalculatedZone && ((PrecalculatedZone) zone).isIndexed(instant);
+    }
+
     private static DateTimeZone buildFixedZone(String id, String nameKey,
                                                int wallOffset, int standardOffset) {
         if ("UTC".equals(id) && id.equals(nameKey) &&
@@ -1164,6 +1181,11 @@ public class DateTimeZoneBuilder {
     private static final class DSTZone extends DateTimeZone {
         private static final long serialVersionUID = 6941492635554961361L;
 
+        /** The size of a block of cached transitions, as a shift, about 35 years. */
+        private static final int TABLE_BLOCK_SHIFT = 40;
+        /** The range of instants, either side of zero, that transitions are cached for. */
+        private static final long TABLE_LIMIT = 1L << 44;
+
         static DSTZone readFrom(DataInput in, String id) throws IOException {
             return new DSTZone(id, (int)readMillis(in), 
                                Recurrence.readFrom(in), Recurrence.readFrom(in));
@@ -1173,6 +1195,13 @@ public class DateTimeZoneBuilder {
         final Recurrence iStartRecurrence;
         final Recurrence iEndRecurrence;
 
+        /** The cached transitions, replaced as it is extended, null until first used. */
+        private transient volatile TransitionTable iTable;
+        /** Whether the transitions cannot be cached, as they stop before the table limit. */
+        private transient volatile boolean iUntableable;
+        /** The lock held while extending the table. */
+        private final transient Object iTableLock = new Object();
+
         DSTZone(String id, int standardOffset,
                 Recurrence startRecurrence, Recurrence endRecurrence) {
             super(id);
@@ -1182,10 +1211,18 @@ public class DateTimeZoneBuilder {
         }
 
         public String getNameKey(long instant) {
+            TransitionTable table = getTable(instant);
+            if (table != null) {
+                return table.iRecurrences[table.find(instant)].getNameKey();
+            }
             return findMatchingRecurrence(instant).getNameKey();
         }
 
         public int getOffset(long instant) {
+            TransitionTable table = getTable(instant);
+            if (table != null) {
+                return iStandardOffset + table.iRecurrences[table.find(instant)].getSaveMillis();
+            }
             return iStandardOffset + findMatchingRecurrence(instant).getSaveMillis();
         }
 
@@ -1193,11 +1230,60 @@ public class DateTimeZoneBuilder {
             return iStandardOffset;
         }
 
+        public int getOffsetFromLocal(long instantLocal) {
+            int offset = lookupOffsetFromLocal(instantLocal, RESOLVE_REJECT);
+            if (offset == INVALID_OFFSET || offset == NO_LOCAL_LOOKUP) {
+                // in a gap or overlap, or outside the table, so probe as before
+                return super.getOffsetFromLocal(instantLocal);
+            }
+            return offset;
+        }
+
+        public int getOffsetFromLocal(long instantLocal, int resolution) {
+            checkResolution(resolution);
+            int offset = lookupOffsetFromLocal(instantLocal, resolution);
+            if (offset == NO_LOCAL_LOOKUP) {
+                return super.getOffsetFromLocal(instantLocal, resolution);
+            }
+            return offset;
+        }
+
+        /**
+         * Looks up the offset from local time in the table of transitions.
+         * 
+         * @param instantLocal  the local instant
+         * @param resolution  the gap and overlap resolution strategy, already checked
+         * @return the offset, INVALID_OFFSET if rejected, NO_LOCAL_LOOKUP if
+         *  the table does not cover the local time
+         */
+        int lookupOffsetFromLocal(long instantLocal, int resolution) {
+            long day = DateTimeConstants.MILLIS_PER_DAY;
+            if (instantLocal >= -TABLE_LIMIT + day && instantLocal < TABLE_LIMIT - day &&
+                    getTable(instantLocal - day) != null) {
+                // the table only grows, so this also covers a day before
+                TransitionTable table = getTable(instantLocal + day);
+                if (table != null && table.iLocalLookup) {
+                    return PrecalculatedZone.findOffsetFromLocal(
+                        table.iTransitions, table.iOffsets, table.iOffsets[0],
+                        table.find(instantLocal + day), instantLocal, resolution);
+                }
+            }
+            return NO_LOCAL_LOOKUP;
+        }
+
         public boolean isFixed() {
             return false;
         }
 
         public long nextTransition(long instant) {
+            TransitionTable table = getTable(instant);
+            if (table != null) {
+                return table.iTransitions[table.find(instant) + 1];
+            }
+            return calculateNextTransition(instant);
+        }
+
+        private long calculateNextTransition(long instant) {
             int standardOffset = iStandardOffset;
             Recurrence startRecurrence = iStartRecurrence;
             Recurrence endRecurrence = iEndRecurrence;
@@ -1238,6 +1324,14 @@ public class DateTimeZoneBuilder {
         }
 
         public long previousTransition(long instant) {
+            TransitionTable table = getTable(instant);
+            if (table != null) {
+                int i = table.find(instant);
+                if (i > 0) {
+                    return table.iTransitions[i] - 1;
+                }
+            }
+
             // Increment in order to handle the case where instant is exactly at
             // a transition.
             instant++;
@@ -1333,6 +1427,151 @@ public class DateTimeZoneBuilder {
 
             return (start > end) ? startRecurrence : endRecurrence;
         }
+
+        /**
+         * Gets the table of transitions covering the instant, extending the
+         * cached table if necessary.
+         * 
+         * @param instant  the instant to cover
+         * @return the table, null if the instant is outside the cached range
+         */
+        private TransitionTable getTable(long instant) {
+            TransitionTable table = iTable;
+            if (table != null && instant >= table.iStart && instant < table.iEnd) {
+                return table;
+            }
+            if (instant < -TABLE_LIMIT || instant >= TABLE_LIMIT || iUntableable) {
+                return null;
+            }
+            return extendTable(instant);
+        }
+
+        /**
+         * Replaces the cached table with one that also covers the instant.
+         * The table only ever grows, and always covers a contiguous range.
+         * 
+         * If the transitions cannot be cached this is remembered, so that
+         * later calls do not attempt it again.
+         * 
+         * @param instant  the instant to cover, within the table limit
+         * @return the table, null if the transitions cannot be cached
+         */
+        private TransitionTable extendTable(long instant) {
+            synchronized (iTableLock) {
+                if (iUntableable) {
+                    return null;
+                }
+                TransitionTable table = iTable;
+                if (table != null && instant >= table.iStart && instant < table.iEnd) {
+                    return table;  // extended by another thread
+                }
+                long block = instant >> TABLE_BLOCK_SHIFT;
+                long start = block << TABLE_BLOCK_SHIFT;
+                long end = (block + 1) << TABLE_BLOCK_SHIFT;
+                if (table != null) {
+                    start = Math.min(start, table.iStart);
+                    end = Math.max(end, table.iEnd);
+                }
+                TransitionTable extended = createTable(start, end);
+                if (extended == null) {
+                    iUntableable = true;
+                } else {
+                    iTable = extended;
+                }
+                return extended;
+            }
+        }
+
+        /**
+         * Creates a table of the transitions in a range.
+         * <p>
+         * The first entry is the start of the range, which need not be a
+         * transition, and the last is the first transition at or after the end.
+         * 
+         * @param start  the start of the range, inclusive
+         * @param end  the end of the range, exclusive
+         * @return the table, null if the transitions do not continue past the end
+         */
+        private TransitionTable createTable(long start, long end) {
+            ArrayList transitions = new ArrayList();
+            long instant = start;
+            while (true) {
+                transitions.add(new Long(instant));
+                if (instant >= end) {
+                    break;
+                }
+                long next = calculateNextTransition(instant);
+                if (next <= instant) {
+                    return null;
+                }
+                instant = next;
+            }
+
+            int size = transitions.size();
+            long[] instants = new long[size];
+            Recurrence[] recurrences = new Recurrence[size];
+            int[] offsets = new int[size];
+            for (int i = 0; i < size; i++) {
+                instants[i] = ((Long) transitions.get(i)).longValue();
+                recurrences[i] = findMatchingRecurrence(instants[i]);
+                offsets[i] = iStandardOffset + recurrences[i].getSaveMillis();
+            }
+            return new TransitionTable(start, end, instants, recurrences, offsets);
+        }
+    }
+
+    /**
+     * Immutable table of the transitions of a DSTZone in a range.
+     */
+    private static final class TransitionTable {
+        /** The start of the range, inclusive. */
+        final long iStart;
+        /** The end of the range, exclusive. */
+        final long iEnd;
+        /** The start of the range, then each transition, then the first one at or after the end. */
+        final long[] iTransitions;
+        /** The recurrence in effect from each transition. */
+        final Recurrence[] iRecurrences;
+        /** The wall offset in effect from each transition. */
+        final int[] iOffsets;
+        /** Whether local times can be looked up in the table. */
+        final boolean iLocalLookup;
+        /** The average gap between transitions, used to estimate the index. */
+        private final long iAverageGap;
+
+        TransitionTable(long start, long end, long[] transitions,
+                        Recurrence[] recurrences, int[] offsets) {
+            iStart = start;
+            iEnd = end;
+            iTransitions = transitions;
+            iRecurrences = recurrences;
+            iOffsets = offsets;
+            iLocalLookup = PrecalculatedZone.hasSeparateLocalWindows(transitions, offsets, offsets[0]);
+            iAverageGap = Math.max(1, (end - start) / Math.max(1, transitions.length - 1));
+        }
+
+        /**
+         * Finds the last entry at or before the instant, which must be
+         * within the range, thus never the last entry.
+         * <p>
+         * Transitions are spread fairly evenly, so an estimate of the index
+         * is only ever a step or two away.
+         * 
+         * @param instant  the instant to find
+         * @return the index of the entry
+         */
+        int find(long instant) {
+            long[] transitions = iTransitions;
+            int last = transitions.length - 2;
+            int i = (int) Math.min(last, (instant - iStart) / iAverageGap);
+            while (transitions[i] > instant) {
+                i--;
+            }
+            while (i < last && transitions[i + 1] <= instant) {
+                i++;
+            }
+            return i;
+        }
     }
 
     private static final class PrecalculatedZone extends DateTimeZone {
@@ -1420,7 +1659,7 @@ public class DateTimeZoneBuilder {
             String[][] zoneStrings = new DateFormatSymbols(Locale.ENGLISH).getZoneStrings();
             for (int j = 0; j < zoneStrings.length; j++) {
                 String[] set = zoneStrings[j];
-                if (set != null && set.length == 5 && id.equals(set[0])) {
+                if (set != null && set.length >= 5 && id.equals(set[0])) {
                     zoneNameData = set;
                 }
             }
@@ -1479,6 +1718,11 @@ public class DateTimeZoneBuilder {
                 ((outputID ? id : ""), trans, wallOffsets, standardOffsets, nameKeys, tailZone);
         }
 
+        /** The size of an index bucket, as a shift, about 50 days. */
+        private static final int INDEX_SHIFT = 32;
+        /** The maximum number of index buckets. */
+        private static final int MAX_INDEX_SIZE = 1 << 16;
+
         // All array fields have the same length.
 
         private final long[] iTransitions;
@@ -1489,6 +1733,16 @@ public class DateTimeZoneBuilder {
 
         private final DSTZone iTailZone;
 
+        /** The bucket number of the first indexed transition. */
+        private final long iIndexStart;
+        /**
+         * The number of transitions before the start of each bucket,
+         * null if there are too many buckets or transitions to index.
+         */
+        private final char[] iIndex;
+        /** Whether local times can be looked up in the transitions. */
+        private final boolean iLocalLookup;
+
         /**
          * Constructor used ONLY for valid input, loaded via static methods.
          */
@@ -1501,63 +1755,217 @@ public class DateTimeZoneBuilder {
             iStandardOffsets = standardOffsets;
             iNameKeys = nameKeys;
             iTailZone = tailZone;
+            // the first transition is often at the start of time
+            iIndexStart = transitions[transitions.length > 1 ? 1 : 0] >> INDEX_SHIFT;
+            iIndex = buildIndex(transitions, iIndexStart);
+            iLocalLookup = hasSeparateLocalWindows(transitions, wallOffsets, 0);
         }
 
-        public String getNameKey(long instant) {
-            long[] transitions = iTransitions;
-            int i = Arrays.binarySearch(transitions, instant);
-            if (i >= 0) {
-                return iNameKeys[i];
+        /**
+         * Checks that the local time windows of each transition, where a local
+         * time is in a gap or overlap, are in order and do not intersect.
+         * 
+         * @param transitions  the sorted transitions
+         * @param offsets  the wall offset in effect from each transition
+         * @param initialOffset  the wall offset before the first transition
+         * @return true if local times can be looked up using the transitions
+         */
+        static boolean hasSeparateLocalWindows(long[] transitions, int[] offsets, int initialOffset) {
+            long day = DateTimeConstants.MILLIS_PER_DAY;
+            long windowEnd = Long.MIN_VALUE;
+            int before = initialOffset;
+            for (int i = 0; i < transitions.length; i++) {
+                long transition = transitions[i];
+                if (transition > Long.MAX_VALUE - day) {
+                    return false;
+                }
+                int after = offsets[i];
+                if (transition >= Long.MIN_VALUE + day) {
+                    // a transition at the start of time has no window to check
+                    if (transition + Math.min(before, after) < windowEnd) {
+                        return false;
+                    }
+                    windowEnd = transition + Math.max(before, after);
+                }
+                before = after;
             }
-            i = ~i;
-            if (i < transitions.length) {
-                if (i > 0) {
-                    return iNameKeys[i - 1];
+            return true;
+        }
+
+        /**
+         * Gets the offset from local time using the local time window of each
+         * transition, which must not intersect.
+         * 
+         * @param transitions  the sorted transitions
+         * @param offsets  the wall offset in effect from each transition
+         * @param initialOffset  the wall offset before the first transition
+         * @param index  the last transition at or before a day after the local instant
+         * @param instantLocal  the local instant, more than a day from the limits
+         * @param resolution  the gap and overlap resolution strategy, already checked
+         * @return the offset, INVALID_OFFSET if rejected
+         */
+        static int findOffsetFromLocal(long[] transitions, int[] offsets, int initialOffset,
+                                       int index, long instantLocal, int resolution) {
+            for (int i = index; i >= 0; i--) {
+                int before = (i > 0 ? offsets[i - 1] : initialOffset);
+                int after = offsets[i];
+                // compare without adding to the transition, which may be at the start of time
+                if (transitions[i] <= instantLocal - Math.min(before, after)) {
+                    if (instantLocal - Math.max(before, after) < transitions[i]) {
+                        return resolveOffset(before, after, resolution);
+                    }
+                    return after;
                 }
-                return "UTC";
             }
-            if (iTailZone == null) {
-                return iNameKeys[i - 1];
+            return initialOffset;
+        }
+
+        /**
+         * Builds the index from bucket to transitions.
+         * 
+         * @param transitions  the sorted transitions, not empty
+         * @param indexStart  the bucket number of the first indexed transition
+         * @return the index, null if it would be too large
+         */
+        private static char[] buildIndex(long[] transitions, long indexStart) {
+            int size = transitions.length;
+            long buckets = (transitions[size - 1] >> INDEX_SHIFT) - indexStart + 1;
+            if (size > Character.MAX_VALUE || buckets > MAX_INDEX_SIZE) {
+                return null;
             }
-            return iTailZone.getNameKey(instant);
+            char[] index = new char[(int) buckets];
+            int i = 0;
+            for (int b = 0; b < index.length; b++) {
+                long bucketStart = (indexStart + b) << INDEX_SHIFT;
+                while (i < size && transitions[i] < bucketStart) {
+                    i++;
+                }
+                index[b] = (char) i;
+            }
+            return index;
         }
 
-        public int getOffset(long instant) {
+        /**
+         * Finds the last transition at or before the instant.
+         * <p>
+         * The index narrows the search to one bucket, which normally holds
+         * no more than a couple of transitions, thus this is usually only a
+         * few array reads. A binary search is used if there is no index, or
+         * the instant is before the indexed range.
+         * 
+         * @param instant  the instant to find
+         * @return the transition index, -1 if before the first transition
+         */
+        private int findTransition(long instant) {
             long[] transitions = iTransitions;
-            int i = Arrays.binarySearch(transitions, instant);
-            if (i >= 0) {
-                return iWallOffsets[i];
+            char[] index = iIndex;
+            long bucket = (instant >> INDEX_SHIFT) - iIndexStart;
+            if (index == null || bucket < 0) {
+                int i = Arrays.binarySearch(transitions, instant);
+                return (i >= 0) ? i : ~i - 1;
             }
-            i = ~i;
-            if (i < transitions.length) {
-                if (i > 0) {
-                    return iWallOffsets[i - 1];
-                }
+            if (bucket >= index.length) {
+                return transitions.length - 1;
+            }
+            int i = index[(int) bucket];
+            int size = transitions.length;
+            while (i < size && transitions[i] <= instant) {
+                i++;
+            }
+            return i - 1;
+        }
+
+        /**
+         * Checks if lookups of the instant use the index.
+         * 
+         * @param instant  the instant to check
+         * @return true if the index covers the instant
+         */
+        boolean isIndexed(long instant) {
+            long bucket = (instant >> INDEX_SHIFT) - iIndexStart;
+            return iIndex != null && bucket >= 0 && bucket < iIndex.length;
+        }
+
+        /**
+         * Checks if the instant is after the last transition and has a tail zone.
+         */
+        private boolean isTail(int i, long instant) {
+            return iTailZone != null && i == iTransitions.length - 1 && instant > iTransitions[i];
+        }
+
+        public String getNameKey(long instant) {
+            int i = findTransition(instant);
+            if (i < 0) {
+                return "UTC";
+            }
+            if (isTail(i, instant)) {
+                return iTailZone.getNameKey(instant);
+            }
+            return iNameKeys[i];
+        }
+
+        public int getOffset(long instant) {
+            int i = findTransition(instant);
+            if (i < 0) {
                 return 0;
             }
-            if (iTailZone == null) {
-                return iWallOffsets[i - 1];
+            if (isTail(i, instant)) {
+                return iTailZone.getOffset(instant);
             }
-            return iTailZone.getOffset(instant);
+            return iWallOffsets[i];
         }
 
         public int getStandardOffset(long instant) {
-            long[] transitions = iTransitions;
-            int i = Arrays.binarySearch(transitions, instant);
-            if (i >= 0) {
-                return iStandardOffsets[i];
-            }
-            i = ~i;
-            if (i < transitions.length) {
-                if (i > 0) {
-                    return iStandardOffsets[i - 1];
-                }
+            int i = findTransition(instant);
+            if (i < 0) {
                 return 0;
             }
-            if (iTailZone == null) {
-                return iStandardOffsets[i - 1];
+            if (isTail(i, instant)) {
+                return iTailZone.getStandardOffset(instant);
             }
-            return iTailZone.getStandardOffset(instant);
+            return iStandardOffsets[i];
+        }
+
+        public int getOffsetFromLocal(long instantLocal) {
+            int offset = lookupOffsetFromLocal(instantLocal, RESOLVE_REJECT);
+            if (offset == INVALID_OFFSET || offset == NO_LOCAL_LOOKUP) {
+                // in a gap or overlap, or outside the table, so probe as before
+                return super.getOffsetFromLocal(instantLocal);
+            }
+            return offset;
+        }
+
+        public int getOffsetFromLocal(long instantLocal, int resolution) {
+            checkResolution(resolution);
+            int offset = lookupOffsetFromLocal(instantLocal, resolution);
+            if (offset == NO_LOCAL_LOOKUP) {
+                return super.getOffsetFromLocal(instantLocal, resolution);
+            }
+            return offset;
+        }
+
+        /**
+         * Looks up the offset from local time in the transitions, or in
+         * those of the tail zone.
+         * 
+         * @param instantLocal  the local instant
+         * @param resolution  the gap and overlap resolution strategy, already checked
+         * @return the offset, INVALID_OFFSET if rejected, NO_LOCAL_LOOKUP if
+         *  the transitions cannot answer for the local time
+         */
+        private int lookupOffsetFromLocal(long instantLocal, int resolution) {
+            long day = DateTimeConstants.MILLIS_PER_DAY;
+            if (iLocalLookup && instantLocal > Long.MIN_VALUE + day && instantLocal < Long.MAX_VALUE - day) {
+                long last = iTransitions[iTransitions.length - 1];
+                if (iTailZone == null || instantLocal + day <= last) {
+                    return findOffsetFromLocal(iTransitions, iWallOffsets, 0,
+                        findTransition(instantLocal + day), instantLocal, resolution);
+                }
+                if (instantLocal - day > last) {
+                    return iTailZone.lookupOffsetFromLocal(instantLocal, resolution);
+                }
+            }
+            return NO_LOCAL_LOOKUP;
         }
 
         public boolean isFixed() {
@@ -1566,8 +1974,7 @@ public class DateTimeZoneBuilder {
 
         public long nextTransition(long instant) {
             long[] transitions = iTransitions;
-            int i = Arrays.binarySearch(transitions, instant);
-            i = (i >= 0) ? (i + 1) : ~i;
+            int i = findTransition(instant) + 1;
             if (i < transitions.length) {
                 return transitions[i];
             }
@@ -18,11 +18,17 @@ package org.joda.time.tz;
 import java.text.DateFormatSymbols;
 import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * The default name provider acquires localized names from
  * {@link DateFormatSymbols java.text.DateFormatSymbols}.
  * <p>
+ * The names for every zone in a locale are indexed together the first time
+ * the locale is used, or when it is preloaded. Later lookups do not lock.
+ * <p>
  * DefaultNameProvider is thread-safe and immutable.
  *
  * @author Brian S O'Neill
@@ -30,11 +36,24 @@ import java.util.Locale;
  */
 public class DefaultNameProvider implements NameProvider {
     // locale -> (id -> (nameKey -> [shortName, name]))
-    private HashMap iByLocaleCache = createCache();
+    private final ConcurrentMap iByLocaleCache = new ConcurrentHashMap();
 
     public DefaultNameProvider() {
     }
 
+    /**
+     * Indexes the names for a locale now, rather than when first used.
+     * 
+     * @param locale  the locale to load names for, not null
+     * @since 2.0
+     */
+    public void preload(Locale locale) {
+        if (locale == null) {
+            throw new IllegalArgumentException("The locale must not be null");
+        }
+        getNamesById(locale);
+    }
+
     public String getShortName(Locale locale, String id, String nameKey) {
         String[] nameSet = getNameSet(locale, id, nameKey);
         return nameSet == null ? null : nameSet[0];
@@ -45,41 +64,55 @@ public class DefaultNameProvider implements NameProvider {
         return nameSet == null ? null : nameSet[1];
     }
 
-    private synchronized String[] getNameSet(Locale locale, String id, String nameKey) {
+    private String[] getNameSet(Locale locale, String id, String nameKey) {
         if (locale == null || id == null || nameKey == null) {
             return null;
         }
 
-        HashMap byIdCache = (HashMap)iByLocaleCache.get(locale);
-        if (byIdCache == null) {
-            iByLocaleCache.put(locale, byIdCache = createCache());
+        Map byNameKeyCache = (Map)getNamesById(locale).get(id);
+        if (byNameKeyCache == null) {
+            return null;
         }
+        return (String[])byNameKeyCache.get(nameKey);
+    }
 
-        HashMap byNameKeyCache = (HashMap)byIdCache.get(id);
-        if (byNameKeyCache == null) {
-            byIdCache.put(id, byNameKeyCache = createCache());
-            String[][] zoneStrings = new DateFormatSymbols(locale).getZoneStrings();
-            for (int i=0; i<zoneStrings.length; i++) {
-                String[] set = zoneStrings[i];
-                if (set != null && set.length == 5 && id.equals(set[0])) {
-                    byNameKeyCache.put(set[2], new String[] {set[2], set[1]});
-                    // need to handle case where summer and winter have the same
-                    // abbreviation, such as EST in Australia [1716305]
-                    // we handle this by appending "-Summer", cf ZoneInfoCompiler
-                    if (set[2].equals(set[4])) {
-                        byNameKeyCache.put(set[4] + "-Summer", new String[] {set[4], set[3]});
-                    } else {
-                        byNameKeyCache.put(set[4], new String[] {set[4], set[3]});
-                    }
-                    break;
-                }
+    /**
+     * Gets the index of names for a locale, creating it if necessary.
+     * The index is never changed once published.
+     */
+    private Map getNamesById(Locale locale) {
+        Map byIdCache = (Map)iByLocaleCache.get(locale);
+        if (byIdCache == null) {
+            // creating the index twice in a race is harmless, just slower
+            byIdCache = createNamesById(locale);
+            Map existing = (Map)iByLocaleCache.putIfAbsent(locale, byIdCache);
+            if (existing != null) {
+                byIdCache = existing;
             }
         }
-
-        return (String[])byNameKeyCache.get(nameKey);
+        return byIdCache;
     }
 
-    private HashMap createCache() {
-        return new HashMap(7);
+    private static Map createNamesById(Locale locale) {
+        HashMap byIdCache = new HashMap();
+        String[][] zoneStrings = new DateFormatSymbols(locale).getZoneStrings();
+        for (int i=0; i<zoneStrings.length; i++) {
+            String[] set = zoneStrings[i];
+            if (set == null || set.length < 5 || byIdCache.containsKey(set[0])) {
+                continue;
+            }
+            HashMap byNameKeyCache = new HashMap(7);
+            byNameKeyCache.put(set[2], new String[] {set[2], set[1]});
+            // need to handle case where summer and winter have the same
+            // abbreviation, such as EST in Australia [1716305]
+            // we handle this by appending "-Summer", cf ZoneInfoCompiler
+            if (set[2].equals(set[4])) {
+                byNameKeyCache.put(set[4] + "-Summer", new String[] {set[4], set[3]});
+            } else {
+                byNameKeyCache.put(set[4], new String[] {set[4], set[3]});
+            }
+            byIdCache.put(set[0], byNameKeyCache);
+        }
+        return byIdCache;
     }
 }
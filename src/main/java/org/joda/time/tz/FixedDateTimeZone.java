@@ -57,6 +57,11 @@ public final class FixedDateTimeZone extends DateTimeZone {
         return iWallOffset;
     }
 
+    public int getOffsetFromLocal(long instantLocal, int resolution) {
+        checkResolution(resolution);
+        return iWallOffset;
+    }
+
     public boolean isFixed() {
         return true;
     }
@@ -0,0 +1,344 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.tz;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.joda.time.DateTimeZone;
+
+/**
+ * MappedZoneInfoProvider loads time zones from a single bundle file, as
+ * generated by {@link ZoneInfoCompiler} with the <code>-bundle</code> option.
+ * <p>
+ * The bundle is memory-mapped rather than read, and holds an index of the
+ * ids sorted for binary search. Ids are matched exactly, including case.
+ * Nothing is decoded when the provider is created. The first time a zone is
+ * requested, its data, including every transition, is decoded in full from
+ * the mapped buffer. The zone is then softly cached, as in
+ * {@link ZoneInfoProvider}. This suits processes that use many zones, as no
+ * file is opened per zone and no map of every id is built at startup.
+ * <p>
+ * MappedZoneInfoProvider is thread-safe and publicly immutable.
+ *
+ * @since 2.0
+ */
+public class MappedZoneInfoProvider implements Provider {
+
+    /** The magic number at the start of a bundle, 'JZDB'. */
+    static final int MAGIC = 0x4a5a4442;
+    /** The version of the bundle format. */
+    static final int VERSION = 1;
+    /** The size of the header of magic number, version and count. */
+    static final int HEADER_SIZE = 12;
+    /** The size of an index entry of name, canonical index, data offset and length. */
+    static final int ENTRY_SIZE = 16;
+
+    /** The bundle, only read using absolute methods. */
+    private final ByteBuffer iBuffer;
+    /** The number of ids in the index. */
+    private final int iCount;
+    /** SoftReferences to the decoded zones, by canonical index. */
+    private final AtomicReferenceArray iZones;
+
+    /**
+     * MappedZoneInfoProvider memory-maps the given bundle file.
+     *
+     * @param file  the bundle file, not null
+     * @throws IOException if the file cannot be mapped or is not a bundle
+     */
+    public MappedZoneInfoProvider(File file) throws IOException {
+        this(map(file));
+    }
+
+    /**
+     * MappedZoneInfoProvider reads zones from a buffer holding a bundle, such
+     * as the contents of a bundle loaded from the classpath.
+     * <p>
+     * The buffer must not be changed after it is passed in.
+     *
+     * @param buffer  the buffer holding the bundle, from position zero, not null
+     * @throws IOException if the buffer does not hold a bundle
+     */
+    public MappedZoneInfoProvider(ByteBuffer buffer) throws IOException {
+        if (buffer == null) {
+            throw new IllegalArgumentException("No buffer provided");
+        }
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a zone info bundle");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported zone info bundle version: " + buffer.getInt(4));
+        }
+        int count = buffer.getInt(8);
+        if (count < 0 || count > (buffer.limit() - HEADER_SIZE) / ENTRY_SIZE) {
+            throw new IOException("Corrupt zone info bundle");
+        }
+        iBuffer = buffer;
+        iCount = count;
+        iZones = new AtomicReferenceArray(count);
+    }
+
+    /**
+     * Maps a file into memory.
+     *
+     * @param file  the file to map
+     * @return the mapped buffer
+     * @throws IOException if the file cannot be mapped
+     */
+    private static ByteBuffer map(File file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("No file provided");
+        }
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            // the mapping remains valid after the file is closed
+            raf.close();
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the zone for the id, decoding it on first use.
+     * <p>
+     * If an error is thrown while decoding zone data, uncaughtException is
+     * called to log the error and null is returned.
+     *
+     * @param id  the id to load
+     * @return the loaded zone, null if not found
+     */
+    public DateTimeZone getZone(String id) {
+        if (id == null) {
+            return null;
+        }
+        if ("UTC".equals(id)) {
+            return DateTimeZone.UTC;
+        }
+        int index = findIndex(id);
+        if (index < 0) {
+            return null;
+        }
+        int canonical = iBuffer.getInt(entryPosition(index) + 4);
+        if (canonical < 0 || canonical >= iCount) {
+            uncaughtException(new IOException("Corrupt zone info bundle"));
+            return null;
+        }
+
+        SoftReference ref = (SoftReference) iZones.get(canonical);
+        if (ref != null) {
+            DateTimeZone tz = (DateTimeZone) ref.get();
+            if (tz != null) {
+                return tz;
+            }
+        }
+        // Decoding twice in a race is harmless, as the zones are equal.
+        try {
+            DateTimeZone tz = decodeZone(canonical);
+            iZones.set(canonical, new SoftReference(tz));
+            return tz;
+        } catch (IOException ex) {
+            uncaughtException(ex);
+            return null;
+        }
+    }
+
+    /**
+     * Gets a list of all the available zone ids.
+     *
+     * @return the zone ids
+     */
+    public Set getAvailableIDs() {
+        Set ids = new TreeSet();
+        try {
+            for (int i = 0; i < iCount; i++) {
+                ids.add(readName(i));
+            }
+        } catch (IOException ex) {
+            uncaughtException(ex);
+        }
+        ids.add("UTC");
+        return ids;
+    }
+
+    /**
+     * Called if an exception is thrown from getZone while decoding zone data.
+     *
+     * @param ex  the exception
+     */
+    protected void uncaughtException(Exception ex) {
+        Thread t = Thread.currentThread();
+        t.getThreadGroup().uncaughtException(t, ex);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Decodes the zone at an index.
+     *
+     * @param index  the canonical index
+     * @return the zone
+     * @throws IOException if the data is corrupt
+     */
+    private DateTimeZone decodeZone(int index) throws IOException {
+        int entry = entryPosition(index);
+        int offset = iBuffer.getInt(entry + 8);
+        int length = iBuffer.getInt(entry + 12);
+        return DateTimeZoneBuilder.readFrom(new BufferInputStream(iBuffer, offset, length), readName(index));
+    }
+
+    /**
+     * Finds the index of an id using a binary search.
+     *
+     * @param id  the id to find
+     * @return the index, negative if not found
+     */
+    private int findIndex(String id) {
+        int low = 0;
+        int high = iCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp;
+            try {
+                cmp = compareName(mid, id);
+            } catch (IOException ex) {
+                uncaughtException(ex);
+                return -1;
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the id at an index to an id, in the same way as
+     * String.compareTo, without decoding ASCII ids.
+     *
+     * @param index  the index of the id in the bundle
+     * @param id  the id to compare to
+     * @return negative, zero or positive as the bundle id is less, equal or greater
+     * @throws IOException if the data is corrupt
+     */
+    private int compareName(int index, String id) throws IOException {
+        ByteBuffer buffer = iBuffer;
+        int pos = nameOffset(index);
+        int length = buffer.getShort(pos) & 0xffff;
+        pos += 2;
+        int idLength = id.length();
+        int n = Math.min(length, idLength);
+        for (int i = 0; i < n; i++) {
+            int b = buffer.get(pos + i) & 0xff;
+            if (b >= 0x80) {
+                return readName(index).compareTo(id);
+            }
+            int c = id.charAt(i);
+            if (b != c) {
+                return b - c;
+            }
+        }
+        return length - idLength;
+    }
+
+    /**
+     * Reads the id at an index.
+     *
+     * @param index  the index of the id in the bundle
+     * @return the id
+     * @throws IOException if the data is corrupt
+     */
+    private String readName(int index) throws IOException {
+        int pos = nameOffset(index);
+        int length = (iBuffer.getShort(pos) & 0xffff) + 2;
+        return new DataInputStream(new BufferInputStream(iBuffer, pos, length)).readUTF();
+    }
+
+    private int nameOffset(int index) throws IOException {
+        int pos = iBuffer.getInt(entryPosition(index));
+        if (pos < 0 || pos > iBuffer.limit() - 2) {
+            throw new IOException("Corrupt zone info bundle");
+        }
+        return pos;
+    }
+
+    private static int entryPosition(int index) {
+        return HEADER_SIZE + index * ENTRY_SIZE;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Reads a range of a buffer using absolute methods, such that the
+     * buffer can be shared between threads.
+     */
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer iBuffer;
+        private int iPos;
+        private final int iEnd;
+
+        BufferInputStream(ByteBuffer buffer, int offset, int length) throws IOException {
+            if (offset < 0 || length < 0 || offset > buffer.limit() - length) {
+                throw new IOException("Corrupt zone info bundle");
+            }
+            iBuffer = buffer;
+            iPos = offset;
+            iEnd = offset + length;
+        }
+
+        public int read() {
+            if (iPos >= iEnd) {
+                return -1;
+            }
+            return iBuffer.get(iPos++) & 0xff;
+        }
+
+        public int read(byte[] bytes, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            int available = iEnd - iPos;
+            if (available <= 0) {
+                return -1;
+            }
+            if (len > available) {
+                len = available;
+            }
+            for (int i = 0; i < len; i++) {
+                bytes[off + i] = iBuffer.get(iPos++);
+            }
+            return len;
+        }
+
+        public int available() {
+            return iEnd - iPos;
+        }
+    }
+
+}
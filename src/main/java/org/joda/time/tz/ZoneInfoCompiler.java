@@ -15,7 +15,11 @@
  */
 package org.joda.time.tz;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -24,14 +28,23 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Properties;
 import java.util.StringTokenizer;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.joda.time.Chronology;
 import org.joda.time.DateTime;
@@ -54,6 +67,11 @@ import org.joda.time.format.ISODateTimeFormat;
  * compatible. The latest Olson database files may be obtained
  * <a href="http://www.twinsun.com/tz/tz-link.htm">here</a>.
  * <p>
+ * Source files may be parsed, and zones built and written, on several threads.
+ * In incremental mode a checksum of each zone's source is kept alongside the
+ * compiled files, and zones whose rules are unchanged are read back rather
+ * than rebuilt. A full compile is needed if the compiler itself changes.
+ * <p>
  * ZoneInfoCompiler is mutable and not thread-safe, although the main method
  * may be safely invoked by multiple threads.
  *
@@ -61,9 +79,14 @@ import org.joda.time.format.ISODateTimeFormat;
  * @since 1.0
  */
 public class ZoneInfoCompiler {
-    static DateTimeOfYear cStartOfYear;
+    // Created eagerly as the compile tasks read these from pool threads
+    static final DateTimeOfYear cStartOfYear = new DateTimeOfYear();
+
+    static final Chronology cLenientISO =
+        LenientChronology.getInstance(ISOChronology.getInstanceUTC());
 
-    static Chronology cLenientISO;
+    /** The file, in the output directory, holding the checksum of each zone. */
+    static final String CHECKSUMS_FILE = "ZoneInfoChecksums";
 
     /**
      * Launches the ZoneInfoCompiler tool.
@@ -73,6 +96,9 @@ public class ZoneInfoCompiler {
      * where possible options include:
      *   -src &lt;directory&gt;    Specify where to read source files
      *   -dst &lt;directory&gt;    Specify where to write generated files
+     *   -bundle &lt;file&gt;      Specify a single file to write all zones to
+     *   -threads &lt;count&gt;    Specify the number of threads to compile with
+     *   -incremental        Only rebuild zones whose source has changed
      * </pre>
      */
     public static void main(String[] args) throws Exception {
@@ -83,6 +109,9 @@ public class ZoneInfoCompiler {
 
         File inputDir = null;
         File outputDir = null;
+        File bundleFile = null;
+        int threads = 1;
+        boolean incremental = false;
 
         int i;
         for (i=0; i<args.length; i++) {
@@ -91,6 +120,12 @@ public class ZoneInfoCompiler {
                     inputDir = new File(args[++i]);
                 } else if ("-dst".equals(args[i])) {
                     outputDir = new File(args[++i]);
+                } else if ("-bundle".equals(args[i])) {
+                    bundleFile = new File(args[++i]);
+                } else if ("-threads".equals(args[i])) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if ("-incremental".equals(args[i])) {
+                    incremental = true;
                 } else if ("-?".equals(args[i])) {
                     printUsage();
                     return;
@@ -100,6 +135,9 @@ public class ZoneInfoCompiler {
             } catch (IndexOutOfBoundsException e) {
                 printUsage();
                 return;
+            } catch (NumberFormatException e) {
+                printUsage();
+                return;
             }
         }
 
@@ -114,7 +152,9 @@ public class ZoneInfoCompiler {
         }
 
         ZoneInfoCompiler zic = new ZoneInfoCompiler();
-        zic.compile(outputDir, sources);
+        zic.setThreads(threads);
+        zic.setIncremental(incremental);
+        zic.compile(outputDir, bundleFile, sources);
     }
 
     private static void printUsage() {
@@ -122,19 +162,16 @@ public class ZoneInfoCompiler {
         System.out.println("where possible options include:");
         System.out.println("  -src <directory>    Specify where to read source files");
         System.out.println("  -dst <directory>    Specify where to write generated files");
+        System.out.println("  -bundle <file>      Specify a single file to write all zones to");
+        System.out.println("  -threads <count>    Specify the number of threads to compile with");
+        System.out.println("  -incremental        Only rebuild zones whose source has changed");
     }
 
     static DateTimeOfYear getStartOfYear() {
-        if (cStartOfYear == null) {
-            cStartOfYear = new DateTimeOfYear();
-        }
         return cStartOfYear;
     }
 
     static Chronology getLenientISOChronology() {
-        if (cLenientISO == null) {
-            cLenientISO = LenientChronology.getInstance(ISOChronology.getInstanceUTC());
-        }
         return cLenientISO;
     }
 
@@ -189,6 +226,70 @@ public class ZoneInfoCompiler {
         }
     }
 
+    /**
+     * Writes all the zones to a single bundle file, as read by
+     * {@link MappedZoneInfoProvider}.
+     * <p>
+     * The bundle starts with a header of magic number, version and id count.
+     * The header is followed by a fixed width index, sorted by id,
+     * of name offset, canonical index, data offset and data length. The ids
+     * and the zone data, as encoded by DateTimeZoneBuilder, follow the index.
+     *
+     * @param dout  the output stream
+     * @param zimap  maps string ids to DateTimeZone objects, in id order
+     * @param encoded  maps the canonical string ids to encoded zone data
+     */
+    static void writeZoneInfoBundle(DataOutputStream dout, Map zimap, Map encoded) throws IOException {
+        String[] ids = (String[]) zimap.keySet().toArray(new String[zimap.size()]);
+        int count = ids.length;
+        int[] nameOffsets = new int[count];
+        int[] canonicalIndexes = new int[count];
+        int[] dataOffsets = new int[count];
+        int[] dataLengths = new int[count];
+
+        int base = MappedZoneInfoProvider.HEADER_SIZE + count * MappedZoneInfoProvider.ENTRY_SIZE;
+        ByteArrayOutputStream names = new ByteArrayOutputStream();
+        DataOutputStream namesOut = new DataOutputStream(names);
+        for (int i = 0; i < count; i++) {
+            nameOffsets[i] = base + namesOut.size();
+            namesOut.writeUTF(ids[i]);
+        }
+        namesOut.flush();
+
+        base += names.size();
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        for (int i = 0; i < count; i++) {
+            String id = ((DateTimeZone) zimap.get(ids[i])).getID();
+            int canonical = Arrays.binarySearch(ids, id);
+            byte[] bytes = (byte[]) encoded.get(id);
+            if (canonical < 0 || bytes == null) {
+                throw new IOException("No data for time zone '" + id + "'");
+            }
+            canonicalIndexes[i] = canonical;
+            if (canonical == i) {
+                dataOffsets[i] = base + data.size();
+                dataLengths[i] = bytes.length;
+                data.write(bytes);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            dataOffsets[i] = dataOffsets[canonicalIndexes[i]];
+            dataLengths[i] = dataLengths[canonicalIndexes[i]];
+        }
+
+        dout.writeInt(MappedZoneInfoProvider.MAGIC);
+        dout.writeInt(MappedZoneInfoProvider.VERSION);
+        dout.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            dout.writeInt(nameOffsets[i]);
+            dout.writeInt(canonicalIndexes[i]);
+            dout.writeInt(dataOffsets[i]);
+            dout.writeInt(dataLengths[i]);
+        }
+        names.writeTo(dout);
+        data.writeTo(dout);
+    }
+
     static int parseYear(String str, int def) {
         str = str.toLowerCase();
         if (str.equals("minimum") || str.equals("min")) {
@@ -336,12 +437,48 @@ public class ZoneInfoCompiler {
     // List String pairs to link.
     private List iLinks;
 
+    // Number of threads to compile with.
+    private int iThreads = 1;
+
+    // True to only rebuild zones whose source has changed.
+    private boolean iIncremental;
+
     public ZoneInfoCompiler() {
         iRuleSets = new HashMap();
         iZones = new ArrayList();
         iLinks = new ArrayList();
     }
 
+    /**
+     * Sets the number of threads used to parse source files and to build
+     * and write zones. The default of one compiles on the calling thread.
+     *
+     * @param threads  the number of threads, at least one
+     * @throws IllegalArgumentException if the number of threads is less than one
+     * @since 2.0
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be at least one: " + threads);
+        }
+        iThreads = threads;
+    }
+
+    /**
+     * Sets whether to only rebuild zones whose source has changed since the
+     * last incremental compile to the same output directory.
+     * <p>
+     * A zone is unchanged if its own lines and those of every rule it refers
+     * to are the same. Unchanged zones are read back from the output directory.
+     * Incremental mode has no effect if there is no output directory.
+     *
+     * @param incremental  true to compile incrementally
+     * @since 2.0
+     */
+    public void setIncremental(boolean incremental) {
+        iIncremental = incremental;
+    }
+
     /**
      * Returns a map of ids to DateTimeZones.
      *
@@ -349,12 +486,21 @@ public class ZoneInfoCompiler {
      * @param sources optional list of source files to parse
      */
     public Map compile(File outputDir, File[] sources) throws IOException {
+        return compile(outputDir, null, sources);
+    }
+
+    /**
+     * Returns a map of ids to DateTimeZones.
+     *
+     * @param outputDir optional directory to write compiled data files to
+     * @param bundleFile optional file to write all compiled data to, as read
+     *  by {@link MappedZoneInfoProvider}
+     * @param sources optional list of source files to parse
+     * @since 2.0
+     */
+    public Map compile(File outputDir, File bundleFile, File[] sources) throws IOException {
         if (sources != null) {
-            for (int i=0; i<sources.length; i++) {
-                BufferedReader in = new BufferedReader(new FileReader(sources[i]));
-                parseDataFile(in);
-                in.close();
-            }
+            parseDataFiles(sources);
         }
 
         if (outputDir != null) {
@@ -366,37 +512,46 @@ public class ZoneInfoCompiler {
             }
         }
 
-        Map map = new TreeMap();
+        boolean incremental = iIncremental && outputDir != null;
+        Properties previousChecksums = new Properties();
+        if (incremental) {
+            readChecksums(outputDir, previousChecksums);
+        }
 
+        List tasks = new ArrayList(iZones.size());
         for (int i=0; i<iZones.size(); i++) {
-            Zone zone = (Zone)iZones.get(i);
-            DateTimeZoneBuilder builder = new DateTimeZoneBuilder();
-            zone.addToBuilder(builder, iRuleSets);
-            final DateTimeZone original = builder.toDateTimeZone(zone.iName, true);
-            DateTimeZone tz = original;
-            if (test(tz.getID(), tz)) {
-                map.put(tz.getID(), tz);
-                if (outputDir != null) {
-                    System.out.println("Writing " + tz.getID());
-                    File file = new File(outputDir, tz.getID());
-                    if (!file.getParentFile().exists()) {
-                        file.getParentFile().mkdirs();
-                    }
-                    OutputStream out = new FileOutputStream(file);
-                    builder.writeTo(zone.iName, out);
-                    out.close();
+            tasks.add(new ZoneTask((Zone)iZones.get(i), iRuleSets, outputDir,
+                                   bundleFile != null, incremental ? previousChecksums : null));
+        }
+        Object[] compiled = execute(tasks);
 
-                    // Test if it can be read back.
-                    InputStream in = new FileInputStream(file);
-                    DateTimeZone tz2 = DateTimeZoneBuilder.readFrom(in, tz.getID());
-                    in.close();
+        Map map = new TreeMap();
+        Map encoded = new HashMap();
+        Properties checksums = new Properties();
+
+        for (int i=0; i<compiled.length; i++) {
+            CompiledZone result = (CompiledZone)compiled[i];
+            if (result != null) {
+                String id = result.iZone.getID();
+                map.put(id, result.iZone);
+                if (result.iEncoded != null) {
+                    encoded.put(id, result.iEncoded);
+                }
+                checksums.setProperty(id, result.iChecksum);
+            }
+        }
 
-                    if (!original.equals(tz2)) {
-                        System.out.println("*e* Error in " + tz.getID() +
-                                           ": Didn't read properly from file");
-                    }
+        if (incremental) {
+            // Remove zones no longer in the source, then record the new checksums.
+            Iterator it = previousChecksums.keySet().iterator();
+            while (it.hasNext()) {
+                String id = (String)it.next();
+                if (!checksums.containsKey(id)) {
+                    System.out.println("Removing " + id);
+                    new File(outputDir, id).delete();
                 }
             }
+            writeChecksums(outputDir, checksums);
         }
 
         for (int pass=0; pass<2; pass++) {
@@ -431,9 +586,146 @@ public class ZoneInfoCompiler {
             dout.close();
         }
 
+        if (bundleFile != null) {
+            System.out.println("Writing " + bundleFile);
+            File parent = bundleFile.getAbsoluteFile().getParentFile();
+            if (!parent.exists()) {
+                parent.mkdirs();
+            }
+
+            Map zimap = new TreeMap(map);
+            DataOutputStream dout = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(bundleFile)));
+            try {
+                writeZoneInfoBundle(dout, zimap, encoded);
+            } finally {
+                dout.close();
+            }
+        }
+
         return map;
     }
 
+    /**
+     * Parses the source files, in parallel if there is more than one thread.
+     * The results are merged in the order of the files.
+     *
+     * @param sources  the source files
+     */
+    private void parseDataFiles(File[] sources) throws IOException {
+        List tasks = new ArrayList(sources.length);
+        for (int i=0; i<sources.length; i++) {
+            final File source = sources[i];
+            tasks.add(new Callable() {
+                public Object call() throws IOException {
+                    ZoneInfoCompiler parsed = new ZoneInfoCompiler();
+                    BufferedReader in = new BufferedReader(new FileReader(source));
+                    try {
+                        parsed.parseDataFile(in);
+                    } finally {
+                        in.close();
+                    }
+                    return parsed;
+                }
+            });
+        }
+        Object[] parsed = execute(tasks);
+
+        for (int i=0; i<parsed.length; i++) {
+            ZoneInfoCompiler other = (ZoneInfoCompiler)parsed[i];
+            Iterator it = other.iRuleSets.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry entry = (Map.Entry)it.next();
+                RuleSet rs = (RuleSet)iRuleSets.get(entry.getKey());
+                if (rs == null) {
+                    iRuleSets.put(entry.getKey(), entry.getValue());
+                } else {
+                    rs.addRules((RuleSet)entry.getValue());
+                }
+            }
+            iZones.addAll(other.iZones);
+            iLinks.addAll(other.iLinks);
+        }
+    }
+
+    /**
+     * Runs the tasks, on a pool of threads if there is more than one.
+     *
+     * @param tasks  the list of Callable tasks
+     * @return the results, in the order of the tasks
+     */
+    private Object[] execute(List tasks) throws IOException {
+        Object[] results = new Object[tasks.size()];
+        if (iThreads == 1 || tasks.size() <= 1) {
+            for (int i=0; i<results.length; i++) {
+                try {
+                    results[i] = ((Callable)tasks.get(i)).call();
+                } catch (IOException ex) {
+                    throw ex;
+                } catch (RuntimeException ex) {
+                    throw ex;
+                } catch (Exception ex) {
+                    throw new IOException(ex.toString());
+                }
+            }
+            return results;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(iThreads, tasks.size()));
+        try {
+            Future[] futures = new Future[results.length];
+            for (int i=0; i<futures.length; i++) {
+                futures[i] = executor.submit((Callable)tasks.get(i));
+            }
+            for (int i=0; i<futures.length; i++) {
+                try {
+                    results[i] = futures[i].get();
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    if (cause instanceof IOException) {
+                        throw (IOException)cause;
+                    }
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException)cause;
+                    }
+                    if (cause instanceof Error) {
+                        throw (Error)cause;
+                    }
+                    throw new IOException(cause.toString());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while compiling");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    private static void readChecksums(File outputDir, Properties checksums) throws IOException {
+        File file = new File(outputDir, CHECKSUMS_FILE);
+        if (file.exists()) {
+            InputStream in = new BufferedInputStream(new FileInputStream(file));
+            try {
+                checksums.load(in);
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    private static void writeChecksums(File outputDir, Properties checksums) throws IOException {
+        System.out.println("Writing " + CHECKSUMS_FILE);
+        OutputStream out = new BufferedOutputStream(
+            new FileOutputStream(new File(outputDir, CHECKSUMS_FILE)));
+        try {
+            checksums.store(out, "Checksums of the source of each compiled zone");
+        } finally {
+            out.close();
+        }
+    }
+
     public void parseDataFile(BufferedReader in) throws IOException {
         Zone zone = null;
         String line;
@@ -492,6 +784,107 @@ public class ZoneInfoCompiler {
         }
     }
 
+    /**
+     * The result of compiling one zone.
+     */
+    private static class CompiledZone {
+        final DateTimeZone iZone;
+        final byte[] iEncoded;
+        final String iChecksum;
+
+        CompiledZone(DateTimeZone zone, byte[] encoded, String checksum) {
+            iZone = zone;
+            iEncoded = encoded;
+            iChecksum = checksum;
+        }
+    }
+
+    /**
+     * Builds, tests and writes one zone, or reads it back if unchanged.
+     * Returns null if the zone fails its tests.
+     */
+    private static class ZoneTask implements Callable {
+        private final Zone iZone;
+        private final Map iRuleSets;
+        private final File iOutputDir;
+        private final boolean iEncode;
+        private final Properties iPreviousChecksums;
+
+        ZoneTask(Zone zone, Map ruleSets, File outputDir, boolean encode, Properties previousChecksums) {
+            iZone = zone;
+            iRuleSets = ruleSets;
+            iOutputDir = outputDir;
+            iEncode = encode;
+            iPreviousChecksums = previousChecksums;
+        }
+
+        public Object call() throws IOException {
+            String checksum = iZone.checksum(iRuleSets);
+            if (iPreviousChecksums != null && checksum.equals(iPreviousChecksums.getProperty(iZone.iName))) {
+                File file = new File(iOutputDir, iZone.iName);
+                if (file.isFile()) {
+                    byte[] bytes = readFile(file);
+                    DateTimeZone tz = DateTimeZoneBuilder.readFrom(
+                        new ByteArrayInputStream(bytes), iZone.iName);
+                    return new CompiledZone(tz, iEncode ? bytes : null, checksum);
+                }
+            }
+
+            DateTimeZoneBuilder builder = new DateTimeZoneBuilder();
+            iZone.addToBuilder(builder, iRuleSets);
+            final DateTimeZone original = builder.toDateTimeZone(iZone.iName, true);
+            DateTimeZone tz = original;
+            if (!test(tz.getID(), tz)) {
+                return null;
+            }
+            byte[] bytes = null;
+            if (iEncode || iOutputDir != null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                builder.writeTo(iZone.iName, out);
+                bytes = out.toByteArray();
+            }
+            if (iOutputDir != null) {
+                System.out.println("Writing " + tz.getID());
+                File file = new File(iOutputDir, tz.getID());
+                if (!file.getParentFile().exists()) {
+                    file.getParentFile().mkdirs();
+                }
+                OutputStream out = new FileOutputStream(file);
+                try {
+                    out.write(bytes);
+                } finally {
+                    out.close();
+                }
+
+                // Test if it can be read back.
+                InputStream in = new FileInputStream(file);
+                DateTimeZone tz2 = DateTimeZoneBuilder.readFrom(in, tz.getID());
+                in.close();
+
+                if (!original.equals(tz2)) {
+                    System.out.println("*e* Error in " + tz.getID() +
+                                       ": Didn't read properly from file");
+                }
+            }
+            return new CompiledZone(tz, iEncode ? bytes : null, checksum);
+        }
+
+        private static byte[] readFile(File file) throws IOException {
+            InputStream in = new FileInputStream(file);
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream((int)file.length());
+                byte[] buf = new byte[4096];
+                int amt;
+                while ((amt = in.read(buf)) > 0) {
+                    out.write(buf, 0, amt);
+                }
+                return out.toByteArray();
+            } finally {
+                in.close();
+            }
+        }
+    }
+
     static class DateTimeOfYear {
         public final int iMonthOfYear;
         public final int iDayOfMonth;
@@ -700,6 +1093,12 @@ public class ZoneInfoCompiler {
             iRules.add(rule);
         }
 
+        void addRules(RuleSet other) {
+            for (int i=0; i<other.iRules.size(); i++) {
+                addRule((Rule)other.iRules.get(i));
+            }
+        }
+
         /**
          * Adds recurring savings rules to the builder.
          */
@@ -753,6 +1152,32 @@ public class ZoneInfoCompiler {
             }
         }
 
+        /**
+         * Returns a checksum of this zone and all the rules it refers to.
+         */
+        String checksum(Map ruleSets) throws IOException {
+            StringBuffer buf = new StringBuffer(toString());
+            for (Zone zone = this; zone != null; zone = zone.iNext) {
+                RuleSet rs = (zone.iRules == null ? null : (RuleSet)ruleSets.get(zone.iRules));
+                if (rs != null) {
+                    for (int i=0; i<rs.iRules.size(); i++) {
+                        buf.append(rs.iRules.get(i));
+                    }
+                }
+            }
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-1").digest(buf.toString().getBytes("UTF-8"));
+                StringBuffer hex = new StringBuffer(digest.length * 2);
+                for (int i=0; i<digest.length; i++) {
+                    hex.append(Character.forDigit((digest[i] >> 4) & 0xf, 16));
+                    hex.append(Character.forDigit(digest[i] & 0xf, 16));
+                }
+                return hex.toString();
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException(ex.toString());
+            }
+        }
+
         /*
         public DateTimeZone buildDateTimeZone(Map ruleSets) {
             DateTimeZoneBuilder builder = new DateTimeZoneBuilder();
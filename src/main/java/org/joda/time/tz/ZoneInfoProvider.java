@@ -21,10 +21,14 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.ref.SoftReference;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.joda.time.DateTimeZone;
 
@@ -33,6 +37,9 @@ import org.joda.time.DateTimeZone;
  * {@link ZoneInfoCompiler}.
  * <p>
  * ZoneInfoProvider is thread-safe and publicly immutable.
+ * Zones that have already been loaded are returned without locking.
+ * Each zone is loaded at most once at a time, and different zones may be
+ * loaded by different threads in parallel.
  *
  * @author Brian S O'Neill
  * @since 1.0
@@ -45,8 +52,10 @@ public class ZoneInfoProvider implements Provider {
     private final String iResourcePath;
     /** The class loader to use. */
     private final ClassLoader iLoader;
-    /** Maps ids to strings or SoftReferences to DateTimeZones. */
+    /** Maps ids to the ids of the zones they link to, never changed after construction. */
     private final Map iZoneInfoMap;
+    /** Maps zone ids to ZoneEntry objects, created on demand. */
+    private final ConcurrentMap iZones = new ConcurrentHashMap();
 
     /**
      * ZoneInfoProvider searches the given directory for compiled data files.
@@ -69,6 +78,7 @@ public class ZoneInfoProvider implements Provider {
         iLoader = null;
 
         iZoneInfoMap = loadZoneInfoMap(openResource("ZoneInfoMap"));
+        iZones.put("UTC", new ZoneEntry(DateTimeZone.UTC));
     }
 
     /**
@@ -121,6 +131,7 @@ public class ZoneInfoProvider implements Provider {
         iLoader = loader;
 
         iZoneInfoMap = loadZoneInfoMap(openResource("ZoneInfoMap"));
+        iZones.put("UTC", new ZoneEntry(DateTimeZone.UTC));
     }
 
     //-----------------------------------------------------------------------
@@ -132,32 +143,41 @@ public class ZoneInfoProvider implements Provider {
      * @param id  the id to load
      * @return the loaded zone
      */
-    public synchronized DateTimeZone getZone(String id) {
+    public DateTimeZone getZone(String id) {
+        ZoneEntry entry = getEntry(id);
+        return (entry == null ? null : entry.getZone(this));
+    }
+
+    /**
+     * Gets the entry for the zone an id refers to, following links.
+     * 
+     * @param id  the id to find
+     * @return the entry, null if the id is not known
+     */
+    private ZoneEntry getEntry(String id) {
         if (id == null) {
             return null;
         }
 
-        Object obj = iZoneInfoMap.get(id);
-        if (obj == null) {
+        String target = (String) iZoneInfoMap.get(id);
+        if (target == null) {
             return null;
         }
 
-        if (id.equals(obj)) {
-            // Load zone data for the first time.
-            return loadZoneData(id);
+        if (id.equals(target) == false) {
+            // Mapping links to another.
+            return getEntry(target);
         }
 
-        if (obj instanceof SoftReference) {
-            DateTimeZone tz = (DateTimeZone)((SoftReference)obj).get();
-            if (tz != null) {
-                return tz;
+        ZoneEntry entry = (ZoneEntry) iZones.get(id);
+        if (entry == null) {
+            entry = new ZoneEntry(id);
+            ZoneEntry existing = (ZoneEntry) iZones.putIfAbsent(id, entry);
+            if (existing != null) {
+                entry = existing;
             }
-            // Reference cleared; load data again.
-            return loadZoneData(id);
         }
-
-        // If this point is reached, mapping must link to another.
-        return getZone((String)obj);
+        return entry;
     }
 
     /**
@@ -165,11 +185,58 @@ public class ZoneInfoProvider implements Provider {
      * 
      * @return the zone ids
      */
-    public synchronized Set getAvailableIDs() {
+    public Set getAvailableIDs() {
         // Return a copy of the keys rather than an umodifiable collection.
-        // This prevents ConcurrentModificationExceptions from being thrown by
-        // some JVMs if zones are opened while this set is iterated over.
-        return new TreeSet(iZoneInfoMap.keySet());
+        Set ids = new TreeSet(iZoneInfoMap.keySet());
+        Iterator it = iZones.values().iterator();
+        while (it.hasNext()) {
+            ZoneEntry entry = (ZoneEntry) it.next();
+            if (entry.isFailed()) {
+                ids.remove(entry.iID);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Loads the listed zones now, rather than when they are first requested.
+     * <p>
+     * This can be used at startup to avoid the cost of loading zone data
+     * later. Ids that are not known are ignored. Unlike zones loaded on
+     * request, which are softly referenced, preloaded zones are held strongly
+     * for the life of the provider, thus they are never reloaded.
+     * 
+     * @param ids  the zone ids to load, not null
+     * @since 2.0
+     */
+    public void preload(Collection ids) {
+        Iterator it = ids.iterator();
+        while (it.hasNext()) {
+            ZoneEntry entry = getEntry((String) it.next());
+            if (entry != null) {
+                entry.preload(this);
+            }
+        }
+    }
+
+    /**
+     * Loads all the available zones now, rather than when they are first requested.
+     * 
+     * @since 2.0
+     */
+    public void preloadAll() {
+        preload(iZoneInfoMap.keySet());
+    }
+
+    /**
+     * Checks whether the zone an id refers to has been preloaded.
+     * 
+     * @param id  the id to check
+     * @return true if the zone is held strongly
+     */
+    boolean isPreloaded(String id) {
+        ZoneEntry entry = getEntry(id);
+        return entry != null && entry.iPreloaded != null;
     }
 
     /**
@@ -216,18 +283,15 @@ public class ZoneInfoProvider implements Provider {
      * Loads the time zone data for one id.
      * 
      * @param id  the id to load
-     * @return the zone
+     * @return the zone, null if it could not be loaded
      */
     private DateTimeZone loadZoneData(String id) {
         InputStream in = null;
         try {
             in = openResource(id);
-            DateTimeZone tz = DateTimeZoneBuilder.readFrom(in, id);
-            iZoneInfoMap.put(id, new SoftReference(tz));
-            return tz;
+            return DateTimeZoneBuilder.readFrom(in, id);
         } catch (IOException e) {
             uncaughtException(e);
-            iZoneInfoMap.remove(id);
             return null;
         } finally {
             try {
@@ -257,7 +321,7 @@ public class ZoneInfoProvider implements Provider {
             } catch (IOException e) {
             }
         }
-        map.put("UTC", new SoftReference(DateTimeZone.UTC));
+        map.put("UTC", "UTC");
         return map;
     }
 
@@ -286,4 +350,76 @@ public class ZoneInfoProvider implements Provider {
         }
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Holds the zone for one id, loading it at most once at a time.
+     */
+    private static final class ZoneEntry {
+        /** The zone id. */
+        final String iID;
+        /** The soft reference to the loaded zone, null if not loaded. */
+        private volatile SoftReference iZoneRef;
+        /** The preloaded zone, held strongly, null if not preloaded. */
+        volatile DateTimeZone iPreloaded;
+        /** Whether loading failed, in which case null is always returned. */
+        private volatile boolean iFailed;
+
+        ZoneEntry(String id) {
+            iID = id;
+        }
+
+        ZoneEntry(DateTimeZone zone) {
+            iID = zone.getID();
+            iZoneRef = new SoftReference(zone);
+        }
+
+        boolean isFailed() {
+            return iFailed;
+        }
+
+        void preload(ZoneInfoProvider provider) {
+            if (iPreloaded == null) {
+                iPreloaded = getZone(provider);
+            }
+        }
+
+        DateTimeZone getZone(ZoneInfoProvider provider) {
+            DateTimeZone preloaded = iPreloaded;
+            if (preloaded != null) {
+                return preloaded;
+            }
+            SoftReference ref = iZoneRef;
+            if (ref != null) {
+                DateTimeZone tz = (DateTimeZone) ref.get();
+                if (tz != null) {
+                    return tz;
+                }
+            }
+            if (iFailed) {
+                return null;
+            }
+            synchronized (this) {
+                // Check again in case another thread loaded the zone.
+                ref = iZoneRef;
+                if (ref != null) {
+                    DateTimeZone tz = (DateTimeZone) ref.get();
+                    if (tz != null) {
+                        return tz;
+                    }
+                }
+                if (iFailed) {
+                    return null;
+                }
+                // Load zone data for the first time, or reload if the reference was cleared.
+                DateTimeZone tz = provider.loadZoneData(iID);
+                if (tz == null) {
+                    iFailed = true;
+                } else {
+                    iZoneRef = new SoftReference(tz);
+                }
+                return tz;
+            }
+        }
+    }
+
 }
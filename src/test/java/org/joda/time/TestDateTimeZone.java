@@ -30,13 +30,17 @@ import java.security.Policy;
 import java.security.ProtectionDomain;
 import java.util.HashSet;
 import java.util.Locale;
+import java.util.Random;
 import java.util.Set;
 import java.util.TimeZone;
 
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
+import org.joda.time.chrono.GregorianChronology;
+import org.joda.time.tz.CachedDateTimeZone;
 import org.joda.time.tz.DefaultNameProvider;
+import org.joda.time.tz.FixedDateTimeZone;
 import org.joda.time.tz.NameProvider;
 import org.joda.time.tz.Provider;
 import org.joda.time.tz.UTCProvider;
@@ -283,6 +287,55 @@ public class TestDateTimeZone extends TestCase {
                         4 * 60 * 60 * 1000 + 45 * 60 * 1000 + 17 * 1000 + 45));
     }        
 
+    public void testForOffsetMillis_int_cached() {
+        int[] offsets = {
+            3600000, -3600000, 20700000, -12600000, 86399999, -86399999,
+            86400000, -86400000, 4 * 60 * 60 * 1000 + 45 * 60 * 1000 + 17 * 1000 + 45,
+        };
+        for (int i = 0; i < offsets.length; i++) {
+            DateTimeZone zone = DateTimeZone.forOffsetMillis(offsets[i]);
+            assertEquals(offsets[i], zone.getOffset(0L));
+            assertEquals(true, zone.isFixed());
+            assertSame(zone, DateTimeZone.forOffsetMillis(offsets[i]));
+            if (Math.abs(offsets[i]) < 86400000) {
+                assertSame(zone, DateTimeZone.forID(zone.getID()));
+            }
+        }
+        assertEquals("+05:45", DateTimeZone.forOffsetMillis(20700000).getID());
+        assertEquals("-03:30", DateTimeZone.forOffsetHoursMinutes(-3, 30).getID());
+        assertEquals("+24:00", DateTimeZone.forOffsetMillis(86400000).getID());
+        assertSame(DateTimeZone.forOffsetHoursMinutes(5, 45), DateTimeZone.forID("+05:45"));
+    }
+
+    public void testForOffsetMillis_int_concurrent() throws Exception {
+        // offsets off the 15 minute grid, each first requested by all threads at once
+        final int[] offsets = {12345678, -12345679, 7654321, -7654322};
+        final DateTimeZone[][] zones = new DateTimeZone[8][offsets.length];
+        Thread[] threads = new Thread[zones.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < offsets.length; j++) {
+                        zones[index][j] = DateTimeZone.forOffsetMillis(offsets[j]);
+                    }
+                }
+            };
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+        for (int j = 0; j < offsets.length; j++) {
+            assertEquals(offsets[j], zones[0][j].getOffset(0L));
+            for (int i = 1; i < zones.length; i++) {
+                assertSame(zones[0][j], zones[i][j]);
+            }
+        }
+    }
+
     //-----------------------------------------------------------------------
     public void testForTimeZone_TimeZone() {
         assertEquals(DateTimeZone.getDefault(), DateTimeZone.forTimeZone((TimeZone) null));
@@ -316,6 +369,56 @@ public class TestDateTimeZone extends TestCase {
         assertEquals("America/New_York", zone.getID());
     }
 
+    public void testForTimeZone_TimeZone_cached() {
+        TimeZone london = TimeZone.getTimeZone("Europe/London");
+        DateTimeZone zone = DateTimeZone.forTimeZone(london);
+        assertSame(zone, DateTimeZone.forTimeZone(london));
+        assertSame(zone, DateTimeZone.forTimeZone(TimeZone.getTimeZone("Europe/London")));
+        assertSame(DateTimeZone.forTimeZone(TimeZone.getTimeZone("EST")),
+                DateTimeZone.forTimeZone(TimeZone.getTimeZone("EST")));
+        try {
+            DateTimeZone.setProvider(new MockOKProvider());
+            // the cache is cleared when the provider changes
+            assertSame(DateTimeZone.UTC, DateTimeZone.forTimeZone(london));
+        } finally {
+            DateTimeZone.setProvider(null);
+        }
+        assertEquals("Europe/London", DateTimeZone.forTimeZone(london).getID());
+    }
+
+    public void testSetProvider_reload() {
+        DateTimeZone london = DateTimeZone.forID("Europe/London");
+        DateTimeZone paris = DateTimeZone.forID("Europe/Paris");
+        Chronology londonChrono = GregorianChronology.getInstance(london);
+        Chronology parisChrono = GregorianChronology.getInstance(paris);
+        try {
+            DateTimeZone.setDefault(paris);
+            DateTimeZone.setProvider(new MockChangedLondonProvider());
+            // the default is kept if the new provider does not have it
+            assertSame(paris, DateTimeZone.getDefault());
+            DateTimeZone.setDefault(london);
+            DateTimeZone changed = DateTimeZone.forID("Europe/London");
+            assertEquals(3600000, changed.getOffset(0L));
+
+            DateTimeZone.setProvider(new MockChangedLondonProvider());
+            // the default is moved onto the new data
+            assertEquals(changed, DateTimeZone.getDefault());
+            // a zone with changed rules gets its own chronology
+            Chronology changedChrono = GregorianChronology.getInstance(changed);
+            assertNotSame(londonChrono, changedChrono);
+            assertEquals(3600000, changedChrono.getZone().getOffset(0L));
+            // the old zone keeps its chronology, which is still correct for it
+            assertSame(londonChrono, GregorianChronology.getInstance(london));
+            assertSame(parisChrono, GregorianChronology.getInstance(paris));
+            assertSame(GregorianChronology.getInstanceUTC(), GregorianChronology.getInstance(DateTimeZone.UTC));
+        } finally {
+            DateTimeZone.setProvider(null);
+        }
+        DateTimeZone reloaded = DateTimeZone.forID("Europe/London");
+        assertNotSame(london, reloaded);
+        assertEquals(london, reloaded);
+    }
+
     public void testTimeZoneConversion() {
         TimeZone jdkTimeZone = TimeZone.getTimeZone("GMT-10");
         assertEquals("GMT-10:00", jdkTimeZone.getID());
@@ -468,6 +571,24 @@ public class TestDateTimeZone extends TestCase {
         }
     }
 
+    static class MockChangedLondonProvider implements Provider {
+        public Set getAvailableIDs() {
+            Set set = new HashSet();
+            set.add("UTC");
+            set.add("Europe/London");
+            return set;
+        }
+        public DateTimeZone getZone(String id) {
+            if ("UTC".equals(id)) {
+                return DateTimeZone.UTC;
+            }
+            if ("Europe/London".equals(id)) {
+                return new FixedDateTimeZone("Europe/London", "BST", 3600000, 3600000);
+            }
+            return null;
+        }
+    }
+
     //-----------------------------------------------------------------------
     public void testNameProvider() {
         try {
@@ -698,6 +819,99 @@ public class TestDateTimeZone extends TestCase {
         assertEquals(zone.getOffset(DateTimeUtils.currentTimeMillis()), zone.getOffset(null));
     }
 
+    //-----------------------------------------------------------------------
+    private static final DateTimeZone[] BULK_ZONES = new DateTimeZone[] {
+        DateTimeZone.UTC, DateTimeZone.forID("+01:00"), PARIS, LONDON,
+        DateTimeZone.forID("America/New_York"), DateTimeZone.forID("Australia/Sydney"),
+    };
+
+    private long[] bulkInstants(boolean sorted) {
+        Random random = new Random(sorted ? 1 : 2);
+        long[] instants = new long[5000];
+        long instant = TEST_TIME_WINTER - 3L * 365 * DateTimeConstants.MILLIS_PER_DAY;
+        for (int i = 0; i < instants.length; i++) {
+            if (sorted) {
+                // roughly quarter hour steps, which land in every gap and overlap
+                instant += random.nextInt(30 * DateTimeConstants.MILLIS_PER_MINUTE);
+                instants[i] = instant;
+            } else {
+                instants[i] = instant + (random.nextLong() % (10L * 365 * DateTimeConstants.MILLIS_PER_DAY));
+            }
+        }
+        return instants;
+    }
+
+    public void testGetOffsets() {
+        for (int s = 0; s < 2; s++) {
+            long[] instants = bulkInstants(s == 0);
+            for (int z = 0; z < BULK_ZONES.length; z++) {
+                DateTimeZone zone = BULK_ZONES[z];
+                int[] offsets = new int[instants.length];
+                zone.getOffsets(instants, offsets, 1, instants.length - 1);
+                assertEquals(0, offsets[0]);
+                for (int i = 1; i < instants.length; i++) {
+                    assertEquals(zone.getOffset(instants[i]), offsets[i]);
+                }
+            }
+        }
+    }
+
+    public void testConvertUTCToLocal_array() {
+        for (int s = 0; s < 2; s++) {
+            long[] instants = bulkInstants(s == 0);
+            for (int z = 0; z < BULK_ZONES.length; z++) {
+                DateTimeZone zone = BULK_ZONES[z];
+                long[] local = (long[]) instants.clone();
+                zone.convertUTCToLocal(local, local, 0, local.length);
+                for (int i = 0; i < instants.length; i++) {
+                    assertEquals(zone.convertUTCToLocal(instants[i]), local[i]);
+                }
+            }
+        }
+        try {
+            PARIS.convertUTCToLocal(new long[] {0L, Long.MAX_VALUE}, new long[2], 0, 2);
+            fail();
+        } catch (ArithmeticException ex) {}
+    }
+
+    public void testConvertLocalToUTC_array() {
+        for (int s = 0; s < 2; s++) {
+            long[] instants = bulkInstants(s == 0);
+            for (int z = 0; z < BULK_ZONES.length; z++) {
+                DateTimeZone zone = BULK_ZONES[z];
+                long[] utc = new long[instants.length];
+                zone.convertLocalToUTC(instants, utc, 0, instants.length, false);
+                for (int i = 0; i < instants.length; i++) {
+                    assertEquals(zone.convertLocalToUTC(instants[i], false), utc[i]);
+                }
+            }
+        }
+        // 2010-03-28T02:30 does not exist in Paris
+        long gap = new DateTime(2010, 3, 28, 2, 30, 0, 0, DateTimeZone.UTC).getMillis();
+        long[] local = new long[] {gap - DateTimeConstants.MILLIS_PER_HOUR, gap};
+        try {
+            PARIS.convertLocalToUTC(local, new long[2], 0, 2, true);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    public void testBulkConversion_badRange() {
+        long[] instants = new long[4];
+        PARIS.getOffsets(instants, new int[4], 4, 0);
+        try {
+            PARIS.getOffsets(instants, new int[3], 1, 3);
+            fail();
+        } catch (IndexOutOfBoundsException ex) {}
+        try {
+            PARIS.convertUTCToLocal(instants, instants, -1, 2);
+            fail();
+        } catch (IndexOutOfBoundsException ex) {}
+        try {
+            PARIS.convertLocalToUTC(instants, instants, 3, 2, false);
+            fail();
+        } catch (IndexOutOfBoundsException ex) {}
+    }
+
     //-----------------------------------------------------------------------
     public void testGetMillisKeepLocal() {
         long millisLondon = TEST_TIME_SUMMER;
@@ -804,6 +1018,166 @@ public class TestDateTimeZone extends TestCase {
         assertEquals(false, zone.isLocalDateTimeGap(new LocalDateTime(2007, 12, 24, 12, 34)));
     }
 
+    //-----------------------------------------------------------------------
+    public void testGetOffsetFromLocal_resolution_Berlin() {
+        DateTimeZone zone = DateTimeZone.forID("Europe/Berlin");
+        for (int year = 2007; year <= 2107; year += 100) {
+            // find the last Sundays of March and October
+            LocalDateTime march = new LocalDateTime(year, 3, 31, 2, 30);
+            march = march.minusDays(march.getDayOfWeek() % 7);
+            LocalDateTime october = new LocalDateTime(year, 10, 31, 2, 30);
+            october = october.minusDays(october.getDayOfWeek() % 7);
+
+            assertOffsetFromLocal(zone, march.minusHours(1), 3600000, 3600000, 3600000);
+            assertOffsetFromLocal(zone, march, 3600000, 7200000, DateTimeZone.INVALID_OFFSET);
+            assertOffsetFromLocal(zone, march.plusHours(1), 7200000, 7200000, 7200000);
+            assertOffsetFromLocal(zone, october.minusHours(1), 7200000, 7200000, 7200000);
+            assertOffsetFromLocal(zone, october, 7200000, 3600000, DateTimeZone.INVALID_OFFSET);
+            assertOffsetFromLocal(zone, october.plusHours(1), 3600000, 3600000, 3600000);
+        }
+    }
+
+    public void testGetOffsetFromLocal_resolution_NewYork() {
+        DateTimeZone zone = DateTimeZone.forID("America/New_York");
+        assertOffsetFromLocal(zone, new LocalDateTime(2007, 3, 11, 1, 59, 59, 999), -18000000, -18000000, -18000000);
+        assertOffsetFromLocal(zone, new LocalDateTime(2007, 3, 11, 2, 0), -18000000, -14400000, DateTimeZone.INVALID_OFFSET);
+        assertOffsetFromLocal(zone, new LocalDateTime(2007, 3, 11, 2, 59, 59, 999), -18000000, -14400000, DateTimeZone.INVALID_OFFSET);
+        assertOffsetFromLocal(zone, new LocalDateTime(2007, 3, 11, 3, 0), -14400000, -14400000, -14400000);
+        assertOffsetFromLocal(zone, new LocalDateTime(2007, 11, 4, 0, 59, 59, 999), -14400000, -14400000, -14400000);
+        assertOffsetFromLocal(zone, new LocalDateTime(2007, 11, 4, 1, 0), -14400000, -18000000, DateTimeZone.INVALID_OFFSET);
+        assertOffsetFromLocal(zone, new LocalDateTime(2007, 11, 4, 1, 59, 59, 999), -14400000, -18000000, DateTimeZone.INVALID_OFFSET);
+        assertOffsetFromLocal(zone, new LocalDateTime(2007, 11, 4, 2, 0), -18000000, -18000000, -18000000);
+    }
+
+    public void testGetOffsetFromLocal_resolution_fixed() {
+        DateTimeZone zone = DateTimeZone.forOffsetHours(3);
+        assertOffsetFromLocal(zone, new LocalDateTime(2007, 3, 11, 2, 0), 10800000, 10800000, 10800000);
+    }
+
+    public void testGetOffsetFromLocal_resolution_invalid() {
+        try {
+            PARIS.getOffsetFromLocal(0L, -1);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+        try {
+            PARIS.getOffsetFromLocal(0L, 3);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+        try {
+            DateTimeZone.UTC.getOffsetFromLocal(0L, 3);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    public void testGetOffsetFromLocal_resolution_consistent() {
+        String[] ids = {
+            "Europe/London", "America/New_York", "Australia/Lord_Howe",
+            "America/Sao_Paulo", "Asia/Kathmandu", "Europe/Moscow",
+        };
+        Random random = new Random(4321);
+        long min = -2208988800000L;  // 1900
+        long max = 4102444800000L;  // 2100
+        for (int i = 0; i < ids.length; i++) {
+            final DateTimeZone zone = DateTimeZone.forID(ids[i]);
+            DateTimeZone uncached = zone;
+            if (zone instanceof CachedDateTimeZone) {
+                uncached = ((CachedDateTimeZone) zone).getUncachedZone();
+            }
+            // subclass that only provides the basic methods
+            DateTimeZone basic = new DateTimeZone(zone.getID()) {
+                public String getNameKey(long instant) {
+                    return zone.getNameKey(instant);
+                }
+                public int getOffset(long instant) {
+                    return zone.getOffset(instant);
+                }
+                public int getStandardOffset(long instant) {
+                    return zone.getStandardOffset(instant);
+                }
+                public boolean isFixed() {
+                    return false;
+                }
+                public long nextTransition(long instant) {
+                    return zone.nextTransition(instant);
+                }
+                public long previousTransition(long instant) {
+                    return zone.previousTransition(instant);
+                }
+                public boolean equals(Object obj) {
+                    return this == obj;
+                }
+            };
+            for (int j = 0; j < 3000; j++) {
+                long local = min + (long) (random.nextDouble() * (max - min));
+                if (j % 3 != 0) {
+                    // near a transition
+                    long transition = zone.nextTransition(local);
+                    local = transition + zone.getOffset(transition) - 7200000 + random.nextInt(4 * 3600000);
+                }
+                for (int r = DateTimeZone.RESOLVE_EARLIER; r <= DateTimeZone.RESOLVE_REJECT; r++) {
+                    assertEquals(ids[i] + " " + local + " " + r,
+                        basic.getOffsetFromLocal(local, r), zone.getOffsetFromLocal(local, r));
+                }
+                // the table lookup resolves gaps and overlaps as the probe does
+                assertEquals(ids[i] + " " + local, basic.getOffsetFromLocal(local), zone.getOffsetFromLocal(local));
+                assertEquals(ids[i] + " " + local, basic.getOffsetFromLocal(local), uncached.getOffsetFromLocal(local));
+                assertOffsetFromLocal(zone, local);
+            }
+        }
+    }
+
+    public void testGetOffsetFromLocal_afterFinalTransition() {
+        // the old probe returned the offset before the final transition
+        DateTimeZone zone = DateTimeZone.forID("Pacific/Honolulu");
+        DateTimeZone uncached = ((CachedDateTimeZone) zone).getUncachedZone();
+        LocalDateTime before = new LocalDateTime(1947, 6, 8, 1, 30);
+        LocalDateTime after = new LocalDateTime(1947, 6, 8, 3, 0);
+        assertEquals(-(10 * 60 + 30) * 60000, zone.getOffsetFromLocal(before.toDateTime(DateTimeZone.UTC).getMillis()));
+        assertEquals(-10 * 3600000, zone.getOffsetFromLocal(after.toDateTime(DateTimeZone.UTC).getMillis()));
+        assertEquals(-10 * 3600000, uncached.getOffsetFromLocal(after.toDateTime(DateTimeZone.UTC).getMillis()));
+        assertEquals(new DateTime(1947, 6, 8, 13, 0, 0, 0, DateTimeZone.UTC).getMillis(),
+            after.toDateTime(zone).getMillis());
+        
+        zone = DateTimeZone.forID("America/Anguilla");
+        after = new LocalDateTime(1912, 3, 2, 1, 0);
+        assertEquals(-4 * 3600000, zone.getOffsetFromLocal(after.toDateTime(DateTimeZone.UTC).getMillis()));
+        assertEquals(new DateTime(1912, 3, 2, 5, 0, 0, 0, DateTimeZone.UTC).getMillis(),
+            after.toDateTime(zone).getMillis());
+    }
+
+    private void assertOffsetFromLocal(DateTimeZone zone, LocalDateTime local,
+                                       int earlier, int later, int reject) {
+        long instantLocal = local.getLocalMillis();
+        assertEquals(earlier, zone.getOffsetFromLocal(instantLocal, DateTimeZone.RESOLVE_EARLIER));
+        assertEquals(later, zone.getOffsetFromLocal(instantLocal, DateTimeZone.RESOLVE_LATER));
+        assertEquals(reject, zone.getOffsetFromLocal(instantLocal, DateTimeZone.RESOLVE_REJECT));
+        assertEquals(earlier < later, zone.isLocalDateTimeGap(local));
+        assertOffsetFromLocal(zone, instantLocal);
+    }
+
+    private void assertOffsetFromLocal(DateTimeZone zone, long instantLocal) {
+        String msg = zone.getID() + " " + instantLocal;
+        int earlier = zone.getOffsetFromLocal(instantLocal, DateTimeZone.RESOLVE_EARLIER);
+        int later = zone.getOffsetFromLocal(instantLocal, DateTimeZone.RESOLVE_LATER);
+        int reject = zone.getOffsetFromLocal(instantLocal, DateTimeZone.RESOLVE_REJECT);
+        if (earlier == later) {
+            assertEquals(msg, earlier, reject);
+            assertEquals(msg, earlier, zone.getOffset(instantLocal - earlier));
+            assertEquals(msg, earlier, zone.getOffsetFromLocal(instantLocal));
+        } else if (earlier > later) {
+            // overlap, both are valid
+            assertEquals(msg, DateTimeZone.INVALID_OFFSET, reject);
+            assertEquals(msg, earlier, zone.getOffset(instantLocal - earlier));
+            assertEquals(msg, later, zone.getOffset(instantLocal - later));
+        } else {
+            // gap, neither is valid
+            assertEquals(msg, DateTimeZone.INVALID_OFFSET, reject);
+            assertEquals(msg, later, zone.getOffset(instantLocal - earlier));
+            assertEquals(msg, earlier, zone.getOffset(instantLocal - later));
+            assertEquals(msg, earlier, zone.getOffsetFromLocal(instantLocal));
+        }
+    }
+
     //-----------------------------------------------------------------------
     public void testToTimeZone() {
         DateTimeZone zone = DateTimeZone.forID("Europe/Paris");
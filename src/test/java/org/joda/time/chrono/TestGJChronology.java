@@ -23,7 +23,10 @@ import junit.framework.TestSuite;
 
 import org.joda.time.DateMidnight;
 import org.joda.time.DateTime;
+import org.joda.time.Chronology;
 import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeField;
+import org.joda.time.DateTimeFieldType;
 import org.joda.time.DateTimeUtils;
 import org.joda.time.DateTimeZone;
 import org.joda.time.DurationField;
@@ -165,6 +168,10 @@ public class TestGJChronology extends TestCase {
         assertSame(GJChronology.getInstance(PARIS), GJChronology.getInstance(PARIS));
         assertSame(GJChronology.getInstanceUTC(), GJChronology.getInstanceUTC());
         assertSame(GJChronology.getInstance(), GJChronology.getInstance(LONDON));
+        assertSame(GJChronology.getInstance(TOKYO, 0L, 2), GJChronology.getInstance(TOKYO, 0L, 2));
+        assertSame(GJChronology.getInstance(TOKYO, new Instant(0L), 2), GJChronology.getInstance(TOKYO, 0L, 2));
+        assertNotSame(GJChronology.getInstance(TOKYO, 0L, 2), GJChronology.getInstance(TOKYO, 0L, 3));
+        assertNotSame(GJChronology.getInstance(TOKYO, 0L, 2), GJChronology.getInstance(PARIS, 0L, 2));
     }
 
     public void testWithUTC() {
@@ -312,6 +319,84 @@ public class TestGJChronology extends TestCase {
         assertEquals(true, GJChronology.getInstance().millisOfSecond().isSupported());
     }
 
+    public void testGetDateTimeFields() {
+        Chronology chrono = GJChronology.getInstanceUTC();
+        int[] values = new int[7];
+        chrono.getDateTimeFields(new DateTime(1582, 10, 4, 23, 59, 59, 999, chrono).getMillis(), values);
+        assertEquals(1582, values[0]);
+        assertEquals(10, values[1]);
+        assertEquals(4, values[2]);
+        chrono.getDateTimeFields(new DateTime(1582, 10, 15, 0, 0, 0, 0, chrono).getMillis(), values);
+        assertEquals(1582, values[0]);
+        assertEquals(10, values[1]);
+        assertEquals(15, values[2]);
+        
+        Chronology[] chronos = new Chronology[] {
+            chrono, GJChronology.getInstance(PARIS),
+            GJChronology.getInstance(LONDON, new Instant(-62135596800000L)),
+        };
+        long instant = new DateTime(-10, 1, 1, 0, 0, 0, 0, chrono).getMillis();
+        for (int i = 0; i < 4000; i++) {
+            instant += 200L * DateTimeConstants.MILLIS_PER_DAY + 3723007L;
+            for (int j = 0; j < chronos.length; j++) {
+                assertDateTimeFields(chronos[j], instant);
+            }
+        }
+    }
+
+    public void testGetBulk() {
+        Chronology[] chronos = new Chronology[] {
+            GJChronology.getInstanceUTC(), GJChronology.getInstance(PARIS),
+            GJChronology.getInstance(LONDON, new Instant(-62135596800000L)),
+        };
+        long[] instants = new long[2000];
+        long instant = new DateTime(1500, 1, 1, 0, 0, 0, 0, chronos[0]).getMillis();
+        for (int i = 0; i < instants.length; i++) {
+            instant += 23L * DateTimeConstants.MILLIS_PER_DAY + 3723007L;
+            instants[i] = instant;
+        }
+        // step back and forth across the cutovers
+        instants[1000] = instants[10];
+        instants[1001] = -62135596800000L;
+        instants[1002] = -62135596800001L;
+        for (int i = 0; i < chronos.length; i++) {
+            assertBulkGet(chronos[i], instants);
+        }
+    }
+
+    private static final DateTimeFieldType[] BULK_TYPES = new DateTimeFieldType[] {
+        DateTimeFieldType.era(), DateTimeFieldType.centuryOfEra(), DateTimeFieldType.yearOfEra(),
+        DateTimeFieldType.year(), DateTimeFieldType.weekyear(), DateTimeFieldType.weekOfWeekyear(),
+        DateTimeFieldType.monthOfYear(), DateTimeFieldType.dayOfMonth(), DateTimeFieldType.dayOfYear(),
+        DateTimeFieldType.dayOfWeek(), DateTimeFieldType.halfdayOfDay(), DateTimeFieldType.hourOfDay(),
+        DateTimeFieldType.clockhourOfDay(), DateTimeFieldType.minuteOfDay(), DateTimeFieldType.minuteOfHour(),
+        DateTimeFieldType.secondOfDay(), DateTimeFieldType.secondOfMinute(), DateTimeFieldType.millisOfDay(),
+        DateTimeFieldType.millisOfSecond(),
+    };
+
+    private void assertBulkGet(Chronology chrono, long[] instants) {
+        int[] values = new int[instants.length + 2];
+        for (int i = 0; i < BULK_TYPES.length; i++) {
+            DateTimeField field = BULK_TYPES[i].getField(chrono);
+            chrono.get(BULK_TYPES[i], instants, 1, values, 2, instants.length - 1);
+            for (int j = 1; j < instants.length; j++) {
+                assertEquals(BULK_TYPES[i].getName(), field.get(instants[j]), values[j + 1]);
+            }
+        }
+    }
+
+    private void assertDateTimeFields(Chronology chrono, long instant) {
+        int[] values = new int[7];
+        chrono.getDateTimeFields(instant, values);
+        assertEquals(chrono.year().get(instant), values[0]);
+        assertEquals(chrono.monthOfYear().get(instant), values[1]);
+        assertEquals(chrono.dayOfMonth().get(instant), values[2]);
+        assertEquals(chrono.hourOfDay().get(instant), values[3]);
+        assertEquals(chrono.minuteOfHour().get(instant), values[4]);
+        assertEquals(chrono.secondOfMinute().get(instant), values[5]);
+        assertEquals(chrono.millisOfSecond().get(instant), values[6]);
+    }
+
     public void testIllegalDates() {
         try {
             new DateTime(1582, 10, 5, 0, 0, 0, 0, GJChronology.getInstance(DateTimeZone.UTC));
@@ -125,6 +125,29 @@ public class TestGregorianChronology extends TestCase {
         assertSame(GregorianChronology.getInstance(), GregorianChronology.getInstance(LONDON));
     }
 
+    public void testEquality_concurrent() throws Exception {
+        final DateTimeZone zone = DateTimeZone.forOffsetHoursMinutes(5, 17);
+        final GregorianChronology[] results = new GregorianChronology[8];
+        Thread[] threads = new Thread[results.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    results[index] = GregorianChronology.getInstance(zone, 3);
+                }
+            };
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+        for (int i = 0; i < results.length; i++) {
+            assertSame(GregorianChronology.getInstance(zone, 3), results[i]);
+        }
+    }
+
     public void testWithUTC() {
         assertSame(GregorianChronology.getInstanceUTC(), GregorianChronology.getInstance(LONDON).withUTC());
         assertSame(GregorianChronology.getInstanceUTC(), GregorianChronology.getInstance(TOKYO).withUTC());
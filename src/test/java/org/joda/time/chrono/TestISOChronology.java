@@ -16,14 +16,17 @@
 package org.joda.time.chrono;
 
 import java.util.Locale;
+import java.util.Random;
 import java.util.TimeZone;
 
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
+import org.joda.time.Chronology;
 import org.joda.time.DateMidnight;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeField;
 import org.joda.time.DateTimeFieldType;
 import org.joda.time.DateTimeUtils;
 import org.joda.time.DateTimeZone;
@@ -272,6 +275,115 @@ public class TestISOChronology extends TestCase {
         assertEquals(true, ISOChronology.getInstance().millisOfSecond().isSupported());
     }
 
+    public void testGetDateTimeFields() {
+        int[] values = new int[7];
+        ISOChronology.getInstanceUTC().getDateTimeFields(TEST_TIME_NOW + 12345L, values);
+        assertEquals(2002, values[0]);
+        assertEquals(6, values[1]);
+        assertEquals(9, values[2]);
+        assertEquals(0, values[3]);
+        assertEquals(0, values[4]);
+        assertEquals(12, values[5]);
+        assertEquals(345, values[6]);
+        
+        Chronology[] chronos = new Chronology[] {
+            ISOChronology.getInstanceUTC(), ISOChronology.getInstance(PARIS),
+            ISOChronology.getInstance(TOKYO), BuddhistChronology.getInstanceUTC(),
+            CopticChronology.getInstance(LONDON), EthiopicChronology.getInstanceUTC(),
+            IslamicChronology.getInstance(PARIS), LenientChronology.getInstance(ISOChronology.getInstance(PARIS)),
+        };
+        long instant = -970L * DateTimeConstants.MILLIS_PER_DAY * 365;
+        for (int i = 0; i < 4000; i++) {
+            instant += 200L * DateTimeConstants.MILLIS_PER_DAY + 3723007L;
+            for (int j = 0; j < chronos.length; j++) {
+                assertDateTimeFields(chronos[j], instant);
+            }
+        }
+    }
+
+    public void testGetBulk() {
+        Chronology[] chronos = new Chronology[] {
+            ISOChronology.getInstanceUTC(), ISOChronology.getInstance(PARIS),
+            ISOChronology.getInstance(LONDON), GregorianChronology.getInstance(TOKYO),
+            BuddhistChronology.getInstanceUTC(), CopticChronology.getInstance(LONDON),
+            EthiopicChronology.getInstanceUTC(), IslamicChronology.getInstance(PARIS),
+            LenientChronology.getInstance(ISOChronology.getInstance(PARIS)),
+        };
+        long[] sorted = new long[3000];
+        long[] unsorted = new long[3000];
+        Random random = new Random(1);
+        long instant = -970L * DateTimeConstants.MILLIS_PER_DAY * 365;
+        for (int i = 0; i < sorted.length; i++) {
+            // mostly small steps, with an occasional jump of a few years
+            instant += (random.nextInt(50) == 0 ? 1000L : 1L) * DateTimeConstants.MILLIS_PER_DAY
+                + random.nextInt(DateTimeConstants.MILLIS_PER_DAY);
+            sorted[i] = instant;
+            unsorted[i] = -970L * DateTimeConstants.MILLIS_PER_DAY * 365
+                + (random.nextLong() & 0x7fffffffffffL) * 100;
+        }
+        for (int i = 0; i < chronos.length; i++) {
+            assertBulkGet(chronos[i], sorted);
+            assertBulkGet(chronos[i], unsorted);
+        }
+    }
+
+    public void testGetBulk_badRange() {
+        Chronology chrono = ISOChronology.getInstance(PARIS);
+        long[] instants = new long[4];
+        int[] values = new int[4];
+        chrono.get(DateTimeFieldType.year(), instants, 2, values, 0, 2);
+        chrono.get(DateTimeFieldType.year(), instants, 0, values, 4, 0);
+        try {
+            chrono.get(DateTimeFieldType.year(), instants, 3, values, 0, 2);
+            fail();
+        } catch (IndexOutOfBoundsException ex) {}
+        try {
+            chrono.get(DateTimeFieldType.year(), instants, 0, values, 3, 2);
+            fail();
+        } catch (IndexOutOfBoundsException ex) {}
+        try {
+            chrono.get(DateTimeFieldType.year(), instants, -1, values, 0, 2);
+            fail();
+        } catch (IndexOutOfBoundsException ex) {}
+        try {
+            chrono.get(DateTimeFieldType.year(), instants, 0, values, 0, -1);
+            fail();
+        } catch (IndexOutOfBoundsException ex) {}
+    }
+
+    private static final DateTimeFieldType[] BULK_TYPES = new DateTimeFieldType[] {
+        DateTimeFieldType.era(), DateTimeFieldType.centuryOfEra(), DateTimeFieldType.yearOfEra(),
+        DateTimeFieldType.year(), DateTimeFieldType.weekyear(), DateTimeFieldType.weekOfWeekyear(),
+        DateTimeFieldType.monthOfYear(), DateTimeFieldType.dayOfMonth(), DateTimeFieldType.dayOfYear(),
+        DateTimeFieldType.dayOfWeek(), DateTimeFieldType.halfdayOfDay(), DateTimeFieldType.hourOfDay(),
+        DateTimeFieldType.clockhourOfDay(), DateTimeFieldType.minuteOfDay(), DateTimeFieldType.minuteOfHour(),
+        DateTimeFieldType.secondOfDay(), DateTimeFieldType.secondOfMinute(), DateTimeFieldType.millisOfDay(),
+        DateTimeFieldType.millisOfSecond(),
+    };
+
+    private void assertBulkGet(Chronology chrono, long[] instants) {
+        int[] values = new int[instants.length + 2];
+        for (int i = 0; i < BULK_TYPES.length; i++) {
+            DateTimeField field = BULK_TYPES[i].getField(chrono);
+            chrono.get(BULK_TYPES[i], instants, 1, values, 2, instants.length - 1);
+            for (int j = 1; j < instants.length; j++) {
+                assertEquals(BULK_TYPES[i].getName(), field.get(instants[j]), values[j + 1]);
+            }
+        }
+    }
+
+    private void assertDateTimeFields(Chronology chrono, long instant) {
+        int[] values = new int[7];
+        chrono.getDateTimeFields(instant, values);
+        assertEquals(chrono.year().get(instant), values[0]);
+        assertEquals(chrono.monthOfYear().get(instant), values[1]);
+        assertEquals(chrono.dayOfMonth().get(instant), values[2]);
+        assertEquals(chrono.hourOfDay().get(instant), values[3]);
+        assertEquals(chrono.minuteOfHour().get(instant), values[4]);
+        assertEquals(chrono.secondOfMinute().get(instant), values[5]);
+        assertEquals(chrono.millisOfSecond().get(instant), values[6]);
+    }
+
     public void testMaxYear() {
         final ISOChronology chrono = ISOChronology.getInstanceUTC();
         final int maxYear = chrono.year().getMaximumValue();
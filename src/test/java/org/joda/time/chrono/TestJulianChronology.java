@@ -21,6 +21,8 @@ import java.util.TimeZone;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
+import org.joda.time.Chronology;
+import org.joda.time.DateTime;
 import org.joda.time.DateTimeConstants;
 import org.joda.time.DateTimeUtils;
 import org.joda.time.DateTimeZone;
@@ -266,4 +268,36 @@ public class TestJulianChronology extends TestCase {
         assertEquals(true, JulianChronology.getInstance().millisOfSecond().isSupported());
     }
 
+    public void testGetDateTimeFields() {
+        int[] values = new int[7];
+        JulianChronology.getInstanceUTC().getDateTimeFields(
+            new DateTime(-5, 2, 29, 23, 59, 58, 999, JulianChronology.getInstanceUTC()).getMillis(), values);
+        assertEquals(-5, values[0]);
+        assertEquals(2, values[1]);
+        assertEquals(29, values[2]);
+        assertEquals(23, values[3]);
+        assertEquals(59, values[4]);
+        assertEquals(58, values[5]);
+        assertEquals(999, values[6]);
+        
+        Chronology chrono = JulianChronology.getInstance(DateTimeZone.forID("Europe/Paris"));
+        long instant = new DateTime(-20, 1, 1, 0, 0, 0, 0, chrono).getMillis();
+        for (int i = 0; i < 1000; i++) {
+            instant += 17L * DateTimeConstants.MILLIS_PER_DAY + 3723007L;
+            assertDateTimeFields(chrono, instant);
+        }
+    }
+
+    private void assertDateTimeFields(Chronology chrono, long instant) {
+        int[] values = new int[7];
+        chrono.getDateTimeFields(instant, values);
+        assertEquals(chrono.year().get(instant), values[0]);
+        assertEquals(chrono.monthOfYear().get(instant), values[1]);
+        assertEquals(chrono.dayOfMonth().get(instant), values[2]);
+        assertEquals(chrono.hourOfDay().get(instant), values[3]);
+        assertEquals(chrono.minuteOfHour().get(instant), values[4]);
+        assertEquals(chrono.secondOfMinute().get(instant), values[5]);
+        assertEquals(chrono.millisOfSecond().get(instant), values[6]);
+    }
+
 }
@@ -42,6 +42,8 @@ public class TestAll extends TestCase {
         suite.addTest(TestISODateTimeFormat_Fields.suite());
         suite.addTest(TestISODateTimeFormatParsing.suite());
         suite.addTest(TestDateTimeFormatterBuilder.suite());
+        suite.addTest(TestDateTimeFormatDetector.suite());
+        suite.addTest(TestFormatterCache.suite());
         
         suite.addTest(TestPeriodFormatter.suite());
         suite.addTest(TestPeriodFormat.suite());
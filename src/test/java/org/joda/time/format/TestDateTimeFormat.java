@@ -95,6 +95,31 @@ public class TestDateTimeFormat extends TestCase {
         assertNotNull(f);
     }
 
+    //-----------------------------------------------------------------------
+    public void testCache() {
+        long hits = DateTimeFormat.getCacheHitCount();
+        long misses = DateTimeFormat.getCacheMissCount();
+        DateTimeFormatter f = DateTimeFormat.forPattern("yyyy 'cache test' HH");
+        assertEquals(misses + 1, DateTimeFormat.getCacheMissCount());
+        assertSame(f, DateTimeFormat.forPattern("yyyy 'cache test' HH"));
+        assertEquals(hits + 1, DateTimeFormat.getCacheHitCount());
+        assertEquals(misses + 1, DateTimeFormat.getCacheMissCount());
+        assertEquals(true, DateTimeFormat.getCacheEvictionCount() >= 0);
+        assertSame(DateTimeFormat.forStyle("SM"), DateTimeFormat.forStyle("SM"));
+    }
+
+    public void testCache_style() {
+        DateTime dt = new DateTime(2004, 6, 9, 10, 20, 30, 40, UTC);
+        DateTimeFormatter f = DateTimeFormat.forStyle("LL").withLocale(new Locale("xx", "CACHE"));
+        long hits = DateTimeFormat.getCacheHitCount();
+        long misses = DateTimeFormat.getCacheMissCount();
+        String text = f.print(dt);
+        assertEquals(misses + 1, DateTimeFormat.getCacheMissCount());
+        assertEquals(text, f.print(dt));
+        assertEquals(hits + 1, DateTimeFormat.getCacheHitCount());
+        assertEquals(misses + 1, DateTimeFormat.getCacheMissCount());
+    }
+
     //-----------------------------------------------------------------------
     public void testFormat_era() {
         DateTime dt = new DateTime(2004, 6, 9, 10, 20, 30, 40, UTC);
@@ -812,6 +837,14 @@ public class TestDateTimeFormat extends TestCase {
         assertEquals(dt.toString(), "Asia/Tokyo", f.print(dt));
     }
 
+    public void testParse_zoneAmountID() {
+        DateTimeFormatter f = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm ZZZ").withOffsetParsed();
+        DateTime expected = new DateTime(2004, 6, 9, 10, 20, 0, 0, NEWYORK);
+        assertEquals(expected, f.parseDateTime("2004-06-09 10:20 America/New_York"));
+        expected = new DateTime(2004, 6, 9, 10, 20, 0, 0, UTC);
+        assertEquals(expected, f.parseDateTime("2004-06-09 10:20 UTC"));
+    }
+
     //-----------------------------------------------------------------------
     public void testFormat_other() {
         DateTime dt = new DateTime(2004, 6, 9, 10, 20, 30, 40, UTC);
@@ -0,0 +1,127 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.format;
+
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+/**
+ * This class is a Junit unit test for DateTimeFormatDetector.
+ */
+public class TestDateTimeFormatDetector extends TestCase {
+
+    private static final DateTimeFormatter ISO =
+        ISODateTimeFormat.dateHourMinute().withZone(DateTimeZone.UTC);
+    private static final DateTimeFormatter UK =
+        DateTimeFormat.forPattern("dd/MM/yyyy HH:mm").withZone(DateTimeZone.UTC);
+    private static final DateTimeFormatter US =
+        DateTimeFormat.forPattern("MM/dd/yyyy HH:mm").withZone(DateTimeZone.UTC);
+
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+    public static TestSuite suite() {
+        return new TestSuite(TestDateTimeFormatDetector.class);
+    }
+
+    public TestDateTimeFormatDetector(String name) {
+        super(name);
+    }
+
+    private static long millis(int year, int month, int day, int hour, int minute) {
+        return new DateTime(year, month, day, hour, minute, 0, 0, DateTimeZone.UTC).getMillis();
+    }
+
+    //-----------------------------------------------------------------------
+    public void testConstructor() {
+        try {
+            new DateTimeFormatDetector(null);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+        try {
+            new DateTimeFormatDetector(new DateTimeFormatter[0]);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+        try {
+            new DateTimeFormatDetector(new DateTimeFormatter[] {ISO, null});
+            fail();
+        } catch (IllegalArgumentException ex) {}
+        try {
+            new DateTimeFormatDetector(new DateTimeFormatter[] {ISO, new DateTimeFormatter(UK.getPrinter(), null)});
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    public void testParse_detect() {
+        DateTimeFormatDetector detector = new DateTimeFormatDetector(new DateTimeFormatter[] {ISO, UK, US});
+        assertEquals(null, detector.getDetectedFormatter());
+
+        // ambiguous, so the first in priority order
+        assertEquals(1, detector.parse("01/02/2010 10:30"));
+        assertEquals(millis(2010, 2, 1, 10, 30), detector.getMillis());
+        assertSame(UK, detector.getDetectedFormatter());
+
+        // only the fallback matches, which becomes the detected format
+        assertEquals(2, detector.parse("12/31/2010 23:59"));
+        assertEquals(millis(2010, 12, 31, 23, 59), detector.getMillis());
+        assertSame(US, detector.getDetectedFormatter());
+
+        // ambiguous again, so the detected format wins
+        assertEquals(2, detector.parse("01/02/2010 10:30"));
+        assertEquals(millis(2010, 1, 2, 10, 30), detector.getMillis());
+
+        assertEquals(0, detector.parse("2010-06-30T12:00"));
+        assertEquals(millis(2010, 6, 30, 12, 0), detector.getMillis());
+        assertSame(ISO, detector.getDetectedFormatter());
+
+        detector.reset();
+        assertEquals(null, detector.getDetectedFormatter());
+        assertEquals(1, detector.parse("01/02/2010 10:30"));
+    }
+
+    public void testParse_failure() {
+        DateTimeFormatDetector detector = new DateTimeFormatDetector(new DateTimeFormatter[] {ISO, UK, US});
+        assertEquals(1, detector.parse("01/02/2010 10:30"));
+        long millis = detector.getMillis();
+
+        // furthest error position of all the formatters
+        assertEquals(~12, detector.parse("01/02/2010 1x:30"));
+        assertEquals(~0, detector.parse("x"));
+        assertEquals(~0, detector.parse(""));
+        assertEquals(~16, detector.parse("01/02/2010 10:30 extra"));
+        // values out of range for every format that matches the text
+        assertEquals(~2, detector.parse("13/13/2010 10:30"));
+        assertEquals(~2, detector.parse("31/02/2010 10:30"));
+
+        // last success and detected format retained
+        assertEquals(millis, detector.getMillis());
+        assertSame(UK, detector.getDetectedFormatter());
+        assertEquals(1, detector.parse("13/12/2010 10:30"));
+    }
+
+    public void testParse_offset() {
+        DateTimeFormatDetector detector = new DateTimeFormatDetector(new DateTimeFormatter[] {
+            ISODateTimeFormat.dateTimeNoMillis().withZone(DateTimeZone.forID("Europe/Paris")),
+        });
+        assertEquals(0, detector.parse("2010-06-30T12:00:00+01:00"));
+        assertEquals(millis(2010, 6, 30, 11, 0), detector.getMillis());
+    }
+
+}
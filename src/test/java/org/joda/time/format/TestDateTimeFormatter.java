@@ -16,6 +16,8 @@
 package org.joda.time.format;
 
 import java.io.CharArrayWriter;
+import java.nio.CharBuffer;
+import java.text.ParsePosition;
 import java.util.Locale;
 import java.util.TimeZone;
 
@@ -25,12 +27,14 @@ import junit.framework.TestSuite;
 import org.joda.time.Chronology;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeFieldType;
 import org.joda.time.DateTimeUtils;
 import org.joda.time.DateTimeZone;
 import org.joda.time.MutableDateTime;
 import org.joda.time.ReadablePartial;
 import org.joda.time.chrono.BuddhistChronology;
 import org.joda.time.chrono.ISOChronology;
+import org.joda.time.chrono.LenientChronology;
 
 /**
  * This class is a Junit unit test for DateTime Formating.
@@ -196,6 +200,99 @@ public class TestDateTimeFormatter extends TestCase {
         } catch (IllegalArgumentException ex) {}
     }
 
+    public void testPrint_builderMethods() throws Exception {
+        DateTime dt = new DateTime(2004, 6, 9, 10, 20, 30, 40, UTC);
+        StringBuilder buf = new StringBuilder();
+        f.printTo(buf, dt);
+        assertEquals("Wed 2004-06-09T10:20:30Z", buf.toString());
+        
+        buf = new StringBuilder();
+        f.printTo(buf, dt.getMillis());
+        assertEquals("Wed 2004-06-09T11:20:30+01:00", buf.toString());
+        
+        buf = new StringBuilder();
+        ISODateTimeFormat.yearMonthDay().printTo(buf, dt.toYearMonthDay());
+        assertEquals("2004-06-09", buf.toString());
+        
+        buf = new StringBuilder();
+        ISODateTimeFormat.dateTime().withZone(UTC).printTo(buf, dt.getMillis());
+        assertEquals("2004-06-09T10:20:30.040Z", buf.toString());
+        
+        buf = new StringBuilder();
+        DateTimeFormat.mediumDate().withLocale(Locale.UK).printTo(buf, dt);
+        assertEquals(DateTimeFormat.mediumDate().withLocale(Locale.UK).print(dt), buf.toString());
+        
+        buf = new StringBuilder();
+        try {
+            ISODateTimeFormat.yearMonthDay().printTo(buf, (ReadablePartial) null);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    public void testPrint_appendableMethods() throws Exception {
+        DateTime dt = new DateTime(2004, 6, 9, 10, 20, 30, 40, UTC);
+        CharBuffer out = CharBuffer.allocate(64);
+        f.printTo((Appendable) out, dt);
+        assertEquals("Wed 2004-06-09T10:20:30Z", out.flip().toString());
+        
+        out = CharBuffer.allocate(64);
+        f.printTo((Appendable) out, dt.getMillis());
+        assertEquals("Wed 2004-06-09T11:20:30+01:00", out.flip().toString());
+        
+        out = CharBuffer.allocate(64);
+        ISODateTimeFormat.yearMonthDay().printTo((Appendable) out, dt.toYearMonthDay());
+        assertEquals("2004-06-09", out.flip().toString());
+        
+        out = CharBuffer.allocate(64);
+        try {
+            ISODateTimeFormat.yearMonthDay().printTo((Appendable) out, (ReadablePartial) null);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    public void testPrint_charArrayMethod() throws Exception {
+        DateTime dt = new DateTime(2004, 6, 9, 10, 20, 30, 40, UTC);
+        char[] buf = new char[40];
+        buf[0] = '[';
+        int pos = f.printTo(buf, 1, dt.getMillis());
+        assertEquals(30, pos);
+        assertEquals("[Wed 2004-06-09T11:20:30+01:00", new String(buf, 0, pos));
+        
+        pos = ISODateTimeFormat.dateTime().withZone(UTC).printTo(buf, 0, dt.getMillis());
+        assertEquals("2004-06-09T10:20:30.040Z", new String(buf, 0, pos));
+        
+        try {
+            f.printTo(new char[10], 0, dt.getMillis());
+            fail();
+        } catch (IndexOutOfBoundsException ex) {}
+        try {
+            f.printTo(buf, 41, dt.getMillis());
+            fail();
+        } catch (IndexOutOfBoundsException ex) {}
+    }
+
+    public void testPrint_charArrayMethod_shortArray() throws Exception {
+        DateTime dt = new DateTime(2004, 6, 9, 10, 20, 30, 40, UTC);
+        DateTimeFormatter iso = ISODateTimeFormat.dateTime().withZone(UTC);
+        // shorter than the estimate, but long enough for the text
+        char[] exact = new char[24];
+        assertTrue(exact.length < iso.getPrinter().estimatePrintedLength());
+        assertEquals(24, iso.printTo(exact, 0, dt.getMillis()));
+        assertEquals("2004-06-09T10:20:30.040Z", new String(exact));
+        // too short, left unchanged
+        char[] shortBuf = "xxxxxxxxxxxxxxxxxxxx".toCharArray();
+        try {
+            iso.printTo(shortBuf, 0, dt.getMillis());
+            fail();
+        } catch (IndexOutOfBoundsException ex) {}
+        assertEquals("xxxxxxxxxxxxxxxxxxxx", new String(shortBuf));
+        try {
+            iso.printTo(exact, 1, dt.getMillis());
+            fail();
+        } catch (IndexOutOfBoundsException ex) {}
+        assertEquals("2004-06-09T10:20:30.040Z", new String(exact));
+    }
+
     //-----------------------------------------------------------------------
     public void testPrint_chrono_and_zone() {
         DateTime dt = new DateTime(2004, 6, 9, 10, 20, 30, 40, UTC);
@@ -660,6 +757,173 @@ public class TestDateTimeFormatter extends TestCase {
         assertEquals(expect, result);
     }
 
+    public void testParseMillis_charSequence() {
+        DateTimeFormatter h = ISODateTimeFormat.dateTime();
+        long expect = new DateTime(2004, 6, 9, 10, 20, 30, 40, UTC).getMillis();
+        assertEquals(expect, h.parseMillis(new StringBuilder("2004-06-09T10:20:30.040Z")));
+        assertEquals(expect, h.parseMillis(CharBuffer.wrap("2004-06-09T11:20:30.040+01:00")));
+        
+        DateTimeFormatter t = DateTimeFormat.forPattern("dd MMM yyyy HH:mm:ss Z").withLocale(Locale.UK);
+        assertEquals(expect - 40, t.parseMillis(new StringBuilder("09 Jun 2004 10:20:30 +0000")));
+        assertEquals(expect - 40, t.parseMillis(new StringBuilder("09 JUNE 2004 11:20:30 +0100")));
+        try {
+            h.parseMillis(new StringBuilder("2004-06-09T10:20:30.040"));
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("Invalid format: \"2004-06-09T10:20:30.040\" is too short", ex.getMessage());
+        }
+    }
+
+    public void testParseMillis_parsePosition() {
+        DateTimeFormatter h = ISODateTimeFormat.dateTime();
+        long expect = new DateTime(2004, 6, 9, 10, 20, 30, 40, UTC).getMillis();
+        String line = "INFO 2004-06-09T10:20:30.040Z started";
+        ParsePosition pos = new ParsePosition(5);
+        assertEquals(expect, h.parseMillis(line, pos));
+        assertEquals(29, pos.getIndex());
+        assertEquals(-1, pos.getErrorIndex());
+        pos = new ParsePosition(0);
+        assertEquals(expect, h.parseMillis(new StringBuilder("2004-06-09T11:20:30.040+01:00"), pos));
+        assertEquals(29, pos.getIndex());
+        
+        // mismatch
+        pos = new ParsePosition(5);
+        assertEquals(0, h.parseMillis("INFO 2004-06-09T10:20:30Z", pos));
+        assertEquals(5, pos.getIndex());
+        assertEquals(24, pos.getErrorIndex());
+        pos = new ParsePosition(37);
+        assertEquals(0, h.parseMillis(line, pos));
+        assertEquals(37, pos.getIndex());
+        assertEquals(37, pos.getErrorIndex());
+        
+        // out of range values
+        pos = new ParsePosition(5);
+        assertEquals(0, h.parseMillis("INFO 2004-13-09T10:20:30.040Z", pos));
+        assertEquals(5, pos.getErrorIndex());
+        pos = new ParsePosition(5);
+        assertEquals(0, h.parseMillis("INFO 2004-02-30T10:20:30.040Z", pos));
+        assertEquals(5, pos.getErrorIndex());
+        pos = new ParsePosition(0);
+        DateTimeFormatter lenient = h.withChronology(
+            LenientChronology.getInstance(ISOChronology.getInstanceUTC()));
+        assertEquals(new DateTime(2005, 1, 9, 10, 20, 30, 40, UTC).getMillis(),
+            lenient.parseMillis("2004-13-09T10:20:30.040Z", pos));
+        assertEquals(24, pos.getIndex());
+        
+        // numbers beyond integer limits
+        pos = new ParsePosition(0);
+        assertEquals(0, ISODateTimeFormat.dateTimeParser().parseMillis("+5117663750-01", pos));
+        assertEquals(0, pos.getIndex());
+        assertEquals(1, pos.getErrorIndex());
+        pos = new ParsePosition(0);
+        assertEquals(0, ISODateTimeFormat.dateTimeParser().parseMillis("-5117663750-01", pos));
+        assertEquals(0, pos.getErrorIndex());
+        pos = new ParsePosition(0);
+        assertEquals(0, DateTimeFormat.forPattern("yy").parseMillis("99999999999999999999999", pos));
+        assertEquals(0, pos.getErrorIndex());
+        DateTimeFormatter doy = new DateTimeFormatterBuilder()
+            .appendSignedDecimal(DateTimeFieldType.dayOfYear(), 1, 15).toFormatter()
+            .withChronology(LenientChronology.getInstance(ISOChronology.getInstanceUTC()));
+        pos = new ParsePosition(0);
+        doy.parseMillis("-2147483648", pos);
+        assertEquals(11, pos.getIndex());
+        assertEquals(-1, pos.getErrorIndex());
+        pos = new ParsePosition(0);
+        assertEquals(0, doy.parseMillis("-21474836480", pos));
+        assertEquals(0, pos.getIndex());
+        assertEquals(0, pos.getErrorIndex());
+        pos = new ParsePosition(0);
+        // within integer limits, but not a valid year
+        assertEquals(0, DateTimeFormat.forPattern("yy").parseMillis("-2147483648", pos));
+        assertEquals(0, pos.getIndex());
+        assertEquals(0, pos.getErrorIndex());
+        
+        try {
+            h.parseMillis(line, new ParsePosition(38));
+            fail();
+        } catch (IndexOutOfBoundsException ex) {}
+        try {
+            new DateTimeFormatter(h.getPrinter(), null).parseMillis(line, new ParsePosition(0));
+            fail();
+        } catch (UnsupportedOperationException ex) {}
+    }
+
+    public void testParseMillis_range() {
+        DateTimeFormatter h = ISODateTimeFormat.dateTime();
+        long expect = new DateTime(2004, 6, 9, 10, 20, 30, 40, UTC).getMillis();
+        String line = "INFO 2004-06-09T10:20:30.040Z started";
+        assertEquals(expect, h.parseMillis(line, 5, 29));
+        assertEquals(expect, h.parseMillis(line.toCharArray(), 5, 29));
+        assertEquals(expect, h.parseMillis(CharBuffer.wrap(line), 5, 29));
+        try {
+            h.parseMillis(line, 5, 30);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("Invalid format: \"2004-06-09T10:20:30.040Z \" is malformed at \" \"", ex.getMessage());
+        }
+        try {
+            h.parseMillis(line.toCharArray(), 5, 28);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("Invalid format: \"2004-06-09T10:20:30.040\" is too short", ex.getMessage());
+        }
+        try {
+            h.parseMillis(line, 5, 100);
+            fail();
+        } catch (IndexOutOfBoundsException ex) {}
+        try {
+            h.parseMillis(line.toCharArray(), -1, 5);
+            fail();
+        } catch (IndexOutOfBoundsException ex) {}
+        
+        DateTimeFormatter t = DateTimeFormat.forPattern("dd MMM yyyy HH:mm:ss Z").withLocale(Locale.UK);
+        line = "[09 June 2004 11:20:30 +0100]";
+        assertEquals(expect - 40, t.parseMillis(line.toCharArray(), 1, line.length() - 1));
+    }
+
+    public void testParseMillis_reusedBucket() {
+        DateTimeFormatter h = ISODateTimeFormat.dateTime();
+        DateTimeParserBucket bucket = new DateTimeParserBucket(0, ISOChronology.getInstance(LONDON), Locale.UK, null);
+        long expect = new DateTime(2004, 6, 9, 10, 20, 30, 40, UTC).getMillis();
+        assertEquals(expect, bucket.parseMillis(h.getParser(), "2004-06-09T10:20:30.040Z"));
+        assertEquals(expect + 1, bucket.parseMillis(h.getParser(), "2004-06-09T11:20:30.041+01:00"));
+        assertEquals(3600000, bucket.getOffset());
+        assertEquals(null, bucket.getZone());
+        bucket.reset();
+        assertEquals(0, bucket.getOffset());
+        assertEquals(LONDON, bucket.getZone());
+        
+        // no zone in text, so bucket zone restored by reset is used
+        DateTimeFormatter local = ISODateTimeFormat.dateHourMinuteSecondMillis();
+        assertEquals(expect, bucket.parseMillis(local.getParser(), new StringBuilder("2004-06-09T11:20:30.040")));
+        
+        try {
+            bucket.parseMillis(h.getParser(), "2004-06-09T10:20:30.040");
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("Invalid format: \"2004-06-09T10:20:30.040\" is too short", ex.getMessage());
+        }
+        assertEquals(expect, bucket.parseMillis(h.getParser(), "2004-06-09T10:20:30.040Z"));
+    }
+
+    public void testParserBucket_reset() {
+        DateTimeParserBucket bucket = new DateTimeParserBucket(0, ISOChronology.getInstance(PARIS), Locale.UK, new Integer(2000));
+        bucket.saveField(DateTimeFieldType.year(), 2004);
+        bucket.setOffset(3600000);
+        bucket.setPivotYear(null);
+        bucket.saveField(DateTimeFieldType.monthOfYear(), 6);
+        assertEquals(new DateTime(2004, 6, 1, 0, 0, 0, 0, UTC).getMillis() - 3600000, bucket.computeMillis(true));
+        
+        bucket.reset();
+        assertEquals(PARIS, bucket.getZone());
+        assertEquals(0, bucket.getOffset());
+        assertEquals(new Integer(2000), bucket.getPivotYear());
+        assertEquals(new DateTime(1970, 1, 1, 0, 0, 0, 0, PARIS).getMillis(), bucket.computeMillis());
+        
+        bucket.saveField(DateTimeFieldType.year(), 2010);
+        assertEquals(new DateTime(2010, 1, 1, 0, 0, 0, 0, PARIS).getMillis(), bucket.computeMillis(true));
+    }
+
     public void testParseMillis_fractionOfSecondLong() {
         DateTimeFormatter f = new DateTimeFormatterBuilder()
             .appendSecondOfDay(2).appendLiteral('.').appendFractionOfSecond(1, 9)
@@ -15,11 +15,23 @@
  */
 package org.joda.time.format;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Random;
+
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
+import org.joda.time.Chronology;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeFieldType;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDateTime;
+import org.joda.time.ReadablePartial;
+import org.joda.time.chrono.BuddhistChronology;
+import org.joda.time.chrono.GregorianChronology;
+import org.joda.time.chrono.ISOChronology;
 
 /**
  * This class is a Junit unit test for DateTimeFormatterBuilder.
@@ -126,6 +138,119 @@ public class TestDateTimeFormatterBuilder extends TestCase {
         assertEquals("XYZ", bld2.toFormatter().print(0L));
     }
 
+    public void test_append_customPrinter() {
+        DateTimePrinter p = new DateTimePrinter() {
+            public int estimatePrintedLength() {
+                return 1;
+            }
+            public void printTo(StringBuffer buf, long instant, Chronology chrono,
+                    int displayOffset, DateTimeZone displayZone, Locale locale) {
+                buf.append('Y');
+            }
+            public void printTo(Writer out, long instant, Chronology chrono,
+                    int displayOffset, DateTimeZone displayZone, Locale locale) throws IOException {
+                out.write('Y');
+            }
+            public void printTo(StringBuffer buf, ReadablePartial partial, Locale locale) {
+                buf.append('Y');
+            }
+            public void printTo(Writer out, ReadablePartial partial, Locale locale) throws IOException {
+                out.write('Y');
+            }
+        };
+        
+        DateTimeFormatterBuilder bld = new DateTimeFormatterBuilder();
+        bld.appendLiteral('X');
+        bld.append(p);
+        bld.appendLiteral('Z');
+        DateTimeFormatter f = bld.toFormatter();
+        StringBuilder buf = new StringBuilder();
+        f.printTo(buf, 0L);
+        assertEquals("XYZ", buf.toString());
+        
+        f = new DateTimeFormatter(p, null);
+        buf = new StringBuilder();
+        f.printTo(buf, 0L);
+        assertEquals("Y", buf.toString());
+    }
+
+    public void test_append_customParser() {
+        DateTimeParser p = new DateTimeParser() {
+            public int estimateParsedLength() {
+                return 1;
+            }
+            public int parseInto(DateTimeParserBucket bucket, String text, int position) {
+                if (position < text.length() && text.charAt(position) == 'Y') {
+                    return position + 1;
+                }
+                return ~position;
+            }
+        };
+        
+        DateTimeFormatterBuilder bld = new DateTimeFormatterBuilder();
+        bld.appendLiteral('X');
+        bld.append(p);
+        bld.appendFixedDecimal(DateTimeFieldType.year(), 4);
+        DateTimeFormatter f = bld.toFormatter().withZone(DateTimeZone.UTC);
+        long expect = new DateTime(2007, 1, 1, 0, 0, 0, 0, DateTimeZone.UTC).getMillis();
+        assertEquals(expect, f.parseMillis(new StringBuilder("XY2007")));
+        assertEquals(expect, f.parseMillis("[XY2007]".toCharArray(), 1, 7));
+        try {
+            f.parseMillis(new StringBuilder("XZ2007"));
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    //-----------------------------------------------------------------------
+    public void test_fastNumericPrinter_selected() {
+        assertTrue(ISODateTimeFormat.dateTime().getPrinter() instanceof DateTimeFormatterBuilder.FastNumericPrinter);
+        assertTrue(ISODateTimeFormat.basicDateTime().getPrinter() instanceof DateTimeFormatterBuilder.FastNumericPrinter);
+        assertTrue(DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss.SSS").getPrinter()
+                instanceof DateTimeFormatterBuilder.FastNumericPrinter);
+        assertFalse(DateTimeFormat.forPattern("dd MMM yyyy").getPrinter()
+                instanceof DateTimeFormatterBuilder.FastNumericPrinter);
+        assertFalse(ISODateTimeFormat.weekDate().getPrinter()
+                instanceof DateTimeFormatterBuilder.FastNumericPrinter);
+        assertFalse(DateTimeFormat.forPattern("yy-MM-dd").getPrinter()
+                instanceof DateTimeFormatterBuilder.FastNumericPrinter);
+    }
+
+    public void test_fastNumericPrinter_matchesComposite() {
+        String[] patterns = new String[] {
+            "yyyy-MM-dd'T'HH:mm:ss.SSSZZ", "y-M-d H:m:s.SSS", "YYYY-MM-dd HH:mm:ss,SSSSSS", "yyyyMMdd'T'HHmmssSSSZ",
+        };
+        Chronology[] chronos = new Chronology[] {
+            ISOChronology.getInstanceUTC(), ISOChronology.getInstance(DateTimeZone.forID("Europe/Paris")),
+            GregorianChronology.getInstance(DateTimeZone.forOffsetHours(-5)),
+            BuddhistChronology.getInstanceUTC(),
+        };
+        Random random = new Random(7L);
+        for (int i = 0; i < patterns.length; i++) {
+            DateTimeFormatter fast = DateTimeFormat.forPattern(patterns[i]);
+            assertTrue(fast.getPrinter() instanceof DateTimeFormatterBuilder.FastNumericPrinter);
+            DateTimeFormatterBuilder.FastNumericPrinter printer =
+                (DateTimeFormatterBuilder.FastNumericPrinter) fast.getPrinter();
+            DateTimeFormatter slow = new DateTimeFormatter(printer.iComposite, null);
+            for (int j = 0; j < chronos.length; j++) {
+                DateTimeFormatter f1 = fast.withChronology(chronos[j]);
+                DateTimeFormatter f2 = slow.withChronology(chronos[j]);
+                long[] fixed = new long[] {
+                    0L, -1L, 1L, 86399999L, -86400000L, 951782400000L, -62135596800000L, -62167219200001L,
+                    Long.MAX_VALUE / 2, Long.MIN_VALUE / 2,
+                };
+                for (int k = 0; k < fixed.length; k++) {
+                    assertEquals(f2.print(fixed[k]), f1.print(fixed[k]));
+                }
+                for (int k = 0; k < 2000; k++) {
+                    long millis = random.nextLong() >> random.nextInt(24);
+                    assertEquals(f2.print(millis), f1.print(millis));
+                }
+            }
+            LocalDateTime partial = new LocalDateTime(2010, 6, 30, 1, 2, 3, 4);
+            assertEquals(slow.print(partial), fast.print(partial));
+        }
+    }
+
     //-----------------------------------------------------------------------
     public void test_appendFixedDecimal() {
         DateTimeFormatterBuilder bld = new DateTimeFormatterBuilder();
@@ -205,4 +330,141 @@ public class TestDateTimeFormatterBuilder extends TestCase {
         } catch (IllegalArgumentException e) {
         }
     }
+
+    //-----------------------------------------------------------------------
+    public void test_appendTimeZoneId() {
+        DateTimeFormatterBuilder bld = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd HH:mm ").appendTimeZoneId();
+        DateTimeFormatter f = bld.toFormatter();
+        DateTimeZone paris = DateTimeZone.forID("Europe/Paris");
+        DateTime dt = new DateTime(2010, 3, 1, 10, 0, 0, 0, paris);
+
+        assertEquals("2010-03-01 10:00 Europe/Paris", f.print(dt));
+        assertEquals(dt, f.withOffsetParsed().parseDateTime("2010-03-01 10:00 Europe/Paris"));
+        assertEquals(dt.getMillis(),
+            f.withZone(DateTimeZone.UTC).parseMillis("2010-03-01 10:00 Europe/Paris"));
+        assertEquals(true, f.isParser());
+
+        // longest match, not the first id that is a prefix
+        DateTimeZone buenosAires = DateTimeZone.forID("America/Argentina/Buenos_Aires");
+        assertEquals(new DateTime(2010, 3, 1, 10, 0, 0, 0, buenosAires),
+            f.withOffsetParsed().parseDateTime("2010-03-01 10:00 America/Argentina/Buenos_Aires"));
+        assertEquals(DateTimeZone.forID("EST5EDT"),
+            f.withOffsetParsed().parseDateTime("2010-03-01 10:00 EST5EDT").getZone());
+        assertEquals(DateTimeZone.forID("EST"),
+            f.withOffsetParsed().parseDateTime("2010-03-01 10:00 EST").getZone());
+
+        try {
+            f.parseDateTime("2010-03-01 10:00 Europe/Pari");
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            f.parseDateTime("2010-03-01 10:00 Nowhere");
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void test_appendTimeZoneId_parseInto() {
+        DateTimeParser p = new DateTimeFormatterBuilder().appendTimeZoneId().toParser();
+        DateTimeParserBucket bucket = new DateTimeParserBucket(0L, ISOChronology.getInstanceUTC(), Locale.UK);
+        assertEquals(14, p.parseInto(bucket, "[Europe/London]", 1));
+        assertEquals(DateTimeZone.forID("Europe/London"), bucket.getZone());
+        assertEquals(~0, p.parseInto(bucket, "[Europe/London]", 0));
+        assertEquals(~0, p.parseInto(bucket, "Europe", 0));
+        assertEquals(~0, p.parseInto(bucket, "", 0));
+        assertEquals(3, p.parseInto(bucket, "UTC+01:00", 0));
+        assertEquals(null, bucket.getZone());
+    }
+
+    //-----------------------------------------------------------------------
+    public void test_append_Parsers() {
+        DateTimeParser[] parsers = new DateTimeParser[] {
+            new DateTimeFormatterBuilder().appendLiteral("T").appendHourOfDay(2).toParser(),
+            new DateTimeFormatterBuilder().appendLiteral("T").appendHourOfDay(2)
+                .appendLiteral(':').appendMinuteOfHour(2).toParser(),
+            new DateTimeFormatterBuilder().appendMonthOfYear(2).toParser(),
+            new DateTimeFormatterBuilder().appendTimeZoneOffset("Z", true, 2, 2).toParser(),
+        };
+        DateTimeParser p = new DateTimeFormatterBuilder().append(null, parsers).toParser();
+        DateTimeParserBucket bucket = new DateTimeParserBucket(0L, ISOChronology.getInstanceUTC(), Locale.UK);
+
+        // longest of the alternatives sharing a first character
+        assertEquals(6, p.parseInto(bucket, "t10:30", 0));
+        assertEquals(30, bucket.computeMillis() / 60000L % 60);
+        assertEquals(3, p.parseInto(bucket, "T10x", 0));
+        assertEquals(2, p.parseInto(bucket, "12", 0));
+        assertEquals(1, p.parseInto(bucket, "z", 0));
+        assertEquals(6, p.parseInto(bucket, "-05:00", 0));
+
+        // furthest failure of the viable alternatives
+        assertEquals(~1, p.parseInto(bucket, "Tx", 0));
+        assertEquals(~0, p.parseInto(bucket, "x", 0));
+        assertEquals(~0, p.parseInto(bucket, "\u00e9", 0));
+        assertEquals(~0, p.parseInto(bucket, "", 0));
+
+        DateTimeParser[] optional = new DateTimeParser[] {parsers[0], parsers[2], null};
+        p = new DateTimeFormatterBuilder().append(null, optional).toParser();
+        assertEquals(3, p.parseInto(bucket, "T10", 0));
+        assertEquals(0, p.parseInto(bucket, "x", 0));
+        assertEquals(1, p.parseInto(bucket, "x", 1));
+    }
+
+    public void test_append_Parsers_firstChars() {
+        DateTimeParser[] parsers = new DateTimeParser[] {
+            new DateTimeFormatterBuilder().appendLiteral('w').toParser(),
+            new DateTimeFormatterBuilder().appendLiteral("Week").toParser(),
+            new DateTimeFormatterBuilder().appendYear(1, 4).toParser(),
+            new DateTimeFormatterBuilder().appendMonthOfYear(1).toParser(),
+            new DateTimeFormatterBuilder().appendFixedSignedDecimal(DateTimeFieldType.year(), 4).toParser(),
+            new DateTimeFormatterBuilder().appendTwoDigitYear(2000).toParser(),
+            new DateTimeFormatterBuilder().appendTwoDigitYear(2000, true).toParser(),
+            new DateTimeFormatterBuilder().appendFractionOfSecond(1, 3).toParser(),
+            new DateTimeFormatterBuilder().appendTimeZoneOffset(null, true, 2, 4).toParser(),
+            new DateTimeFormatterBuilder().appendTimeZoneOffset("UTC", true, 2, 4).toParser(),
+            new DateTimeFormatterBuilder().appendTimeZoneOffset("", true, 2, 4).toParser(),
+            ISODateTimeFormat.dateTimeParser().getParser(),
+            ISODateTimeFormat.localTimeParser().getParser(),
+        };
+        DateTimeParserBucket bucket = new DateTimeParserBucket(0L, ISOChronology.getInstanceUTC(), Locale.UK);
+        for (int i = 0; i < parsers.length; i++) {
+            InternalParser parser = DateTimeParserInternalParser.of(parsers[i]);
+            boolean[] chars = DateTimeFormatterBuilder.MatchingParser.firstChars(parser);
+            for (char c = 0; c < 128; c++) {
+                if (chars != null && !chars[c]) {
+                    String text = c + "1:00";
+                    assertEquals(i + " " + c, ~0, parser.parseInto(bucket, text, 0));
+                }
+            }
+        }
+        assertEquals(null, DateTimeFormatterBuilder.MatchingParser.firstChars(
+            DateTimeParserInternalParser.of(parsers[10])));
+        assertEquals(true, DateTimeFormatterBuilder.MatchingParser.firstChars(
+            DateTimeParserInternalParser.of(parsers[11])) != null);
+    }
+
+    public void test_append_Parsers_iso() {
+        DateTimeFormatter f = ISODateTimeFormat.dateTimeParser().withZone(DateTimeZone.UTC);
+        String[] texts = new String[] {
+            "2010-06-30", "2010-W26-3", "2010-181", "2010-06-30T", "2010-06-30T12",
+            "2010-06-30T12:34:56.789", "2010-06-30T12:34Z", "2010-06-30T12:34+02:00",
+            "T12:34:56", "T12:34:56.789-05:30", "2010-06-30T12,5",
+        };
+        String[] expected = new String[] {
+            "2010-06-30T00:00:00.000Z", "2010-06-30T00:00:00.000Z", "2010-06-30T00:00:00.000Z",
+            "2010-06-30T00:00:00.000Z", "2010-06-30T12:00:00.000Z",
+            "2010-06-30T12:34:56.789Z", "2010-06-30T12:34:00.000Z", "2010-06-30T12:34:00.000+02:00",
+            "1970-01-01T12:34:56.000Z", "1970-01-01T12:34:56.789-05:30", "2010-06-30T12:30:00.000Z",
+        };
+        for (int i = 0; i < texts.length; i++) {
+            assertEquals(texts[i], new DateTime(expected[i]).getMillis(), f.parseMillis(texts[i]));
+        }
+        try {
+            f.parseDateTime("2010-06-30X");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(true, e.getMessage().indexOf("\"X\"") >= 0);
+        }
+    }
 }
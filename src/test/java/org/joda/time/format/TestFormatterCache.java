@@ -0,0 +1,130 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.format;
+
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * This class is a Junit unit test for FormatterCache.
+ */
+public class TestFormatterCache extends TestCase {
+
+    private static final DateTimeFormatter F1 = ISODateTimeFormat.date();
+    private static final DateTimeFormatter F2 = ISODateTimeFormat.time();
+
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+    public static TestSuite suite() {
+        return new TestSuite(TestFormatterCache.class);
+    }
+
+    public TestFormatterCache(String name) {
+        super(name);
+    }
+
+    //-----------------------------------------------------------------------
+    public void testGetPut() {
+        FormatterCache cache = new FormatterCache(10);
+        assertEquals(10, cache.getMaxSize());
+        assertEquals(null, cache.get("a"));
+        assertSame(F1, cache.put("a", F1));
+        assertSame(F1, cache.get("a"));
+        // first one stored wins
+        assertSame(F1, cache.put("a", F2));
+        assertSame(F1, cache.get("a"));
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    public void testDisabled() {
+        FormatterCache cache = new FormatterCache(0);
+        assertSame(F1, cache.put("a", F1));
+        assertEquals(null, cache.get("a"));
+        assertEquals(0, cache.size());
+        try {
+            new FormatterCache(-1);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    public void testEviction() {
+        FormatterCache cache = new FormatterCache(16);
+        for (int i = 0; i < 16; i++) {
+            cache.put(Integer.valueOf(i), F1);
+        }
+        assertEquals(16, cache.size());
+        // keep the first four recently used
+        for (int i = 0; i < 4; i++) {
+            assertSame(F1, cache.get(Integer.valueOf(i)));
+        }
+        cache.put("new", F2);
+        assertEquals(14, cache.size());
+        assertEquals(3, cache.getEvictionCount());
+        for (int i = 0; i < 4; i++) {
+            assertSame(F1, cache.get(Integer.valueOf(i)));
+        }
+        assertSame(F2, cache.get("new"));
+        assertEquals(null, cache.get(Integer.valueOf(4)));
+        assertEquals(null, cache.get(Integer.valueOf(6)));
+        assertSame(F1, cache.get(Integer.valueOf(7)));
+
+        // never grows beyond the maximum size
+        for (int i = 100; i < 1000; i++) {
+            cache.put(Integer.valueOf(i), F1);
+            assertEquals(true, cache.size() <= 16);
+        }
+    }
+
+    public void testConcurrent() throws Exception {
+        final FormatterCache cache = new FormatterCache(64);
+        final DateTimeFormatter[] results = new DateTimeFormatter[8];
+        Thread[] threads = new Thread[results.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 1000; j++) {
+                        String key = "key" + (j % 100);
+                        DateTimeFormatter f = cache.get(key);
+                        if (f == null) {
+                            f = cache.put(key, DateTimeFormat.forPattern("HH"));
+                        }
+                        if (j % 100 == 0) {
+                            results[index] = f;
+                        }
+                    }
+                }
+            };
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+        for (int i = 0; i < results.length; i++) {
+            assertNotNull(results[i]);
+        }
+        assertEquals(true, cache.size() <= 64);
+        assertEquals(8000, cache.getHitCount() + cache.getMissCount());
+    }
+
+}
@@ -38,6 +38,10 @@ public class TestAll extends TestCase {
         suite.addTest(TestBuilder.suite());
         suite.addTest(TestCompiler.suite());
         suite.addTest(TestFixedDateTimeZone.suite());
+        suite.addTest(TestMappedZoneInfoProvider.suite());
+        suite.addTest(TestZoneInfoProvider.suite());
+        suite.addTest(TestCachedDateTimeZone.suite());
+        suite.addTest(TestDefaultNameProvider.suite());
         return suite;
     }
 
@@ -18,6 +18,8 @@ package org.joda.time.tz;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Random;
+import java.util.TimeZone;
 
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
@@ -311,4 +313,111 @@ public class TestBuilder extends TestCase {
             tz = testSerialization(builder, "Test");
         }
     }
+
+    public void testPrecalculatedIndex() {
+        DateTimeZone tz = DateTimeZone.forID("Europe/London");
+        if (tz instanceof CachedDateTimeZone) {
+            tz = ((CachedDateTimeZone) tz).getUncachedZone();
+        }
+        long start = new DateTime(1900, 1, 1, 0, 0, 0, 0, DateTimeZone.UTC).getMillis();
+        long end = new DateTime(1996, 1, 1, 0, 0, 0, 0, DateTimeZone.UTC).getMillis();
+        for (long instant = start; instant < end; instant += 86400000L * 7) {
+            assertEquals(true, DateTimeZoneBuilder.isIndexed(tz, instant));
+        }
+        // after the last transition, which uses the tail zone
+        long tail = new DateTime(2010, 1, 1, 0, 0, 0, 0, DateTimeZone.UTC).getMillis();
+        assertEquals(false, DateTimeZoneBuilder.isIndexed(tz, tail));
+        // before the first real transition, which uses a binary search
+        assertEquals(false, DateTimeZoneBuilder.isIndexed(tz, Long.MIN_VALUE + 1));
+        assertEquals("LMT", tz.getNameKey(Long.MIN_VALUE + 1));
+        assertEquals(false, DateTimeZoneBuilder.isIndexed(DateTimeZone.UTC, 0L));
+    }
+
+    public void testPrecalculatedLookup() {
+        String[] ids = {
+            "America/Los_Angeles", "Europe/London", "Europe/Moscow",
+            "Australia/Lord_Howe", "America/Sao_Paulo", "Asia/Kolkata",
+        };
+        Random random = new Random(1234);
+        for (int j = 0; j < ids.length; j++) {
+            DateTimeZone tz = DateTimeZone.forID(ids[j]);
+            if (tz instanceof CachedDateTimeZone) {
+                tz = ((CachedDateTimeZone) tz).getUncachedZone();
+            }
+            // each transition and the instants either side of it
+            long instant = -5000000000000L;
+            while (instant < 3000000000000L) {
+                long next = tz.nextTransition(instant);
+                if (next == instant) {
+                    break;
+                }
+                assertLookup(tz, next - 1);
+                assertLookup(tz, next);
+                assertLookup(tz, next + 1);
+                instant = next;
+            }
+            for (int i = 0; i < 2000; i++) {
+                assertLookup(tz, (random.nextLong() % 4000000000000L) - 500000000000L);
+            }
+        }
+    }
+
+    public void testTailZoneLookup() {
+        String[] ids = {"America/New_York", "Europe/London", "Australia/Sydney"};
+        long year2040 = 2208988800000L;
+        long year2500 = 16725225600000L;
+        for (int j = 0; j < ids.length; j++) {
+            DateTimeZone tz = DateTimeZone.forID(ids[j]);
+            if (tz instanceof CachedDateTimeZone) {
+                tz = ((CachedDateTimeZone) tz).getUncachedZone();
+            }
+            TimeZone jdk = TimeZone.getTimeZone(ids[j]);
+            Random random = new Random(5678);
+            // backwards from the far future, so the cached transitions are
+            // extended towards the past as well as the future
+            for (int i = 0; i < 2000; i++) {
+                long instant = year2500 - (long) (random.nextDouble() * (year2500 - year2040));
+                if (i % 2 == 0) {
+                    instant = year2500 - (year2500 - year2040) * i / 2000;
+                }
+                assertEquals(ids[j] + " " + instant, jdk.getOffset(instant), tz.getOffset(instant));
+                assertLookup(tz, instant);
+            }
+            long instant = year2040;
+            while (instant < year2500) {
+                long next = tz.nextTransition(instant);
+                assertEquals(true, next > instant);
+                assertEquals(next - 1, tz.previousTransition(next + 1));
+                assertEquals(false, tz.getOffset(next - 1) == tz.getOffset(next));
+                assertLookup(tz, next - 1);
+                assertLookup(tz, next);
+                instant = next;
+            }
+            // beyond the range of cached transitions
+            instant = 40000000000000L;
+            assertEquals(jdk.getOffset(instant), tz.getOffset(instant));
+            assertLookup(tz, instant);
+        }
+    }
+
+    private static void assertLookup(DateTimeZone tz, long instant) {
+        // previousTransition is found independently of the other methods
+        long start = tz.previousTransition(instant + 1) + 1;
+        if (start >= instant) {
+            return;  // before the first transition, or at a transition
+        }
+        // compare to just after the transition, as the name key at the last
+        // precalculated transition may differ from that of the tail zone
+        start++;
+        String msg = tz.getID() + " " + instant;
+        assertEquals(msg, tz.getOffset(start), tz.getOffset(instant));
+        assertEquals(msg, tz.getStandardOffset(start), tz.getStandardOffset(instant));
+        assertEquals(msg, tz.getNameKey(start), tz.getNameKey(instant));
+        long next = tz.nextTransition(instant);
+        if (next == instant) {
+            assertEquals(msg, start, tz.nextTransition(start));  // no more transitions
+        } else {
+            assertEquals(msg, tz.nextTransition(start), next);
+        }
+    }
 }
@@ -0,0 +1,162 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.tz;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.joda.time.DateTimeZone;
+
+/**
+ * This class is a JUnit test for CachedDateTimeZone.
+ */
+public class TestCachedDateTimeZone extends TestCase {
+
+    private static final long PERIOD = 1L << 32;
+
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+    public static TestSuite suite() {
+        return new TestSuite(TestCachedDateTimeZone.class);
+    }
+
+    public TestCachedDateTimeZone(String name) {
+        super(name);
+    }
+
+    private DateTimeZone uncached(String id) {
+        DateTimeZone zone = DateTimeZone.forID(id);
+        if (zone instanceof CachedDateTimeZone) {
+            zone = ((CachedDateTimeZone) zone).getUncachedZone();
+        }
+        return zone;
+    }
+
+    //-----------------------------------------------------------------------
+    public void testForZone() {
+        DateTimeZone zone = uncached("Europe/London");
+        CachedDateTimeZone cached = CachedDateTimeZone.forZone(zone);
+        assertSame(zone, cached.getUncachedZone());
+        assertEquals(512, cached.getCacheSize());
+        assertSame(cached, CachedDateTimeZone.forZone(cached));
+        assertSame(cached, CachedDateTimeZone.forZone(cached, 16));
+        assertEquals(cached, CachedDateTimeZone.forZone(zone));
+    }
+
+    public void testForZone_size() {
+        DateTimeZone zone = uncached("Europe/London");
+        assertEquals(128, CachedDateTimeZone.forZone(zone, 100).getCacheSize());
+        assertEquals(1, CachedDateTimeZone.forZone(zone, 1).getCacheSize());
+        try {
+            CachedDateTimeZone.forZone(zone, 0);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    public void testStatistics() {
+        CachedDateTimeZone cached = CachedDateTimeZone.forZone(uncached("Europe/London"), 4);
+        assertEquals(0, cached.getMissCount());
+        cached.getOffset(0L);
+        cached.getOffset(1L);
+        cached.getStandardOffset(2L);
+        assertEquals(1, cached.getMissCount());
+        assertEquals(0, cached.getEvictionCount());
+        cached.getOffset(PERIOD);
+        assertEquals(2, cached.getMissCount());
+        assertEquals(0, cached.getEvictionCount());
+        // same cache entry as zero
+        cached.getOffset(4 * PERIOD);
+        cached.getOffset(0L);
+        assertEquals(4, cached.getMissCount());
+        assertEquals(2, cached.getEvictionCount());
+        // fixed size never grows
+        for (int i = 0; i < 100; i++) {
+            cached.getOffset(i * PERIOD);
+        }
+        assertEquals(4, cached.getCacheSize());
+    }
+
+    public void testForZone_defaultNotAdaptive() {
+        DateTimeZone zone = uncached("America/New_York");
+        CachedDateTimeZone cached = CachedDateTimeZone.forZone(zone);
+        // cycle over about 140 years, which thrashes the default size
+        for (int j = 0; j < 3; j++) {
+            for (int i = 0; i < 1024; i++) {
+                long instant = (i - 512) * PERIOD + 12345;
+                assertEquals(zone.getOffset(instant), cached.getOffset(instant));
+            }
+        }
+        assertEquals(512, cached.getCacheSize());
+        cached.prepopulate(-1000 * PERIOD, 1000 * PERIOD);
+        assertEquals(512, cached.getCacheSize());
+    }
+
+    public void testAdaptive() {
+        DateTimeZone zone = uncached("America/New_York");
+        CachedDateTimeZone cached = CachedDateTimeZone.forZone(zone, 512, true);
+        // cycle over about 140 years, which thrashes the default size
+        for (int j = 0; j < 3; j++) {
+            for (int i = 0; i < 1024; i++) {
+                long instant = (i - 512) * PERIOD + 12345;
+                assertEquals(zone.getOffset(instant), cached.getOffset(instant));
+            }
+        }
+        assertEquals(1024, cached.getCacheSize());
+        long misses = cached.getMissCount();
+        for (int i = 0; i < 1024; i++) {
+            long instant = (i - 512) * PERIOD + 12345;
+            assertEquals(zone.getOffset(instant), cached.getOffset(instant));
+        }
+        assertEquals(misses, cached.getMissCount());
+    }
+
+    public void testPrepopulate() {
+        DateTimeZone zone = uncached("Australia/Sydney");
+        CachedDateTimeZone cached = CachedDateTimeZone.forZone(zone, 512, true);
+        long start = -1000 * PERIOD;
+        long end = 1000 * PERIOD;
+        cached.prepopulate(start, end);
+        assertEquals(2048, cached.getCacheSize());
+        assertEquals(0, cached.getMissCount());
+        Random random = new Random(99);
+        for (int i = 0; i < 5000; i++) {
+            long instant = start + (long) (random.nextDouble() * (end - start));
+            assertEquals(zone.getOffset(instant), cached.getOffset(instant));
+            assertEquals(zone.getStandardOffset(instant), cached.getStandardOffset(instant));
+        }
+        assertEquals(0, cached.getMissCount());
+
+        try {
+            cached.prepopulate(end, start);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    public void testPrepopulate_fixedSize() {
+        CachedDateTimeZone cached = CachedDateTimeZone.forZone(uncached("Australia/Sydney"), 8);
+        cached.prepopulate(0L, 100 * PERIOD);
+        assertEquals(8, cached.getCacheSize());
+        for (int i = 0; i < 8; i++) {
+            cached.getOffset(i * PERIOD);
+        }
+        assertEquals(0, cached.getMissCount());
+    }
+
+}
@@ -17,9 +17,12 @@ package org.joda.time.tz;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.StringTokenizer;
 
 import junit.framework.TestCase;
@@ -110,6 +113,95 @@ public class TestCompiler extends TestCase {
         return new ZoneInfoProvider(destDir);
     }
 
+    public void testCompile_parallel() throws Exception {
+        // rules split across files, which must be merged in order
+        int split = AMERICA_LOS_ANGELES_FILE.indexOf("Rule    CA");
+        File srcDir = makeTempDir();
+        File[] sources = new File[] {
+            writeFile(srcDir, "rules", AMERICA_LOS_ANGELES_FILE.substring(0, split)),
+            writeFile(srcDir, "zones", AMERICA_LOS_ANGELES_FILE.substring(split)),
+            writeFile(srcDir, "more", "Zone Etc/Test -5 - TEST\nLink America/Los_Angeles US/Pacific\n"),
+        };
+
+        File destDir1 = makeTempDir();
+        File bundle1 = new File(destDir1, "bundle");
+        Map map1 = new ZoneInfoCompiler().compile(destDir1, bundle1, sources);
+        deleteOnExit(destDir1);
+
+        File destDir2 = makeTempDir();
+        File bundle2 = new File(destDir2, "bundle");
+        ZoneInfoCompiler zic = new ZoneInfoCompiler();
+        zic.setThreads(4);
+        Map map2 = zic.compile(destDir2, bundle2, sources);
+        deleteOnExit(destDir2);
+
+        assertEquals(map1, map2);
+        assertEquals(3, map2.size());
+        assertEquals(true, Arrays.equals(readFile(bundle1), readFile(bundle2)));
+        assertEquals(true, Arrays.equals(
+            readFile(new File(destDir1, "ZoneInfoMap")), readFile(new File(destDir2, "ZoneInfoMap"))));
+        DateTimeZone tz = new ZoneInfoProvider(destDir2).getZone("US/Pacific");
+        TestBuilder.testForwardTransitions(tz, TestBuilder.AMERICA_LOS_ANGELES_DATA);
+
+        try {
+            zic.setThreads(0);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    public void testCompile_incremental() throws Exception {
+        File srcDir = makeTempDir();
+        File destDir = makeTempDir();
+        File[] sources = new File[] {
+            writeFile(srcDir, "tzdata", AMERICA_LOS_ANGELES_FILE + "\nZone Etc/Test -5 - TEST\nZone Etc/Old 1 - OLD\n"),
+        };
+        ZoneInfoCompiler zic = new ZoneInfoCompiler();
+        zic.setIncremental(true);
+        zic.compile(destDir, null, sources);
+        File laFile = new File(destDir, "America/Los_Angeles");
+        File testFile = new File(destDir, "Etc/Test");
+        assertEquals(true, laFile.setLastModified(1000000L));
+        assertEquals(true, testFile.setLastModified(1000000L));
+
+        writeFile(srcDir, "tzdata", AMERICA_LOS_ANGELES_FILE + "\nZone Etc/Test -6 - TEST\n");
+        zic = new ZoneInfoCompiler();
+        zic.setIncremental(true);
+        Map map = zic.compile(destDir, null, sources);
+        deleteOnExit(destDir);
+
+        assertEquals(2, map.size());
+        assertEquals(1000000L, laFile.lastModified());
+        assertEquals(true, testFile.lastModified() != 1000000L);
+        assertEquals(false, new File(destDir, "Etc/Old").exists());
+
+        Provider provider = new ZoneInfoProvider(destDir);
+        assertEquals(-6 * 3600000, provider.getZone("Etc/Test").getOffset(0L));
+        DateTimeZone tz = provider.getZone("America/Los_Angeles");
+        assertEquals(map.get("America/Los_Angeles"), tz);
+        TestBuilder.testForwardTransitions(tz, TestBuilder.AMERICA_LOS_ANGELES_DATA);
+    }
+
+    private File writeFile(File dir, String name, String data) throws IOException {
+        File file = new File(dir, name);
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(data.getBytes("UTF-8"));
+        out.close();
+        return file;
+    }
+
+    private byte[] readFile(File file) throws IOException {
+        byte[] bytes = new byte[(int) file.length()];
+        InputStream in = new FileInputStream(file);
+        int pos = 0;
+        int amt;
+        while (pos < bytes.length && (amt = in.read(bytes, pos, bytes.length - pos)) > 0) {
+            pos += amt;
+        }
+        in.close();
+        return bytes;
+    }
+
     private File createDataFile(String data) throws IOException {
         File tempDir = makeTempDir();
 
@@ -197,4 +289,22 @@ public class TestCompiler extends TestCase {
         assertEquals(next, new DateTime(2006, 3, 31, 0, 0, 0, 0, DateTimeZone.forOffsetHours(2)).getMillis());
     }
 
+    //-----------------------------------------------------------------------
+    public void test_duplicateNameKeys_Johannesburg() {
+        // summer and winter share the key SAST, so summer becomes SAST-Summer
+        DateTimeZone zone = DateTimeZone.forID("Africa/Johannesburg");
+        DateTime summer = new DateTime(1943, 1, 15, 12, 0, 0, 0, DateTimeZone.UTC);
+        DateTime winter = new DateTime(1943, 6, 15, 12, 0, 0, 0, DateTimeZone.UTC);
+        assertEquals("SAST-Summer", zone.getNameKey(summer.getMillis()));
+        assertEquals("SAST", zone.getNameKey(winter.getMillis()));
+    }
+
+    public void test_duplicateNameKeys_Sydney() {
+        DateTimeZone zone = DateTimeZone.forID("Australia/Sydney");
+        DateTime summer = new DateTime(2010, 1, 15, 12, 0, 0, 0, DateTimeZone.UTC);
+        DateTime winter = new DateTime(2010, 7, 15, 12, 0, 0, 0, DateTimeZone.UTC);
+        assertEquals("EST-Summer", zone.getNameKey(summer.getMillis()));
+        assertEquals("EST", zone.getNameKey(winter.getMillis()));
+    }
+
 }
@@ -0,0 +1,103 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.tz;
+
+import java.text.DateFormatSymbols;
+import java.util.Locale;
+
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * This class is a JUnit test for DefaultNameProvider.
+ */
+public class TestDefaultNameProvider extends TestCase {
+
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+    public static TestSuite suite() {
+        return new TestSuite(TestDefaultNameProvider.class);
+    }
+
+    public TestDefaultNameProvider(String name) {
+        super(name);
+    }
+
+    //-----------------------------------------------------------------------
+    private String[] zoneStrings(Locale locale, String id) {
+        String[][] zoneStrings = new DateFormatSymbols(locale).getZoneStrings();
+        for (int i = 0; i < zoneStrings.length; i++) {
+            if (zoneStrings[i].length >= 5 && id.equals(zoneStrings[i][0])) {
+                return zoneStrings[i];
+            }
+        }
+        fail(id);
+        return null;
+    }
+
+    public void testGetName() {
+        String[] set = zoneStrings(Locale.ENGLISH, "America/New_York");
+        NameProvider provider = new DefaultNameProvider();
+        assertEquals(set[2], provider.getShortName(Locale.ENGLISH, "America/New_York", set[2]));
+        assertEquals(set[1], provider.getName(Locale.ENGLISH, "America/New_York", set[2]));
+        assertEquals(set[4], provider.getShortName(Locale.ENGLISH, "America/New_York", set[4]));
+        assertEquals(set[3], provider.getName(Locale.ENGLISH, "America/New_York", set[4]));
+
+        assertEquals(null, provider.getName(Locale.ENGLISH, "America/New_York", "XXX"));
+        assertEquals(null, provider.getName(Locale.ENGLISH, "Unknown/Zone", set[2]));
+        assertEquals(null, provider.getName(null, "America/New_York", set[2]));
+        assertEquals(null, provider.getName(Locale.ENGLISH, null, set[2]));
+        assertEquals(null, provider.getName(Locale.ENGLISH, "America/New_York", null));
+    }
+
+    public void testPreload() {
+        String[] set = zoneStrings(Locale.FRENCH, "Europe/Paris");
+        DefaultNameProvider provider = new DefaultNameProvider();
+        provider.preload(Locale.FRENCH);
+        assertEquals(set[1], provider.getName(Locale.FRENCH, "Europe/Paris", set[2]));
+        try {
+            provider.preload(null);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    public void testGetName_concurrent() throws Exception {
+        final String[] set = zoneStrings(Locale.GERMAN, "Europe/Berlin");
+        final NameProvider provider = new DefaultNameProvider();
+        final String[] names = new String[8];
+        Thread[] threads = new Thread[names.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    names[index] = provider.getName(Locale.GERMAN, "Europe/Berlin", set[2]);
+                }
+            };
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+        for (int i = 0; i < names.length; i++) {
+            assertEquals(set[1], names[i]);
+        }
+    }
+
+}
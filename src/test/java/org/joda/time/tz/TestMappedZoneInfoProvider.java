@@ -0,0 +1,171 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.tz;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Set;
+
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.joda.time.DateTimeZone;
+
+/**
+ * This class is a JUnit test for MappedZoneInfoProvider.
+ */
+public class TestMappedZoneInfoProvider extends TestCase {
+
+    private static final String DATA =
+        TestCompiler.AMERICA_LOS_ANGELES_FILE + "\n" +
+        "Zone Etc/GMT+5 -5 - GMT+5\n" +
+        "Zone Etc/UTC 0 - UTC\n" +
+        "Link America/Los_Angeles US/Pacific\n" +
+        "Link Etc/UTC UTC\n";
+
+    private static final String TZ_SOURCE_DIR = "src/main/java/org/joda/time/tz/src";
+    private static final String[] TZ_SOURCE_FILES = {
+        "africa", "antarctica", "asia", "australasia", "europe", "northamerica",
+        "southamerica", "pacificnew", "etcetera", "backward", "systemv",
+    };
+
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+    public static TestSuite suite() {
+        return new TestSuite(TestMappedZoneInfoProvider.class);
+    }
+
+    public TestMappedZoneInfoProvider(String name) {
+        super(name);
+    }
+
+    //-----------------------------------------------------------------------
+    private File compileBundle(String data) throws IOException {
+        File source = File.createTempFile("joda-test-", ".tzdata");
+        source.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(source);
+        out.write(data.getBytes("UTF-8"));
+        out.close();
+
+        File bundle = File.createTempFile("joda-test-", ".tzdb");
+        bundle.deleteOnExit();
+        new ZoneInfoCompiler().compile(null, bundle, new File[] {source});
+        return bundle;
+    }
+
+    public void testGetZone() throws Exception {
+        Provider provider = new MappedZoneInfoProvider(compileBundle(DATA));
+        DateTimeZone tz = provider.getZone("America/Los_Angeles");
+        assertEquals("America/Los_Angeles", tz.getID());
+        assertEquals(false, tz.isFixed());
+        TestBuilder.testForwardTransitions(tz, TestBuilder.AMERICA_LOS_ANGELES_DATA);
+        TestBuilder.testReverseTransitions(tz, TestBuilder.AMERICA_LOS_ANGELES_DATA);
+        assertSame(tz, provider.getZone("America/Los_Angeles"));
+
+        tz = provider.getZone("Etc/GMT+5");
+        assertEquals("Etc/GMT+5", tz.getID());
+        assertEquals(true, tz.isFixed());
+        assertEquals(-5 * 3600000, tz.getOffset(0L));
+
+        assertEquals(null, provider.getZone("America/Los_Angele"));
+        assertEquals(null, provider.getZone("Europe/London"));
+        assertEquals(null, provider.getZone(""));
+        assertEquals(null, provider.getZone(null));
+    }
+
+    public void testGetZone_alias() throws Exception {
+        Provider provider = new MappedZoneInfoProvider(compileBundle(DATA));
+        DateTimeZone tz = provider.getZone("US/Pacific");
+        assertEquals("America/Los_Angeles", tz.getID());
+        assertSame(provider.getZone("America/Los_Angeles"), tz);
+    }
+
+    public void testGetZone_exactCase() throws Exception {
+        Provider provider = new MappedZoneInfoProvider(compileBundle(DATA));
+        assertEquals(null, provider.getZone("america/los_angeles"));
+        assertEquals(null, provider.getZone("ETC/GMT+5"));
+        assertEquals(null, provider.getZone("US/PACIFIC"));
+        assertEquals("Etc/GMT+5", provider.getZone("Etc/GMT+5").getID());
+    }
+
+    public void testGetZone_UTC() throws Exception {
+        Provider provider = new MappedZoneInfoProvider(compileBundle(DATA));
+        assertSame(DateTimeZone.UTC, provider.getZone("UTC"));
+        assertEquals(null, provider.getZone("utc"));
+        assertEquals("Etc/UTC", provider.getZone("Etc/UTC").getID());
+        assertEquals(0, provider.getZone("Etc/UTC").getOffset(0L));
+    }
+
+    public void testGetAvailableIDs() throws Exception {
+        Provider provider = new MappedZoneInfoProvider(compileBundle(DATA));
+        Set ids = provider.getAvailableIDs();
+        assertEquals(5, ids.size());
+        assertEquals(true, ids.contains("America/Los_Angeles"));
+        assertEquals(true, ids.contains("US/Pacific"));
+        assertEquals(true, ids.contains("Etc/GMT+5"));
+        assertEquals(true, ids.contains("Etc/UTC"));
+        assertEquals(true, ids.contains("UTC"));
+    }
+
+    public void testConstructor_invalid() throws Exception {
+        try {
+            new MappedZoneInfoProvider((File) null);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+        try {
+            new MappedZoneInfoProvider((ByteBuffer) null);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+        try {
+            new MappedZoneInfoProvider(ByteBuffer.wrap(new byte[20]));
+            fail();
+        } catch (IOException ex) {}
+        ByteBuffer buffer = ByteBuffer.allocate(12);
+        buffer.putInt(MappedZoneInfoProvider.MAGIC).putInt(MappedZoneInfoProvider.VERSION).putInt(1);
+        try {
+            new MappedZoneInfoProvider(buffer);
+            fail();
+        } catch (IOException ex) {}
+    }
+
+    public void testMatchesZoneInfoProvider() throws Exception {
+        File dir = new File(TZ_SOURCE_DIR);
+        if (dir.isDirectory() == false) {
+            return;  // only run from the project directory
+        }
+        File[] sources = new File[TZ_SOURCE_FILES.length];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = new File(dir, TZ_SOURCE_FILES[i]);
+        }
+        File bundle = File.createTempFile("joda-test-", ".tzdb");
+        bundle.deleteOnExit();
+        new ZoneInfoCompiler().compile(null, bundle, sources);
+
+        Provider mapped = new MappedZoneInfoProvider(bundle);
+        Provider expected = new ZoneInfoProvider("org/joda/time/tz/data");
+        assertEquals(expected.getAvailableIDs(), mapped.getAvailableIDs());
+        for (Iterator it = expected.getAvailableIDs().iterator(); it.hasNext(); ) {
+            String id = (String) it.next();
+            assertEquals(id, expected.getZone(id), mapped.getZone(id));
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ *  Copyright 2001-2010 Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.time.tz;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.joda.time.DateTimeZone;
+
+/**
+ * This class is a JUnit test for ZoneInfoProvider.
+ */
+public class TestZoneInfoProvider extends TestCase {
+
+    private static final String DATA =
+        TestCompiler.AMERICA_LOS_ANGELES_FILE + "\n" +
+        "Zone Etc/GMT+5 -5 - GMT+5\n" +
+        "Link America/Los_Angeles US/Pacific\n";
+
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+    public static TestSuite suite() {
+        return new TestSuite(TestZoneInfoProvider.class);
+    }
+
+    public TestZoneInfoProvider(String name) {
+        super(name);
+    }
+
+    //-----------------------------------------------------------------------
+    private File compile(String data) throws IOException {
+        File source = File.createTempFile("joda-test-", ".tzdata");
+        source.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(source);
+        out.write(data.getBytes("UTF-8"));
+        out.close();
+
+        File dir = File.createTempFile("joda-test-", ".dir");
+        dir.delete();
+        dir.mkdirs();
+        dir.deleteOnExit();
+        new ZoneInfoCompiler().compile(dir, new File[] {source});
+        return dir;
+    }
+
+    public void testGetZone() throws Exception {
+        Provider provider = new ZoneInfoProvider(compile(DATA));
+        DateTimeZone tz = provider.getZone("America/Los_Angeles");
+        assertEquals("America/Los_Angeles", tz.getID());
+        TestBuilder.testForwardTransitions(tz, TestBuilder.AMERICA_LOS_ANGELES_DATA);
+        assertSame(tz, provider.getZone("America/Los_Angeles"));
+        assertSame(tz, provider.getZone("US/Pacific"));
+        assertSame(tz, provider.getZone("america/los_angeles"));
+        assertSame(DateTimeZone.UTC, provider.getZone("UTC"));
+
+        assertEquals(null, provider.getZone("Europe/London"));
+        assertEquals(null, provider.getZone(null));
+    }
+
+    public void testGetZone_failed() throws Exception {
+        File dir = compile(DATA);
+        FileOutputStream out = new FileOutputStream(new File(dir, "Etc/GMT+5"));
+        out.write(new byte[] {'X'});
+        out.close();
+
+        final int[] errors = new int[1];
+        Provider provider = new ZoneInfoProvider(dir) {
+            protected void uncaughtException(Exception ex) {
+                errors[0]++;
+            }
+        };
+        assertEquals(true, provider.getAvailableIDs().contains("Etc/GMT+5"));
+        assertEquals(null, provider.getZone("Etc/GMT+5"));
+        assertEquals(null, provider.getZone("Etc/GMT+5"));
+        assertEquals(1, errors[0]);
+        assertEquals(false, provider.getAvailableIDs().contains("Etc/GMT+5"));
+        assertEquals("America/Los_Angeles", provider.getZone("America/Los_Angeles").getID());
+    }
+
+    public void testPreload() throws Exception {
+        ZoneInfoProvider provider = new ZoneInfoProvider(compile(DATA));
+        assertEquals(false, provider.isPreloaded("America/Los_Angeles"));
+        provider.preload(Arrays.asList(new String[] {"US/Pacific", "Unknown/Zone"}));
+        assertEquals(true, provider.isPreloaded("America/Los_Angeles"));
+        assertEquals(false, provider.isPreloaded("Etc/GMT+5"));
+        assertEquals("America/Los_Angeles", provider.getZone("America/Los_Angeles").getID());
+        provider.preloadAll();
+        assertEquals(true, provider.isPreloaded("Etc/GMT+5"));
+        Set ids = provider.getAvailableIDs();
+        assertEquals(4, ids.size());
+        assertEquals(true, ids.contains("UTC"));
+        assertEquals(true, ids.contains("Etc/GMT+5"));
+    }
+
+    public void testGetZone_concurrent() throws Exception {
+        final Provider provider = new ZoneInfoProvider(compile(DATA));
+        final DateTimeZone[] zones = new DateTimeZone[8];
+        Thread[] threads = new Thread[zones.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    zones[index] = provider.getZone(index % 2 == 0 ? "America/Los_Angeles" : "US/Pacific");
+                }
+            };
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+        for (int i = 0; i < zones.length; i++) {
+            assertSame(zones[0], zones[i]);
+        }
+        assertEquals("America/Los_Angeles", zones[0].getID());
+    }
+
+}